@@ -0,0 +1,45 @@
+package org.example.tkdmng.Controller;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configures the executor the web endpoints run on. The endpoints return a CompletableFuture,
+ * so the servlet thread is given back to the server while a request waits on the repositories,
+ * and many clients can wait on the database at the same time without holding a servlet thread each.
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+    public static final int CORE_THREADS = 16;
+    public static final int MAX_THREADS = 64;
+    public static final int QUEUE_CAPACITY = 1_000;
+    public static final long REQUEST_TIMEOUT_MILLIS = 30_000;
+
+    /**
+     * The executor that runs the work of the web endpoints.
+     * @return The executor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor tkdRequestExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(CORE_THREADS);
+        executor.setMaxPoolSize(MAX_THREADS);
+        executor.setQueueCapacity(QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("tkd-request-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Limits how long an asynchronous request can take.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(tkdRequestExecutor());
+        configurer.setDefaultTimeout(REQUEST_TIMEOUT_MILLIS);
+    }
+}
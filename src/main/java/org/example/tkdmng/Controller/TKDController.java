@@ -5,17 +5,22 @@ import org.example.tkdmng.Exceptions.DatabaseException;
 import org.example.tkdmng.Exceptions.EntityNotFoundException;
 import org.example.tkdmng.Model.*;
 import org.example.tkdmng.Repository.IRepo;
+import org.example.tkdmng.Service.EventCatalog;
+import org.example.tkdmng.Service.EventPlanner;
 import org.example.tkdmng.Service.TKD_Service;
 
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * A controller class that handles the business logic for the TKD-Management system.
  */
 public class TKDController {
+    private static final int BEST_EVENT_PLANS = 10;
     private TKD_Service tkdService;
 
     public TKD_Service getTkdService() {
@@ -289,6 +294,126 @@ public class TKDController {
 //        System.out.println();
     }
 
+    /**
+     * Displays one page of students, ordered by id.
+     * @param afterId   the id of the last student shown, 0 for the first page
+     * @param pageSize  the number of students on a page
+     * @return the id of the last student shown, or -1 if there are no more students
+     */
+    public int viewStudentsPage(int afterId, int pageSize) {
+        try {
+            return printPage(tkdService.getStudentsPage(afterId, pageSize), pageSize, Student::toString2);
+        } catch (DatabaseException e) {
+            System.out.println("Error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Displays one page of trainers, ordered by id.
+     * @param afterId   the id of the last trainer shown, 0 for the first page
+     * @param pageSize  the number of trainers on a page
+     * @return the id of the last trainer shown, or -1 if there are no more trainers
+     */
+    public int viewTrainersPage(int afterId, int pageSize) {
+        try {
+            return printPage(tkdService.getTrainersPage(afterId, pageSize), pageSize, Trainer::toString2);
+        } catch (DatabaseException e) {
+            System.out.println("Error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Displays one page of parents and their children, ordered by id.
+     * @param afterId   the id of the last parent shown, 0 for the first page
+     * @param pageSize  the number of parents on a page
+     * @return the id of the last parent shown, or -1 if there are no more parents
+     */
+    public int viewParentsPage(int afterId, int pageSize) {
+        try {
+            List<Parent> page = tkdService.getParentsPage(afterId, pageSize);
+            System.out.print(tkdService.viewParents(page));
+            return lastIdOf(page, pageSize);
+        } catch (DatabaseException e) {
+            System.out.println("Error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Displays one page of contests and their students, ordered by id.
+     * @param afterId   the id of the last contest shown, 0 for the first page
+     * @param pageSize  the number of contests on a page
+     * @return the id of the last contest shown, or -1 if there are no more contests
+     */
+    public int viewContestsPage(int afterId, int pageSize) {
+        try {
+            List<Contest> page = tkdService.getContestsPage(afterId, pageSize);
+            System.out.print(tkdService.viewContests(page));
+            return lastIdOf(page, pageSize);
+        } catch (DatabaseException e) {
+            System.out.println("Error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Displays one page of training camps and their students, ordered by id.
+     * @param afterId   the id of the last training camp shown, 0 for the first page
+     * @param pageSize  the number of training camps on a page
+     * @return the id of the last training camp shown, or -1 if there are no more training camps
+     */
+    public int viewTrainingCampsPage(int afterId, int pageSize) {
+        try {
+            List<TrainingCamp> page = tkdService.getTrainingCampsPage(afterId, pageSize);
+            System.out.print(tkdService.viewTrainingCamps(page));
+            return lastIdOf(page, pageSize);
+        } catch (DatabaseException e) {
+            System.out.println("Error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Displays one page of belt exams and their students, ordered by id.
+     * @param afterId   the id of the last belt exam shown, 0 for the first page
+     * @param pageSize  the number of belt exams on a page
+     * @return the id of the last belt exam shown, or -1 if there are no more belt exams
+     */
+    public int viewBeltExamsPage(int afterId, int pageSize) {
+        try {
+            List<BeltExam> page = tkdService.getBeltExamsPage(afterId, pageSize);
+            System.out.print(tkdService.viewBeltExams(page));
+            return lastIdOf(page, pageSize);
+        } catch (DatabaseException e) {
+            System.out.println("Error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Prints the objects of a page.
+     * @return the id of the last object of a full page, or -1 if it was the last page
+     */
+    private static <T extends HasID> int printPage(List<T> page, int pageSize, Function<T, String> format) {
+        for (T obj : page) {
+            System.out.println(format.apply(obj));
+        }
+        return lastIdOf(page, pageSize);
+    }
+
+    /**
+     * Gets the id the next page starts after.
+     * @return the id of the last object of a full page, or -1 if it was the last page
+     */
+    private static <T extends HasID> int lastIdOf(List<T> page, int pageSize) {
+        if (page.size() < pageSize) {
+            return -1;
+        }
+        return page.get(page.size() - 1).getId();
+    }
+
     /**
      * Displays all trainers from the session.
      */
@@ -419,32 +544,55 @@ public class TKDController {
     }
 
     /**
-     * Shows every combination of events that a student can attend to for a given amount of money.
+     * Loads a snapshot of the events, so several screens about the same amount of money read the events once.
+     * @return The event catalog.
+     */
+    public EventCatalog loadEventCatalog() {
+        return tkdService.loadEventCatalog();
+    }
+
+    /**
+     * Shows the combinations of events a student can attend to for a given amount of money while they are found,
+     * up to TKD_Service.MAX_EVENT_PLANS of them.
+     * @param catalog       The events, as already loaded by the screen.
      * @param amountOfMoney The maximum value of a combination.
      */
-    public void eventsThatdontExceedAmountOfMoney(double amountOfMoney) {
+    public void streamEventCombinations(EventCatalog catalog, double amountOfMoney) {
         try {
-            List<List<Integer>> results = null;
-            try {
-                results = tkdService.eventsThatdontExceedAmountOfMoney(amountOfMoney);
-            } catch (DatabaseException | EntityNotFoundException | BusinessLogicException e) {
-                throw new RuntimeException(e);
-            }
-            System.out.println("Events combinations that don t exceed the sum : " + amountOfMoney);
-            for (List<Integer> combination : results) {
-                System.out.println("ID-urile evenimentelor: ");
-                for (Integer c : combination) {
-                    if (c > 100 && c < 200) { // id for Contests
-                        Contest cnt = tkdService.getContestById(c);
-                        System.out.println(cnt.toString2());
-                    } else if (c > 10 && c < 100) {
-                        TrainingCamp tc = tkdService.getTrainingCampByIs(c);
-                        System.out.println(tc.toString2());
+            EventPlanner.PlanSearch search = tkdService.searchEventPlans(catalog, amountOfMoney, TKD_Service.MAX_EVENT_PLANS, plans -> {
+                synchronized (System.out) {
+                    for (EventPlanner.Plan plan : plans) {
+                        System.out.println("Total " + plan.cost() + ": "
+                                + plan.events().stream().map(event -> String.valueOf(event.id())).collect(Collectors.joining(", ")));
                     }
                 }
+            });
+            System.out.println("Combinations found: " + search.await());
+        } catch (DatabaseException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Shows how many combinations of events a student can attend to for a given amount of money,
+     * and the ones that use the most of it.
+     * @param catalog       The events, read once for both answers.
+     * @param amountOfMoney The maximum value of a combination.
+     */
+    public void eventsThatdontExceedAmountOfMoney(EventCatalog catalog, double amountOfMoney) {
+        try {
+            List<EventPlanner.Plan> plans = tkdService.bestEventPlans(catalog, amountOfMoney, BEST_EVENT_PLANS);
+            System.out.println("Events combinations that don t exceed the sum " + amountOfMoney + ": "
+                    + tkdService.countEventPlans(catalog, amountOfMoney));
+            System.out.println("The " + plans.size() + " that use the most of it:");
+            for (EventPlanner.Plan plan : plans) {
+                System.out.println("Total: " + plan.cost());
+                for (EventSummary event : plan.events()) {
+                    System.out.println(event.toString2());
+                }
                 System.out.println('\n');
             }
-        }catch (DatabaseException | EntityNotFoundException e){
+        }catch (DatabaseException | BusinessLogicException e){
             System.out.println("Error: " + e.getMessage());
         }
     }
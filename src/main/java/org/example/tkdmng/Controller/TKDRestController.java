@@ -0,0 +1,280 @@
+package org.example.tkdmng.Controller;
+
+import org.example.tkdmng.Exceptions.BusinessLogicException;
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Exceptions.EntityNotFoundException;
+import org.example.tkdmng.Exceptions.ServiceNotReadyException;
+import org.example.tkdmng.Exceptions.ValidationException;
+import org.example.tkdmng.Model.*;
+import org.example.tkdmng.Service.AttendanceLeaderboard;
+import org.example.tkdmng.Service.EventPlanner;
+import org.example.tkdmng.Service.InvoiceEngine;
+import org.example.tkdmng.Service.TKDServiceHolder;
+import org.example.tkdmng.Service.TKD_Service;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+/**
+ * The web endpoints of the TKD-Management system, which return JSON.
+ * Every endpoint runs on the request executor and returns a CompletableFuture, so no servlet thread
+ * waits while the repositories are read or written. The repositories that are not thread-safe are used
+ * by one thread at a time, so the endpoints can be used by several clients at once with any repository.
+ */
+@RestController
+@RequestMapping("/api")
+public class TKDRestController {
+    private final TKDServiceHolder serviceHolder;
+    private final ThreadPoolTaskExecutor executor;
+
+    /**
+     * Some work done with the service.
+     */
+    @FunctionalInterface
+    private interface ServiceCall<T> {
+        T call(TKD_Service service) throws Exception;
+    }
+
+    /**
+     * Attendance sent by a client.
+     * @param sessionId The session that took place.
+     * @param attended  true if the student was present.
+     * @param weekday   The day of the week of the session.
+     * @param date      The date of the session, yyyy-MM-dd.
+     */
+    public record AttendanceRequest(int sessionId, boolean attended, String weekday, String date) {}
+
+    /**
+     * The attendance of a whole session on one date, sent by a client.
+     * @param weekday   The day of the week of the session.
+     * @param date      The date of the session, yyyy-MM-dd.
+     * @param present   The ids of the students that were present.
+     * @param absent    The ids of the students that were absent.
+     */
+    public record SessionAttendanceRequest(String weekday, String date, List<Integer> present, List<Integer> absent) {}
+
+    /**
+     * Constructs a new TKDRestController.
+     * @param serviceHolder The holder of the service chosen at startup.
+     * @param executor      The executor the requests run on.
+     */
+    public TKDRestController(TKDServiceHolder serviceHolder, @Qualifier("tkdRequestExecutor") ThreadPoolTaskExecutor executor) {
+        this.serviceHolder = serviceHolder;
+        this.executor = executor;
+    }
+
+    private <T> CompletableFuture<T> async(ServiceCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call(serviceHolder.getTkdService());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Lists the students, all of them or one page when a size is given.
+     * @param afterId   The id of the last student of the previous page.
+     * @param size      The number of students on a page.
+     * @return The students, ordered by id when paged.
+     */
+    @GetMapping("/students")
+    public CompletableFuture<List<Student>> getStudents(@RequestParam(defaultValue = "0") int afterId,
+                                                        @RequestParam(required = false) Integer size) throws ValidationException {
+        if (size == null) {
+            return async(TKD_Service::getAllStudents);
+        }
+        checkAtLeast("size", size, 1);
+        return async(service -> service.getStudentsPage(afterId, size));
+    }
+
+    /**
+     * Ranks the students by their number of attendances, the most present first.
+     * @param parallel  true to sort on several threads, by default only large rosters are.
+     * @return The ranked students.
+     */
+    @GetMapping("/students/ranking")
+    public CompletableFuture<List<Student>> getAttendanceRanking(@RequestParam(required = false) Boolean parallel) {
+        if (parallel == null) {
+            return async(TKD_Service::rankStudentsByAttendance);
+        }
+        return async(service -> service.rankStudentsByAttendance(parallel));
+    }
+
+    /**
+     * Gets the students with the most attendances in the school.
+     * @param k The number of students.
+     * @return The ranks of the most present students, the first one first.
+     */
+    @GetMapping("/students/leaderboard")
+    public CompletableFuture<List<AttendanceLeaderboard.Rank>> getAttendanceLeaderboard(@RequestParam(defaultValue = "20") int k) throws ValidationException {
+        checkAtLeast("k", k, 0);
+        return async(service -> service.getAttendanceLeaderboard(k));
+    }
+
+    @GetMapping("/students/{id}")
+    public CompletableFuture<Student> getStudent(@PathVariable int id) {
+        return async(service -> service.getStudentById(id));
+    }
+
+    @GetMapping("/students/{id}/attendance")
+    public CompletableFuture<Map<String, Integer>> getAttendance(@PathVariable int id) {
+        return async(service -> service.numberOfAttendencesAndAbsences(id));
+    }
+
+    @PostMapping("/students/{id}/attendance")
+    public CompletableFuture<ResponseEntity<Void>> addAttendance(@PathVariable int id, @RequestBody AttendanceRequest request) {
+        return async(service -> {
+            service.addAttendance(id, request.sessionId(), request.attended(), request.weekday(), request.date());
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        });
+    }
+
+    /**
+     * Lists the sessions, all of them or one page when a size is given.
+     * @param afterId   The id of the last session of the previous page.
+     * @param size      The number of sessions on a page.
+     * @return The sessions, ordered by id when paged.
+     */
+    @GetMapping("/sessions")
+    public CompletableFuture<List<Session>> getSessions(@RequestParam(defaultValue = "0") int afterId,
+                                                        @RequestParam(required = false) Integer size) throws ValidationException {
+        if (size == null) {
+            return async(TKD_Service::getAllSessions);
+        }
+        checkAtLeast("size", size, 1);
+        return async(service -> service.getSessionsPage(afterId, size));
+    }
+
+    @GetMapping("/sessions/{id}")
+    public CompletableFuture<Session> getSession(@PathVariable int id) {
+        return async(service -> service.getSessionById(id));
+    }
+
+    /**
+     * Gets the students with the most attendances in one session.
+     * @param id    The unique identifier of the session.
+     * @param k     The number of students.
+     * @return The ranks of the most present students of the session, the first one first.
+     */
+    @GetMapping("/sessions/{id}/leaderboard")
+    public CompletableFuture<List<AttendanceLeaderboard.Rank>> getSessionAttendanceLeaderboard(@PathVariable int id, @RequestParam(defaultValue = "20") int k) throws ValidationException {
+        checkAtLeast("k", k, 0);
+        return async(service -> service.getSessionAttendanceLeaderboard(id, k));
+    }
+
+    @PostMapping("/sessions/{id}/attendance")
+    public CompletableFuture<ResponseEntity<Void>> recordSessionAttendance(@PathVariable int id, @RequestBody SessionAttendanceRequest request) {
+        return async(service -> {
+            service.recordSessionAttendance(id, request.weekday(), request.date(),
+                    request.present() == null ? List.of() : request.present(),
+                    request.absent() == null ? List.of() : request.absent());
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        });
+    }
+
+    @GetMapping("/events/contests")
+    public CompletableFuture<List<Contest>> getContests() {
+        return async(TKD_Service::sortContestsByDates);
+    }
+
+    @GetMapping("/events/training-camps")
+    public CompletableFuture<List<TrainingCamp>> getTrainingCamps() {
+        return async(TKD_Service::sortTrainingCampsByDates);
+    }
+
+    @GetMapping("/events/belt-exams")
+    public CompletableFuture<List<BeltExam>> getBeltExams() {
+        return async(TKD_Service::sortBeltExamnsByDates);
+    }
+
+    /**
+     * Finds the combinations of events that use the most of a budget without exceeding it.
+     * @param budget    The budget.
+     * @param n         The number of combinations.
+     * @return The combinations, the most expensive first.
+     */
+    @GetMapping("/events/plans")
+    public CompletableFuture<List<EventPlanner.Plan>> getEventPlans(@RequestParam double budget, @RequestParam(defaultValue = "10") int n) throws ValidationException {
+        checkAtLeast("n", n, 1);
+        return async(service -> service.bestEventPlans(budget, n));
+    }
+
+    /**
+     * Generates the invoice of a parent for one month.
+     * @param parentId  The unique identifier of the parent.
+     * @param month     The month, as yyyy-MM or as MM for the current year.
+     * @return The invoice text.
+     */
+    @GetMapping("/invoices/{parentId}")
+    public CompletableFuture<Map<String, String>> getInvoice(@PathVariable int parentId, @RequestParam String month) {
+        return async(service -> Map.of("invoice", service.generateInvoice(parentId, month)));
+    }
+
+    /**
+     * Runs the month-end billing of every parent.
+     * @param month The month, as yyyy-MM or as MM for the current year.
+     * @return The invoices of the parents whose children were present in that month.
+     */
+    @GetMapping("/invoices")
+    public CompletableFuture<List<InvoiceEngine.Invoice>> getMonthEndInvoices(@RequestParam String month) {
+        return async(service -> {
+            try (Stream<InvoiceEngine.Invoice> invoices = service.runMonthEndBilling(InvoiceEngine.parseMonth(month))) {
+                return invoices.toList();
+            }
+        });
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleNotFound(EntityNotFoundException e) {
+        return error(HttpStatus.NOT_FOUND, e);
+    }
+
+    @ExceptionHandler(BusinessLogicException.class)
+    public ResponseEntity<Map<String, String>> handleBusinessLogic(BusinessLogicException e) {
+        return error(HttpStatus.CONFLICT, e);
+    }
+
+    @ExceptionHandler(DatabaseException.class)
+    public ResponseEntity<Map<String, String>> handleDatabase(DatabaseException e) {
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, e);
+    }
+
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(ValidationException e) {
+        return error(HttpStatus.BAD_REQUEST, e);
+    }
+
+    @ExceptionHandler(ServiceNotReadyException.class)
+    public ResponseEntity<Map<String, String>> handleNotReady(ServiceNotReadyException e) {
+        return error(HttpStatus.SERVICE_UNAVAILABLE, e);
+    }
+
+    /**
+     * Checks a number sent by a client before any work is started.
+     * @param name  The name of the parameter.
+     * @param value The value sent.
+     * @param min   The smallest value allowed.
+     * @throws ValidationException If the value is too small.
+     */
+    private static void checkAtLeast(String name, int value, int min) throws ValidationException {
+        if (value < min) {
+            throw new ValidationException("The parameter " + name + " must be at least " + min);
+        }
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, Exception e) {
+        return ResponseEntity.status(status).body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.tkdmng.Exceptions;
+
+/**
+ * Thrown by the web endpoints while no repository was chosen in the console yet.
+ */
+public class ServiceNotReadyException extends RuntimeException {
+    public ServiceNotReadyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.tkdmng.Exceptions;
+
+/**
+ * Carries a DatabaseException out of code that can't throw checked exceptions, like a Stream.
+ */
+public class UncheckedDatabaseException extends RuntimeException {
+    public UncheckedDatabaseException(DatabaseException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized DatabaseException getCause() {
+        return (DatabaseException) super.getCause();
+    }
+}
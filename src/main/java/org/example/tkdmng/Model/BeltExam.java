@@ -2,6 +2,7 @@ package org.example.tkdmng.Model;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -9,7 +10,7 @@ import java.util.stream.Collectors;
  */
 public class BeltExam extends Event{
 
-    public Map< Integer,Integer> listOfResults = new HashMap<>();// 1: passed, 0: failed, -1: absent
+    public Map< Integer,Integer> listOfResults = new ConcurrentHashMap<>();// 1: passed, 0: failed, -1: absent
     public BeltLevel beltColor;
 
     /**
@@ -44,7 +45,7 @@ public class BeltExam extends Event{
      * The int can be -1( did not participate/exam hasn't taken place yet), 0( failed ) and 1( passed ).
      */
     public void setListOfResults(Map<Integer, Integer> listOfResults) {
-        this.listOfResults = listOfResults;
+        this.listOfResults = new ConcurrentHashMap<>(listOfResults);
     }
 
     /**
@@ -68,8 +69,8 @@ public class BeltExam extends Event{
         return "BeltExam{" +
                 "listOfResults=" + listOfResults +
                 ", BeltColor='" + beltColor + '\'' +
-                ", startDate='" + startDate + '\'' +
-                ", endDate='" + endDate + '\'' +
+                ", startDate='" + getStartDate() + '\'' +
+                ", endDate='" + getEndDate() + '\'' +
                 ", price=" + price +
                 ", country='" + country + '\'' +
                 ", city='" + city + '\'' +
@@ -89,7 +90,7 @@ public class BeltExam extends Event{
         final String ANSI_RESET = "\u001B[0m";
 
         return ANSI_BLUE + "🥋 Belt Exam Details:" + ANSI_RESET + "\n" +
-                ANSI_GREEN + "  Start Date: " + ANSI_RESET + ANSI_RED + startDate + ANSI_RESET + "\n" +
+                ANSI_GREEN + "  Start Date: " + ANSI_RESET + ANSI_RED + getStartDate() + ANSI_RESET + "\n" +
                 ANSI_GREEN + "  Country: " + ANSI_RESET + country + "\n" +
                 ANSI_GREEN + "  City: " + ANSI_RESET + city;
     }
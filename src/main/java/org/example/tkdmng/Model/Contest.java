@@ -3,6 +3,7 @@ package org.example.tkdmng.Model;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -11,7 +12,7 @@ import java.util.stream.Collectors;
 public class Contest extends Event{
 
     public String name;
-    List<Integer> students = new ArrayList<>();
+    List<Integer> students = new CopyOnWriteArrayList<>();
 
     /**
      * Constructs a new Contest with the specified ID, start date, end date, price, country, city, name and address.
@@ -59,7 +60,7 @@ public class Contest extends Event{
      * @param students  The list of student ids registered to the contest to set.
      */
     public void setStudents(List<Integer> students) {
-        this.students = students;
+        this.students = new CopyOnWriteArrayList<>(students);
     }
 
     /**
@@ -71,8 +72,8 @@ public class Contest extends Event{
         return "Contest{" +
                 "name='" + name + '\'' +
                 ", students=" + students +
-                ", startDate='" + startDate + '\'' +
-                ", endDate='" + endDate + '\'' +
+                ", startDate='" + getStartDate() + '\'' +
+                ", endDate='" + getEndDate() + '\'' +
                 ", price=" + price +
                 ", country='" + country + '\'' +
                 ", city='" + city + '\'' +
@@ -96,7 +97,7 @@ public class Contest extends Event{
         return ANSI_CYAN + " Contest Details: " + ANSI_RESET + "\n" +
                 ANSI_YELLOW + "  Name: " + ANSI_RESET + name + "\n" +
                 ANSI_GREEN + "  Price: " + ANSI_RESET + price + " lei" + "\n"+
-                ANSI_GREEN + "  Starting date: " + ANSI_RESET +  startDate;
+                ANSI_GREEN + "  Starting date: " + ANSI_RESET +  getStartDate();
     }
 
     @Override
@@ -0,0 +1,56 @@
+package org.example.tkdmng.Model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads the yyyy-MM-dd dates of the model into days since 1970-01-01, so dates are parsed once when an object is
+ * loaded and are then sorted and filtered as numbers.
+ */
+public final class EpochDay {
+    /**
+     * The day of a date that is missing or can't be read, it comes before every other day.
+     */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private EpochDay() {}
+
+    /**
+     * Reads a date.
+     * @param date The date, as yyyy-MM-dd.
+     * @return The day of the date, or UNKNOWN.
+     */
+    public static int parse(String date) {
+        if (date == null) {
+            return UNKNOWN;
+        }
+        try {
+            return (int) LocalDate.parse(date).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * Gets the month of a day, as a number that grows by one every month.
+     * @param epochDay The day.
+     * @return The month of the day, or UNKNOWN.
+     */
+    public static int month(int epochDay) {
+        if (epochDay == UNKNOWN) {
+            return UNKNOWN;
+        }
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    /**
+     * Gets a month as the number returned by month(int).
+     * @param month The year and month.
+     * @return The month.
+     */
+    public static int month(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+}
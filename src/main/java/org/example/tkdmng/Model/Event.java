@@ -1,16 +1,20 @@
 package org.example.tkdmng.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * An abstract class that represents an event in the TKD management system
  */
 public abstract class Event implements HasID{
     private int id;
-    public String startDate;
-    public String endDate;
+    private String startDate;
+    private String endDate;
     public double price;
     public String country;
     public String city;
     public String address;
+    private int startDay = EpochDay.UNKNOWN;
+    private int endDay = EpochDay.UNKNOWN;
 
     /**
      * Constructs a new Event with the specified ID, start date, end date, price, country, city and address.
@@ -26,6 +30,8 @@ public abstract class Event implements HasID{
         this.id = id;
         this.startDate = startDate;
         this.endDate = endDate;
+        this.startDay = EpochDay.parse(startDate);
+        this.endDay = EpochDay.parse(endDate);
         this.price = price;
         this.country = country;
         this.city = city;
@@ -46,6 +52,16 @@ public abstract class Event implements HasID{
      */
     public void setStartDate(String startDate) {
         this.startDate = startDate;
+        this.startDay = EpochDay.parse(startDate);
+    }
+
+    /**
+     * Gets the start date of the event, read once when the date was set.
+     * @return The start date as days since 1970-01-01, or EpochDay.UNKNOWN.
+     */
+    @JsonIgnore
+    public int getStartDay() {
+        return startDay;
     }
 
     /**
@@ -62,6 +78,16 @@ public abstract class Event implements HasID{
      */
     public void setEndDate(String endDate) {
         this.endDate = endDate;
+        this.endDay = EpochDay.parse(endDate);
+    }
+
+    /**
+     * Gets the end date of the event, read once when the date was set.
+     * @return The end date as days since 1970-01-01, or EpochDay.UNKNOWN.
+     */
+    @JsonIgnore
+    public int getEndDay() {
+        return endDay;
     }
 
     /**
@@ -0,0 +1,44 @@
+package org.example.tkdmng.Model;
+
+/**
+ * The id, dates and price of an event, without its participants.
+ * Screens and features that only need these fields, like sorting by date and budgeting, read this instead of the event.
+ *
+ * @param kind      The kind of the event.
+ * @param id        The unique identifier of the event.
+ * @param startDate The start date of the event.
+ * @param endDate   The end date of the event.
+ * @param price     The price of the event.
+ */
+public record EventSummary(Kind kind, int id, String startDate, String endDate, double price) {
+
+    /**
+     * The kinds of events.
+     */
+    public enum Kind {
+        CONTEST, TRAINING_CAMP, BELT_EXAM
+    }
+
+    /**
+     * Takes the summary of an event.
+     * @param kind  The kind of the event.
+     * @param event The event.
+     * @return The summary of the event.
+     */
+    public static EventSummary of(Kind kind, Event event) {
+        return new EventSummary(kind, event.getId(), event.getStartDate(), event.getEndDate(), event.getPrice());
+    }
+
+    /**
+     * custom string for print out an EventSummary.
+     * @return String representation of object.
+     */
+    public String toString2() {
+        final String ANSI_CYAN = "\u001B[36m";
+        final String ANSI_GREEN = "\u001B[32m";
+        final String ANSI_RESET = "\u001B[0m";
+        return ANSI_CYAN + "  " + kind + " " + id + ANSI_RESET +
+                ANSI_GREEN + "  Price: " + ANSI_RESET + price + " lei" +
+                ANSI_GREEN + "  Dates: " + ANSI_RESET + startDate + " - " + endDate;
+    }
+}
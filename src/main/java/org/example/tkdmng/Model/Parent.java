@@ -4,13 +4,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
  * Represents a parent in the TKD management system
  */
 public class Parent extends Person{
-    List<Integer> children = new ArrayList<>();
+    List<Integer> children = new CopyOnWriteArrayList<>();
 
     /**
      * Constructs a new Parent with the specified ID, name, last name, email, address, date of birth and number.
@@ -38,7 +39,7 @@ public class Parent extends Person{
      * @param children  The list of children of the parent to set.
      */
     public void setChildren(List<Integer> children) {
-        this.children = children;
+        this.children = new CopyOnWriteArrayList<>(children);
     }
 
     @Override
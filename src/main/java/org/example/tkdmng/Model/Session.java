@@ -3,6 +3,7 @@ package org.example.tkdmng.Model;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -15,14 +16,14 @@ public class Session implements HasID{
     public int trainer;
     public double pricePerSession;
 
-    private List<Integer> sessionStudents = new ArrayList<>();
+    private List<Integer> sessionStudents = new CopyOnWriteArrayList<>();
 
     public List<Integer> getSessionStudents() {
         return sessionStudents;
     }
 
     public void setSessionStudents(List<Integer> sessionStudents) {
-        this.sessionStudents = sessionStudents;
+        this.sessionStudents = new CopyOnWriteArrayList<>(sessionStudents);
     }
 
     /**
@@ -1,5 +1,7 @@
 package org.example.tkdmng.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.io.Serializable;
 import java.util.List;
 import java.util.Objects;
@@ -9,10 +11,11 @@ import java.util.Objects;
  */
 public class SessionDate {
     public String weekDay;
-    public String date;
+    private String date;
     public int session;
 
     public boolean attended;
+    private int epochDay = EpochDay.UNKNOWN;
 
 
     /**
@@ -25,6 +28,7 @@ public class SessionDate {
     public SessionDate(String weekDay, String date, int session,boolean attended) {
         this.weekDay = weekDay;
         this.date = date;
+        this.epochDay = EpochDay.parse(date);
         this.session = session;
         this.attended = attended;
     }
@@ -59,6 +63,16 @@ public class SessionDate {
      */
     public void setDate(String date) {
         this.date = date;
+        this.epochDay = EpochDay.parse(date);
+    }
+
+    /**
+     * Gets the date of the session, read once when the date was set.
+     * @return The date as days since 1970-01-01, or EpochDay.UNKNOWN.
+     */
+    @JsonIgnore
+    public int getEpochDay() {
+        return epochDay;
     }
 
     /**
@@ -1,23 +1,33 @@
 package org.example.tkdmng.Model;
 
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
- * Represents a student in the TKD management system
+ * Represents a student in the TKD management system.
+ * The repositories hand out the same student to every thread, so its lists are copy-on-write:
+ * they can be read, for example written as JSON, while another thread adds to them.
  */
 public class Student extends Person{
-    public List<Integer> contestList = new ArrayList<>();
-    public List<Integer> trainingCampList = new ArrayList<>();
+    public List<Integer> contestList = new CopyOnWriteArrayList<>();
+    public List<Integer> trainingCampList = new CopyOnWriteArrayList<>();
 
 
     public int session;
-    public List<SessionDate> sessionDateList = new ArrayList<>();
+    private List<SessionDate> sessionDateList = new CopyOnWriteArrayList<>();
     public int parent;
 
+    private int attendances;
+    private int absences;
+    private Map<Integer, Integer> attendancesByMonth = new HashMap<>();
+
     /**
      * Constructs a new Student with the specified ID, name, last name, email, address, date of birth, number, belt level and session.
      * @param id            The unique identifier of the student.
@@ -52,7 +62,7 @@ public class Student extends Person{
      * @param contestList The list of contest ids to set.
      */
     public void setContestList(List<Integer> contestList) {
-        this.contestList = contestList;
+        this.contestList = new CopyOnWriteArrayList<>(contestList);
     }
 
     /**
@@ -68,7 +78,7 @@ public class Student extends Person{
      * @param trainingCampList The list of training camp ids to set.
      */
     public void setTrainingCampList(List<Integer> trainingCampList) {
-        this.trainingCampList = trainingCampList;
+        this.trainingCampList = new CopyOnWriteArrayList<>(trainingCampList);
     }
 
     /**
@@ -89,18 +99,83 @@ public class Student extends Person{
 
     /**
      * Gets the map of session dates and bools to see where the student was absent and presesnt.
+     * The list can't be changed, session dates are added with addSessionDate so the counters stay right.
      * @return A map of session dates and bools.
      */
     public List<SessionDate> getSessionDateList() {
-        return sessionDateList;
+        return Collections.unmodifiableList(sessionDateList);
     }
 
     /**
      * Sets the map of session dates and bools to see where the student was absent and presesnt.
+     * The session dates are copied, so later changes to the given list don't reach the student.
      * @param sessionDateList The sessionDate mao of the student to set.
      */
-    public void setSessionDateList(List<SessionDate> sessionDateList) {
-        this.sessionDateList = sessionDateList;
+    public synchronized void setSessionDateList(List<SessionDate> sessionDateList) {
+        this.sessionDateList = new CopyOnWriteArrayList<>(sessionDateList);
+        recountAttendance();
+    }
+
+    /**
+     * Adds a session date to the attendance history of the student and updates the attendance counters.
+     * @param sessionDate The session date to add.
+     */
+    public synchronized void addSessionDate(SessionDate sessionDate) {
+        sessionDateList.add(sessionDate);
+        if (sessionDate.isAttended()) {
+            attendances++;
+            countAttendanceInMonth(sessionDate);
+        } else {
+            absences++;
+        }
+    }
+
+    /**
+     * Counts the attendances and absences again from the session dates.
+     */
+    private void recountAttendance() {
+        int attended = 0;
+        attendancesByMonth = new HashMap<>();
+        for (SessionDate sessionDate : sessionDateList) {
+            if (sessionDate.isAttended()) {
+                attended++;
+                countAttendanceInMonth(sessionDate);
+            }
+        }
+        attendances = attended;
+        absences = sessionDateList.size() - attended;
+    }
+
+    private void countAttendanceInMonth(SessionDate sessionDate) {
+        int month = EpochDay.month(sessionDate.getEpochDay());
+        if (month != EpochDay.UNKNOWN) {    // a date that can't be read is not billed in any month
+            attendancesByMonth.merge(month, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Gets the number of sessions the student attended in one month, without going through the session dates.
+     * @param month The year and month.
+     * @return The number of attendances in that month.
+     */
+    public synchronized int getAttendances(YearMonth month) {
+        return attendancesByMonth.getOrDefault(EpochDay.month(month), 0);
+    }
+
+    /**
+     * Gets the number of sessions the student attended, kept up to date when attendance is added.
+     * @return The number of attendances.
+     */
+    public synchronized int getAttendances() {
+        return attendances;
+    }
+
+    /**
+     * Gets the number of sessions the student missed, kept up to date when attendance is added.
+     * @return The number of absences.
+     */
+    public synchronized int getAbsences() {
+        return absences;
     }
 
     /**
@@ -3,6 +3,7 @@ package org.example.tkdmng.Model;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -11,7 +12,7 @@ import java.util.stream.Collectors;
 public class TrainingCamp extends Event{
 
     public int numberOfParticipants;
-    List<Integer> students = new ArrayList<>();
+    List<Integer> students = new CopyOnWriteArrayList<>();
 
     /**
      * Constructs a new Training camp with the specified ID, start date, end date, price, country, city, address and the max number of participants..
@@ -59,7 +60,7 @@ public class TrainingCamp extends Event{
      * @param students  The list of students from the camp to set.
      */
     public void setStudents(List<Integer> students) {
-        this.students = students;
+        this.students = new CopyOnWriteArrayList<>(students);
     }
 
 
@@ -68,8 +69,8 @@ public class TrainingCamp extends Event{
         return "TrainingCamp{" +
                 "numberOfParticipants=" + numberOfParticipants +
                 ", students=" + students +
-                ", startDate='" + startDate + '\'' +
-                ", endDate='" + endDate + '\'' +
+                ", startDate='" + getStartDate() + '\'' +
+                ", endDate='" + getEndDate() + '\'' +
                 ", price=" + price +
                 ", country='" + country + '\'' +
                 ", city='" + city + '\'' +
@@ -0,0 +1,72 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An id allocator that reserves ids in blocks and hands them out from memory.
+ * Taking an id from the current block is a single atomic increment, only reserving a new block takes a lock.
+ * Ids of a block that is not used up before a restart are skipped, never reused.
+ */
+public abstract class BlockIdAllocator implements IdAllocator {
+    private final int blockSize;
+    private volatile Block block = new Block(0, 0);
+
+    /**
+     * A range of reserved ids, from next up to limit (exclusive).
+     */
+    private static class Block {
+        final AtomicInteger next;
+        final int limit;
+
+        Block(int first, int limit) {
+            this.next = new AtomicInteger(first);
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * Constructs a new BlockIdAllocator.
+     * @param blockSize The number of ids reserved at once.
+     */
+    protected BlockIdAllocator(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("The block size must be at least 1");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int nextId() throws DatabaseException {
+        while (true) {
+            Block current = block;
+            int id = current.next.getAndIncrement();
+            if (id < current.limit) {
+                return id;
+            }
+            refill(current);
+        }
+    }
+
+    /**
+     * Reserves a new block, unless another thread already replaced the exhausted one.
+     */
+    private synchronized void refill(Block exhausted) throws DatabaseException {
+        if (block == exhausted) {
+            int first = reserveBlock(blockSize);
+            block = new Block(first, first + blockSize);
+        }
+    }
+
+    /**
+     * Reserves a range of ids that was never reserved before. Only called by one thread at a time.
+     * @param size The number of ids to reserve.
+     * @return The first id of the range.
+     * @throws DatabaseException If the range can't be reserved.
+     */
+    protected abstract int reserveBlock(int size) throws DatabaseException;
+}
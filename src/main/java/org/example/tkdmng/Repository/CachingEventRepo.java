@@ -0,0 +1,47 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.Event;
+import org.example.tkdmng.Model.EventSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A caching repository for events that reads summaries straight from the wrapped repository,
+ * so price and date screens don't load the participants of every event into the cache.
+ * @param <T> The type of events stored in the repository.
+ */
+public class CachingEventRepo<T extends Event> extends CachingRepo<T> implements IEventSummaryRepo {
+    private final EventSummary.Kind kind;
+
+    /**
+     * Constructs a new CachingEventRepo.
+     *
+     * @param repo      The repository that is cached.
+     * @param kind      The kind of the events.
+     * @param maxSize   The maximum number of events kept in memory.
+     * @param ttlMillis How long an event stays valid in the cache, 0 if it never expires.
+     */
+    public CachingEventRepo(IRepo<T> repo, EventSummary.Kind kind, int maxSize, long ttlMillis) {
+        super(repo, maxSize, ttlMillis);
+        this.kind = kind;
+    }
+
+    /**
+     * {@inheritDoc}
+     * If the wrapped repository can't read summaries, they are taken from all the events.
+     */
+    @Override
+    public List<EventSummary> getSummaries() throws DatabaseException {
+        if (getRepo() instanceof IEventSummaryRepo summaryRepo) {
+            return summaryRepo.getSummaries();
+        }
+        List<T> events = getAll();
+        List<EventSummary> summaries = new ArrayList<>(events.size());
+        for (T event : events) {
+            summaries.add(EventSummary.of(kind, event));
+        }
+        return summaries;
+    }
+}
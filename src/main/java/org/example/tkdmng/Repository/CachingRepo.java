@@ -0,0 +1,352 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.HasID;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * A repository that keeps the most recently used objects of another repository in memory.
+ * Every change is written to the wrapped repository first and then to the cache, so the two never disagree.
+ * When a whole table fits in the cache, getAll() is answered from memory too.
+ *
+ * @param <T> The type of objects stored in the repository, which must implement HasId.
+ */
+public class CachingRepo<T extends HasID> implements IRepo<T> {
+    private final IRepo<T> repo;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<Integer, CacheEntry<T>> cache;
+
+    private boolean complete = false;
+    private long completeSince;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * An object kept in the cache and the moment it was loaded.
+     */
+    private record CacheEntry<T>(T value, long loadedAt) {}
+
+    /**
+     * Constructs a new CachingRepo whose entries never expire.
+     *
+     * @param repo      The repository that is cached.
+     * @param maxSize   The maximum number of objects kept in memory.
+     */
+    public CachingRepo(IRepo<T> repo, int maxSize) {
+        this(repo, maxSize, 0);
+    }
+
+    /**
+     * Constructs a new CachingRepo.
+     *
+     * @param repo      The repository that is cached.
+     * @param maxSize   The maximum number of objects kept in memory, the least recently used one is evicted first.
+     * @param ttlMillis How long an object stays valid in the cache, 0 if it never expires.
+     */
+    public CachingRepo(IRepo<T> repo, int maxSize, long ttlMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The cache must hold at least one object");
+        }
+        this.repo = repo;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CacheEntry<T>> eldest) {
+                if (size() > CachingRepo.this.maxSize) {
+                    complete = false;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void add(T obj) throws DatabaseException {
+        try {
+            repo.add(obj);
+        } catch (DatabaseException e) {
+            cache.remove(obj.getId());
+            throw e;
+        }
+        cache.put(obj.getId(), new CacheEntry<>(obj, System.currentTimeMillis()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void remove(Integer RemoveId) throws DatabaseException {
+        try {
+            repo.remove(RemoveId);
+        } finally {
+            cache.remove(RemoveId);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void update(T obj) throws DatabaseException {
+        try {
+            repo.update(obj);
+        } catch (DatabaseException e) {
+            cache.remove(obj.getId());
+            complete = false;
+            throw e;
+        }
+        cache.put(obj.getId(), new CacheEntry<>(obj, System.currentTimeMillis()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void updateAll(Collection<T> objs) throws DatabaseException {
+        try {
+            repo.updateAll(objs);
+        } catch (DatabaseException e) {
+            objs.forEach(obj -> cache.remove(obj.getId()));
+            complete = false;
+            throw e;
+        }
+        long now = System.currentTimeMillis();
+        for (T obj : objs) {
+            cache.put(obj.getId(), new CacheEntry<>(obj, now));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized T get(Integer getId) throws DatabaseException {
+        long now = System.currentTimeMillis();
+        CacheEntry<T> entry = cache.get(getId);
+        if (entry != null && !isExpired(entry.loadedAt(), now)) {
+            hits++;
+            return entry.value();
+        }
+        if (entry == null && complete && !isExpired(completeSince, now)) {
+            hits++;
+            return null;
+        }
+        misses++;
+        T obj = repo.get(getId);
+        if (obj == null) {
+            cache.remove(getId);
+        } else {
+            cache.put(getId, new CacheEntry<>(obj, now));
+        }
+        return obj;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<T> getAll() throws DatabaseException {
+        long now = System.currentTimeMillis();
+        if (complete && !isExpired(completeSince, now)) {
+            hits++;
+            List<T> all = new ArrayList<>(cache.size());
+            for (CacheEntry<T> entry : cache.values()) {
+                all.add(entry.value());
+            }
+            return all;
+        }
+        misses++;
+        List<T> all = repo.getAll();
+        if (all.size() <= maxSize) {
+            cache.clear();
+            for (T obj : all) {
+                cache.put(obj.getId(), new CacheEntry<>(obj, now));
+            }
+            complete = true;
+            completeSince = now;
+        }
+        return all;
+    }
+
+    /**
+     * {@inheritDoc}
+     * When the whole repository is cached, the cache is streamed; otherwise the wrapped repository is,
+     * without filling the cache.
+     */
+    @Override
+    public Stream<T> stream() throws DatabaseException {
+        synchronized (this) {
+            if (complete && !isExpired(completeSince, System.currentTimeMillis())) {
+                hits++;
+                List<T> all = new ArrayList<>(cache.size());
+                for (CacheEntry<T> entry : cache.values()) {
+                    all.add(entry.value());
+                }
+                return all.stream();
+            }
+            misses++;
+        }
+        return repo.stream();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Pages are read from the wrapped repository, which can jump to them, and are not cached.
+     */
+    @Override
+    public List<T> getPage(int pageIndex, int pageSize) throws DatabaseException {
+        return repo.getPage(pageIndex, pageSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Pages are read from the wrapped repository, which can jump to them, and are not cached.
+     */
+    @Override
+    public List<T> getPageAfter(int afterId, int pageSize) throws DatabaseException {
+        return repo.getPageAfter(afterId, pageSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean exists(Integer id) throws DatabaseException {
+        long now = System.currentTimeMillis();
+        CacheEntry<T> entry = cache.get(id);
+        if (entry != null && !isExpired(entry.loadedAt(), now)) {
+            hits++;
+            return true;
+        }
+        if (entry == null && complete && !isExpired(completeSince, now)) {
+            hits++;
+            return false;
+        }
+        misses++;
+        return repo.exists(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The ids that the cache can't answer are checked by the underlying repository all together.
+     */
+    @Override
+    public synchronized Set<Integer> existing(Collection<Integer> ids) throws DatabaseException {
+        long now = System.currentTimeMillis();
+        Set<Integer> found = new HashSet<>();
+        List<Integer> unknown = new ArrayList<>();
+        for (Integer id : ids) {
+            CacheEntry<T> entry = cache.get(id);
+            if (entry != null && !isExpired(entry.loadedAt(), now)) {
+                found.add(id);
+            } else if (entry != null || !complete || isExpired(completeSince, now)) {
+                unknown.add(id);
+            }
+        }
+        if (unknown.isEmpty()) {
+            hits++;
+        } else {
+            misses++;
+            found.addAll(repo.existing(unknown));
+        }
+        return found;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized int count() throws DatabaseException {
+        if (complete && !isExpired(completeSince, System.currentTimeMillis())) {
+            hits++;
+            return cache.size();
+        }
+        misses++;
+        return repo.count();
+    }
+
+    private boolean isExpired(long loadedAt, long now) {
+        return ttlMillis > 0 && now - loadedAt > ttlMillis;
+    }
+
+    /**
+     * Gets an object from the cache without going to the wrapped repository or counting a hit.
+     * @param id The unique identifier of the object.
+     * @return The cached object, or null if it is not cached.
+     */
+    protected synchronized T peek(Integer id) {
+        CacheEntry<T> entry = cache.get(id);
+        return entry == null ? null : entry.value();
+    }
+
+    /**
+     * Stores an object in the cache after it was written to the wrapped repository.
+     * @param obj The object that was written.
+     */
+    protected synchronized void put(T obj) {
+        cache.put(obj.getId(), new CacheEntry<>(obj, System.currentTimeMillis()));
+    }
+
+    /**
+     * Drops an object from the cache, the next read of it goes to the wrapped repository.
+     * @param id The unique identifier of the object.
+     */
+    protected synchronized void invalidate(Integer id) {
+        cache.remove(id);
+        complete = false;
+    }
+
+    /**
+     * Empties the cache, the next reads go to the wrapped repository.
+     */
+    public synchronized void clear() {
+        cache.clear();
+        complete = false;
+    }
+
+    /**
+     * Gets the number of reads answered from the cache.
+     * @return The number of cache hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of reads that went to the wrapped repository.
+     * @return The number of cache misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of objects currently kept in memory.
+     * @return The size of the cache.
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Gets the repository that is cached.
+     * @return The wrapped repository.
+     */
+    public IRepo<T> getRepo() {
+        return repo;
+    }
+}
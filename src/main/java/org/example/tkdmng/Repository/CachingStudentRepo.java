@@ -0,0 +1,80 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.SessionDate;
+import org.example.tkdmng.Model.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A caching repository for students that passes new attendance straight to the wrapped repository,
+ * so recording attendance stays an append even behind the cache.
+ */
+public class CachingStudentRepo extends CachingRepo<Student> implements IAttendanceRepo {
+
+    /**
+     * Constructs a new CachingStudentRepo.
+     *
+     * @param repo      The repository that is cached.
+     * @param maxSize   The maximum number of students kept in memory.
+     * @param ttlMillis How long a student stays valid in the cache, 0 if it never expires.
+     */
+    public CachingStudentRepo(IRepo<Student> repo, int maxSize, long ttlMillis) {
+        super(repo, maxSize, ttlMillis);
+    }
+
+    /**
+     * {@inheritDoc}
+     * If the wrapped repository can't append attendance, the whole student is updated.
+     */
+    @Override
+    public void addSessionDates(Student student, List<SessionDate> sessionDates) throws DatabaseException {
+        if (!(getRepo() instanceof IAttendanceRepo attendanceRepo)) {
+            update(student);
+            return;
+        }
+        try {
+            attendanceRepo.addSessionDates(student, sessionDates);
+        } catch (DatabaseException e) {
+            invalidate(student.getId());
+            throw e;
+        }
+        put(student);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The students that are cached get the new session dates too.
+     * If the wrapped repository can't append attendance, the students are loaded and updated together.
+     */
+    @Override
+    public void addSessionDates(Map<Integer, SessionDate> sessionDates) throws DatabaseException {
+        if (!(getRepo() instanceof IAttendanceRepo attendanceRepo)) {
+            List<Student> changed = new ArrayList<>(sessionDates.size());
+            for (Map.Entry<Integer, SessionDate> entry : sessionDates.entrySet()) {
+                Student student = get(entry.getKey());
+                if (student == null) {
+                    throw new DatabaseException("No student with ID " + entry.getKey());
+                }
+                student.addSessionDate(entry.getValue());
+                changed.add(student);
+            }
+            updateAll(changed);
+            return;
+        }
+        try {
+            attendanceRepo.addSessionDates(sessionDates);
+        } catch (DatabaseException e) {
+            clear();
+            throw e;
+        }
+        for (Map.Entry<Integer, SessionDate> entry : sessionDates.entrySet()) {
+            Student cached = peek(entry.getKey());
+            if (cached != null) {
+                cached.addSessionDate(entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Model.HasID;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * A thread-safe repository implementation that stores data in memory.
+ * The objects are kept in a ConcurrentSkipListMap, ordered by id: neither reads nor writes take a lock,
+ * and a write costs O(log n) to keep the order, so nothing has to be sorted when the objects are read.
+ * getAll() returns an immutable snapshot, copied in id order, that is shared by every reader until the next write,
+ * so repeated reads of an unchanged repository don't copy the data again.
+ * A page after an id starts with a lookup of that id in the map, without copying the other objects.
+ * Like the map, getAll() is weakly consistent with writes that run at the same time.
+ *
+ * @param <T> The type of objects stored in the repository, which must implement HasId.
+ */
+public class ConcurrentInMemoryRepo<T extends HasID> implements IRepo<T> {
+
+    private final ConcurrentSkipListMap<Integer, T> data = new ConcurrentSkipListMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot<T> snapshot = new Snapshot<>(0, List.of());
+
+    /**
+     * The values of the repository at one version.
+     */
+    private record Snapshot<T>(long version, List<T> values) {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(T obj) {
+        data.put(obj.getId(), obj);
+        version.incrementAndGet();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove(Integer id) {
+        if (data.remove(id) != null) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(T obj) {
+        if (data.replace(obj.getId(), obj) != null) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(Integer getId) {
+        return data.get(getId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The returned list is immutable and ordered by id.
+     */
+    @Override
+    public List<T> getAll() {
+        long current = version.get();
+        Snapshot<T> cached = snapshot;
+        if (cached.version() == current) {
+            return cached.values();
+        }
+        List<T> values = List.copyOf(data.values());
+        if (version.get() == current) {
+            snapshot = new Snapshot<>(current, values);
+        }
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getPage(int pageIndex, int pageSize) {
+        IRepo.checkPage(pageIndex, pageSize);
+        List<T> all = getAll();
+        long from = (long) pageIndex * pageSize;
+        if (from >= all.size()) {
+            return List.of();
+        }
+        return all.subList((int) from, (int) Math.min(all.size(), from + pageSize));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getPageAfter(int afterId, int pageSize) {
+        IRepo.checkPage(0, pageSize);
+        return data.tailMap(afterId, false).values().stream().limit(pageSize).toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The stream is weakly consistent with writes that run at the same time.
+     */
+    @Override
+    public Stream<T> stream() {
+        return data.values().stream();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean exists(Integer id) {
+        return data.containsKey(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int count() {
+        return data.size();
+    }
+}
@@ -0,0 +1,397 @@
+package org.example.tkdmng.Repository;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A pooled DataSource that hands out connections to one database to all the database repositories.
+ * A connection is borrowed for one operation and given back to the pool when it is closed.
+ * A thread that asks for a connection while it already holds one gets the same physical connection back,
+ * so nested calls inside one operation don't need a second connection.
+ * Idle connections are only checked with the database after they waited longer than a threshold,
+ * and leak detection, which records where every connection was borrowed, is off unless a leak threshold is given.
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+    public static final int DEFAULT_MIN_SIZE = 1;
+    public static final int DEFAULT_MAX_SIZE = 10;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+    public static final long DEFAULT_LEAK_THRESHOLD_MILLIS = 0;
+    public static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 30 * 1000;
+    public static final long DEFAULT_VALIDATION_IDLE_MILLIS = 30 * 1000;
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String dbUrl;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long borrowTimeoutMillis;
+    private volatile long validationIdleMillis;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+    private final Map<Connection, Lease> leases = new ConcurrentHashMap<>();
+    private final Map<Thread, Lease> leasesByOwner = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    /**
+     * A physical connection waiting in the pool and the moment it was given back.
+     */
+    private record IdleConnection(Connection connection, long idleSince) {}
+
+    /**
+     * A physical connection that is borrowed by a thread. The handles of a lease can be closed from any thread,
+     * the lease stays keyed by the thread that borrowed it.
+     */
+    private static class Lease {
+        final Connection connection;
+        final Thread owner = Thread.currentThread();
+        final long borrowedAt = System.currentTimeMillis();
+        final Throwable borrowedFrom;
+        private int holders = 0;
+        private boolean released = false;
+        volatile boolean leakReported = false;
+
+        Lease(Connection connection, boolean recordStack) {
+            this.connection = connection;
+            this.borrowedFrom = recordStack ? new Throwable("Connection borrowed by " + owner.getName()) : null;
+        }
+
+        /**
+         * Adds a holder, unless the last holder already gave the connection back.
+         */
+        synchronized boolean hold() {
+            if (released) {
+                return false;
+            }
+            holders++;
+            return true;
+        }
+
+        /**
+         * Removes a holder.
+         * @return true if it was the last one, so the connection goes back to the pool.
+         */
+        synchronized boolean letGo() {
+            released = --holders == 0;
+            return released;
+        }
+    }
+
+    /**
+     * Constructs a new ConnectionPool with the default sizes and timeouts.
+     *
+     * @param dbUrl The URL of the database to connect to.
+     */
+    public ConnectionPool(String dbUrl) {
+        this(dbUrl, DEFAULT_MIN_SIZE, DEFAULT_MAX_SIZE, DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_LEAK_THRESHOLD_MILLIS);
+    }
+
+    /**
+     * Constructs a new ConnectionPool.
+     *
+     * @param dbUrl                 The URL of the database to connect to.
+     * @param minSize               The number of connections that are never evicted for being idle.
+     * @param maxSize               The maximum number of open connections.
+     * @param idleTimeoutMillis     How long a connection can wait in the pool before it is closed.
+     * @param leakThresholdMillis   How long a connection can be borrowed before it is reported as a leak, 0 turns leak detection off.
+     */
+    public ConnectionPool(String dbUrl, int minSize, int maxSize, long idleTimeoutMillis, long leakThresholdMillis) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min " + minSize + ", max " + maxSize);
+        }
+        this.dbUrl = dbUrl;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.borrowTimeoutMillis = DEFAULT_BORROW_TIMEOUT_MILLIS;
+        this.validationIdleMillis = DEFAULT_VALIDATION_IDLE_MILLIS;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tkd-connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, (leakThresholdMillis > 0 ? Math.min(idleTimeoutMillis, leakThresholdMillis) : idleTimeoutMillis) / 2);
+        fillToMinimum();
+        housekeeper.scheduleAtFixedRate(this::houseKeeping, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool. Closing the returned connection gives it back to the pool.
+     *
+     * @return A connection to the database.
+     * @throws SQLException If the pool is closed, exhausted for too long or the database can't be reached.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("The connection pool is closed");
+        }
+        Lease lease = leasesByOwner.get(Thread.currentThread());
+        if (lease == null || !lease.hold()) {
+            lease = new Lease(borrowPhysical(), leakThresholdMillis > 0);
+            lease.hold();
+            leases.put(lease.connection, lease);
+            leasesByOwner.put(lease.owner, lease);
+        }
+        return handle(lease);
+    }
+
+    /**
+     * Borrows a connection from the pool. The pool always uses the credentials from its URL.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Takes an idle connection from the pool or opens a new one if there is room for it.
+     * Only a connection that was idle longer than the validation threshold is checked with the database.
+     */
+    private Connection borrowPhysical() throws SQLException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a connection, all " + maxSize + " are in use");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        try {
+            IdleConnection candidate;
+            while ((candidate = idle.pollFirst()) != null) {
+                Connection connection = candidate.connection();
+                boolean checked = System.currentTimeMillis() - candidate.idleSince() > validationIdleMillis;
+                if (!connection.isClosed() && (!checked || connection.isValid(2))) {
+                    return connection;
+                }
+                closeQuietly(candidate.connection());
+            }
+            return DriverManager.getConnection(dbUrl);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gives a physical connection back to the pool once its last holder closed it.
+     */
+    private void release(Lease lease) {
+        if (!lease.letGo()) {
+            return;
+        }
+        leasesByOwner.remove(lease.owner, lease);
+        leases.remove(lease.connection);
+        Connection connection = lease.connection;
+        try {
+            if (closed || connection.isClosed()) {
+                closeQuietly(connection);
+            } else {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                idle.offerFirst(new IdleConnection(connection, System.currentTimeMillis()));
+            }
+        } catch (SQLException e) {
+            closeQuietly(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Wraps a physical connection so that close() gives it back to the pool instead of closing it.
+     */
+    private Connection handle(Lease lease) {
+        boolean[] handleClosed = {false};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (!handleClosed[0]) {
+                                handleClosed[0] = true;
+                                release(lease);
+                            }
+                            return null;
+                        }
+                        case "isClosed" -> {
+                            return handleClosed[0] || lease.connection.isClosed();
+                        }
+                        case "unwrap" -> {
+                            return ((Class<?>) args[0]).isInstance(proxy) ? proxy : lease.connection.unwrap((Class<?>) args[0]);
+                        }
+                        case "isWrapperFor" -> {
+                            return ((Class<?>) args[0]).isInstance(proxy) || lease.connection.isWrapperFor((Class<?>) args[0]);
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "toString" -> {
+                            return "Pooled" + lease.connection;
+                        }
+                        default -> {
+                            if (handleClosed[0]) {
+                                throw new SQLException("Connection is already closed");
+                            }
+                            try {
+                                return method.invoke(lease.connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Opens connections until the pool holds at least minSize of them. A connection that can't be opened
+     * is not an error here, the next borrow reports it.
+     */
+    private void fillToMinimum() {
+        try {
+            while (!closed && idle.size() + leases.size() < minSize) {
+                idle.offerLast(new IdleConnection(DriverManager.getConnection(dbUrl), System.currentTimeMillis()));
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Could not open the minimum number of connections", e);
+        }
+    }
+
+    /**
+     * Closes the connections that were idle for too long, opens new ones up to minSize
+     * and reports the ones that were borrowed for too long.
+     */
+    private void houseKeeping() {
+        long now = System.currentTimeMillis();
+        IdleConnection oldest;
+        while (idle.size() + leases.size() > minSize && (oldest = idle.peekLast()) != null
+                && now - oldest.idleSince() > idleTimeoutMillis) {
+            if (idle.removeLastOccurrence(oldest)) {
+                closeQuietly(oldest.connection());
+            }
+        }
+        fillToMinimum();
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        for (Lease lease : leases.values()) {
+            if (!lease.leakReported && now - lease.borrowedAt > leakThresholdMillis) {
+                lease.leakReported = true;
+                LOGGER.log(Level.WARNING, "Possible connection leak: a connection was borrowed " + (now - lease.borrowedAt)
+                        + " ms ago and not returned", lease.borrowedFrom);
+            }
+        }
+    }
+
+    /**
+     * Sets how long a connection can wait in the pool before it is checked with the database when it is borrowed again.
+     * @param validationIdleMillis The threshold, 0 checks every idle connection.
+     */
+    public void setValidationIdleMillis(long validationIdleMillis) {
+        if (validationIdleMillis < 0) {
+            throw new IllegalArgumentException("The validation threshold can't be negative");
+        }
+        this.validationIdleMillis = validationIdleMillis;
+    }
+
+    /**
+     * Gets the number of physical connections that are currently borrowed.
+     * @return The number of borrowed connections.
+     */
+    public int getActiveCount() {
+        return leases.size();
+    }
+
+    /**
+     * Gets the number of physical connections that are waiting in the pool.
+     * @return The number of idle connections.
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Closes every idle connection and stops handing out new ones.
+     * Borrowed connections are closed when they are given back.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        IdleConnection entry;
+        while ((entry = idle.pollFirst()) != null) {
+            closeQuietly(entry.connection());
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return DriverManager.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        DriverManager.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
@@ -3,9 +3,11 @@ package org.example.tkdmng.Repository;
 import org.example.tkdmng.Exceptions.DatabaseException;
 import org.example.tkdmng.Model.BeltExam;
 import org.example.tkdmng.Model.BeltLevel;
+import org.example.tkdmng.Model.EventSummary;
 import org.example.tkdmng.Model.Student;
 
 import java.sql.Date;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -17,7 +19,7 @@ import java.util.Map;
 /**
  * A repository implementation that interacts with the database to manage belt exams entities.
  */
-public class DatabaseBeltExam extends DatabaseRepo<BeltExam> {
+public class DatabaseBeltExam extends DatabaseRepo<BeltExam> implements IEventSummaryRepo {
 
     /**
      * Constructs a new DatabaseBeltExam with the specified database URL.
@@ -29,6 +31,47 @@ public class DatabaseBeltExam extends DatabaseRepo<BeltExam> {
         super(dbUrl);
     }
 
+    /**
+     * Constructs a new DatabaseBeltExam that borrows its connections from a shared pool.
+     *
+     * @param connectionPool The pool the connections are borrowed from.
+     * @throws DatabaseException If there is an error connecting to the database.
+     */
+    public DatabaseBeltExam(ConnectionPool connectionPool) throws DatabaseException {
+        super(connectionPool);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getTableName() {
+        return "BeltExams";
+    }
+
+    /**
+     * {@inheritDoc}
+     * The belt exams of the range are read with one query and their results with another one.
+     */
+    @Override
+    protected List<BeltExam> loadRange(Connection connection, int fromId, int toId) throws SQLException, DatabaseException {
+        Map<Integer, Map<Integer, Integer>> results = new HashMap<>();
+        try (PreparedStatement stmt = prepareBetween(connection, "SELECT idBeltExam, idStud, result FROM ResultsBeltExams", "idBeltExam", fromId, toId);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                results.computeIfAbsent(rs.getInt("idBeltExam"), k -> new HashMap<>()).put(rs.getInt("idStud"), rs.getInt("result"));
+            }
+        }
+        List<BeltExam> beltExams = new ArrayList<>();
+        try (PreparedStatement stmt = prepareBetween(connection, "SELECT * FROM BeltExams", "id", fromId, toId);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                beltExams.add(extractFromResultSet(rs, results.getOrDefault(rs.getInt("id"), new HashMap<>())));
+            }
+        }
+        return beltExams;
+    }
+
     /**
      * Adds a new belt exam object in the database.
      *
@@ -37,17 +80,21 @@ public class DatabaseBeltExam extends DatabaseRepo<BeltExam> {
      */
     @Override
     public void add(BeltExam beltExam) throws DatabaseException {
-        String sql = "INSERT INTO BeltExams (id, startDate,endDate,price,country,city,address,beltColor) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, beltExam.getId());
-            stmt.setDate(2, Date.valueOf(beltExam.getStartDate()));
-            stmt.setDate(3, Date.valueOf(beltExam.getEndDate()));
-            stmt.setDouble(4, beltExam.getPrice());
-            stmt.setString(5, beltExam.getCountry());
-            stmt.setString(6, beltExam.getCity());
-            stmt.setString(7, beltExam.getAddress());
-            stmt.setString(8, String.valueOf(beltExam.getBeltColor()));
-            stmt.executeUpdate();
+        try (Connection connection = getConnection()) {
+            String sql = "INSERT INTO BeltExams (id, startDate,endDate,price,country,city,address,beltColor) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, beltExam.getId());
+                stmt.setDate(2, Date.valueOf(beltExam.getStartDate()));
+                stmt.setDate(3, Date.valueOf(beltExam.getEndDate()));
+                stmt.setDouble(4, beltExam.getPrice());
+                stmt.setString(5, beltExam.getCountry());
+                stmt.setString(6, beltExam.getCity());
+                stmt.setString(7, beltExam.getAddress());
+                stmt.setString(8, String.valueOf(beltExam.getBeltColor()));
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
@@ -61,23 +108,27 @@ public class DatabaseBeltExam extends DatabaseRepo<BeltExam> {
  **/
     @Override
     public void remove(Integer RemoveId) throws DatabaseException {
-        String removeFromResultsBeltExams = "DELETE FROM ResultsBeltExams WHERE idBeltExam=?";
+        try (Connection connection = getConnection()) {
+            String removeFromResultsBeltExams = "DELETE FROM ResultsBeltExams WHERE idBeltExam=?";
 
-        try(PreparedStatement statement = connection.prepareStatement(removeFromResultsBeltExams)){
-            statement.setInt(1,RemoveId);
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String sql = "DELETE FROM BeltExams WHERE ID=?";
+            try(PreparedStatement statement = connection.prepareStatement(removeFromResultsBeltExams)){
+                statement.setInt(1,RemoveId);
+                statement.execute();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+            String sql = "DELETE FROM BeltExams WHERE ID=?";
+
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                statement.setInt(1,RemoveId);
+                statement.execute();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
 
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            statement.setInt(1,RemoveId);
-            statement.execute();
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-
     }
 
     /**
@@ -88,40 +139,33 @@ public class DatabaseBeltExam extends DatabaseRepo<BeltExam> {
      */
     @Override
     public void update(BeltExam beltExam) throws DatabaseException {
-        String sql = "UPDATE BeltExams SET startDate=?, endDate=?, price=?,country=?,city=?,address=?,beltColor=?  WHERE ID=?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setDate(1, Date.valueOf(beltExam.getStartDate()));
-            stmt.setDate(2, Date.valueOf(beltExam.getEndDate()));
-            stmt.setDouble(3, beltExam.getPrice());
-            stmt.setString(4, beltExam.getCountry());
-            stmt.setString(5, beltExam.getCity());
-            stmt.setString(6, beltExam.getAddress());
-            stmt.setString(7, String.valueOf(beltExam.getBeltColor()));
-            stmt.setInt(8, beltExam.getId());
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String deleteStudentsBeltExams = "DELETE From ResultsBeltExams WHERE idStud=?";
-
-        try(PreparedStatement statement = connection.prepareStatement(deleteStudentsBeltExams)){
-            statement.setInt(1,beltExam.getId());
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String addStudentsTrainingCamps = "INSERT INTO ResultsBeltExams (idBeltExam,idStud,result) VALUES (?,?,?)";
+        executeInTransaction(connection -> {
+            String sql = "UPDATE BeltExams SET startDate=?, endDate=?, price=?,country=?,city=?,address=?,beltColor=?  WHERE ID=?";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setDate(1, Date.valueOf(beltExam.getStartDate()));
+                stmt.setDate(2, Date.valueOf(beltExam.getEndDate()));
+                stmt.setDouble(3, beltExam.getPrice());
+                stmt.setString(4, beltExam.getCountry());
+                stmt.setString(5, beltExam.getCity());
+                stmt.setString(6, beltExam.getAddress());
+                stmt.setString(7, String.valueOf(beltExam.getBeltColor()));
+                stmt.setInt(8, beltExam.getId());
+                stmt.executeUpdate();
+            }
+            String deleteStudentsBeltExams = "DELETE From ResultsBeltExams WHERE idBeltExam=?";
 
-        for(int studentId: beltExam.getListOfResults().keySet()) {
-            try (PreparedStatement statement = connection.prepareStatement(addStudentsTrainingCamps)) {
-                statement.setInt(1, beltExam.getId());
-                statement.setInt(2, studentId);
-                statement.setInt(3, beltExam.getListOfResults().get(studentId));
+            try(PreparedStatement statement = connection.prepareStatement(deleteStudentsBeltExams)){
+                statement.setInt(1,beltExam.getId());
                 statement.execute();
-            } catch (SQLException e) {
-                throw new DatabaseException("DataBase Exception Error");
             }
-        }
+            String addStudentsBeltExams = "INSERT INTO ResultsBeltExams (idBeltExam,idStud,result) VALUES (?,?,?)";
+            executeBatch(connection, addStudentsBeltExams, beltExam.getListOfResults().entrySet(), (statement, result) -> {
+                statement.setInt(1, beltExam.getId());
+                statement.setInt(2, result.getKey());
+                statement.setInt(3, result.getValue());
+            });
+            return null;
+        });
     }
 
 /**
@@ -133,18 +177,22 @@ public class DatabaseBeltExam extends DatabaseRepo<BeltExam> {
  **/
     @Override
     public BeltExam get(Integer getId) throws DatabaseException{
-        String sql = "SELECT * FROM BeltExams WHERE id=?";
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM BeltExams WHERE id=?";
 
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            statement.setInt(1,getId);
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                statement.setInt(1,getId);
 
-            ResultSet resultSet = statement.executeQuery();
+                ResultSet resultSet = statement.executeQuery();
 
-            if(resultSet.next()){
-                Map<Integer,Integer> results = getResultListFromBeltExam(getId);
-                return extractFromResultSet(resultSet,results);
-            } else {
-                return null;
+                if(resultSet.next()){
+                    Map<Integer,Integer> results = getResultListFromBeltExam(getId);
+                    return extractFromResultSet(resultSet,results);
+                } else {
+                    return null;
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
@@ -153,25 +201,69 @@ public class DatabaseBeltExam extends DatabaseRepo<BeltExam> {
 
     /**
      * Retrieves all belt exams objects from the database.
+     * The results of all belt exams are read with one query, not one query per belt exam.
      *
      * @return A list of all belt exams objects.
      * @throws DatabaseException If there is an error executing the SQL query.
      */
     @Override
     public List<BeltExam> getAll() throws DatabaseException {
-        String sql = "SELECT * FROM BeltExams";
+        try (Connection connection = getConnection()) {
+            Map<Integer,Map<Integer,Integer>> results = new HashMap<>();
+            try(PreparedStatement statement = connection.prepareStatement("SELECT idBeltExam, idStud, result FROM ResultsBeltExams")){
+                ResultSet resultSet = statement.executeQuery();
+                while(resultSet.next()){
+                    results.computeIfAbsent(resultSet.getInt("idBeltExam"), k -> new HashMap<>()).put(resultSet.getInt("idStud"),resultSet.getInt("result"));
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+
+            String sql = "SELECT * FROM BeltExams";
 
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            ResultSet resultSet = statement.executeQuery();
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                ResultSet resultSet = statement.executeQuery();
 
-            List<BeltExam> beltExams = new ArrayList<>();
+                List<BeltExam> beltExams = new ArrayList<>();
 
-            while(resultSet.next()){
-                Map<Integer,Integer> results = getResultListFromBeltExam(resultSet.getInt("id"));
-                beltExams.add(extractFromResultSet(resultSet,results));
+                while(resultSet.next()){
+                    beltExams.add(extractFromResultSet(resultSet, results.getOrDefault(resultSet.getInt("id"), new HashMap<>())));
+                }
+
+                return beltExams;
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+    }
+
+    /**
+     * Retrieves the id, dates and price of all belt exams, without their results.
+     *
+     * @return The summaries of all belt exams.
+     * @throws DatabaseException If there is an error executing the SQL query.
+     */
+    @Override
+    public List<EventSummary> getSummaries() throws DatabaseException {
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT id, startDate, endDate, price FROM BeltExams";
+
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                ResultSet resultSet = statement.executeQuery();
+
+                List<EventSummary> summaries = new ArrayList<>();
 
-            return beltExams;
+                while(resultSet.next()){
+                    summaries.add(new EventSummary(EventSummary.Kind.BELT_EXAM, resultSet.getInt("id"),
+                            resultSet.getDate("startDate").toString(), resultSet.getDate("endDate").toString(), resultSet.getDouble("price")));
+                }
+
+                return summaries;
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
@@ -203,19 +295,23 @@ public class DatabaseBeltExam extends DatabaseRepo<BeltExam> {
      * @throws DatabaseException    If there is an error retrieving related entities.
      */
     public Map<Integer,Integer> getResultListFromBeltExam(int beltExamId)  throws DatabaseException {
-        String sql = "SELECT * FROM ResultsBeltExams WHERE idBeltExam=?";
-        Map<Integer,Integer> results= new HashMap<>();
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            statement.setInt(1,beltExamId);
-            ResultSet resultSet = statement.executeQuery();
-
-            while(resultSet.next()){
-                results.put(resultSet.getInt("idStud"),resultSet.getInt("result"));
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM ResultsBeltExams WHERE idBeltExam=?";
+            Map<Integer,Integer> results= new HashMap<>();
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                statement.setInt(1,beltExamId);
+                ResultSet resultSet = statement.executeQuery();
+
+                while(resultSet.next()){
+                    results.put(resultSet.getInt("idStud"),resultSet.getInt("result"));
+                }
             }
-        }
-        catch (SQLException e) {
+            catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+            return results;
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return results;
     }
 }
@@ -2,6 +2,7 @@ package org.example.tkdmng.Repository;
 
 import org.example.tkdmng.Exceptions.DatabaseException;
 import org.example.tkdmng.Model.Contest;
+import org.example.tkdmng.Model.EventSummary;
 import org.example.tkdmng.Model.Student;
 
 import java.sql.Connection;
@@ -9,13 +10,15 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
  * A repository implementation that interacts with the database to manage contest entities.
  */
-public class DatabaseContest extends DatabaseRepo<Contest>{
+public class DatabaseContest extends DatabaseRepo<Contest> implements IEventSummaryRepo {
     /**
      * Constructs a new DatabaseContest with the specified database URL.
      *
@@ -26,6 +29,47 @@ public class DatabaseContest extends DatabaseRepo<Contest>{
         super(dbUrl);
     }
 
+    /**
+     * Constructs a new DatabaseContest that borrows its connections from a shared pool.
+     *
+     * @param connectionPool The pool the connections are borrowed from.
+     * @throws DatabaseException If there is an error connecting to the database.
+     */
+    public DatabaseContest(ConnectionPool connectionPool) throws DatabaseException {
+        super(connectionPool);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getTableName() {
+        return "dbo.Contest";
+    }
+
+    /**
+     * {@inheritDoc}
+     * The contests of the range are read with one query and their students with another one.
+     */
+    @Override
+    protected List<Contest> loadRange(Connection connection, int fromId, int toId) throws SQLException, DatabaseException {
+        Map<Integer, List<Integer>> students = new HashMap<>();
+        try (PreparedStatement stmt = prepareBetween(connection, "SELECT idContest, idStud FROM StudentsContests", "idContest", fromId, toId);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                students.computeIfAbsent(rs.getInt("idContest"), k -> new ArrayList<>()).add(rs.getInt("idStud"));
+            }
+        }
+        List<Contest> contests = new ArrayList<>();
+        try (PreparedStatement stmt = prepareBetween(connection, "SELECT * FROM Contest", "id", fromId, toId);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                contests.add(extractContest(rs, students.getOrDefault(rs.getInt("id"), new ArrayList<>())));
+            }
+        }
+        return contests;
+    }
+
     /**
      * Adds a new contest object to the database.
      *
@@ -34,18 +78,22 @@ public class DatabaseContest extends DatabaseRepo<Contest>{
      */
     @Override
     public void add(Contest obj) throws DatabaseException {
-        String sql = "INSERT INTO dbo.Contest(id,startDate, endDate, price, country, city, name, address) values(?,?,?,?,?,?,?,?)";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)){
-            stmt.setInt(1, obj.getId());
-            stmt.setString(2, obj.getStartDate());
-            stmt.setString(3, obj.getEndDate());
-            stmt.setDouble(4, obj.getPrice());
-            stmt.setString(5, obj.getCountry());
-            stmt.setString(6, obj.getCity());
-            stmt.setString(7, obj.getName());
-            stmt.setString(8, obj.getAddress());
-            stmt.executeUpdate();
-        }catch (SQLException e) {
+        try (Connection connection = getConnection()) {
+            String sql = "INSERT INTO dbo.Contest(id,startDate, endDate, price, country, city, name, address) values(?,?,?,?,?,?,?,?)";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)){
+                stmt.setInt(1, obj.getId());
+                stmt.setString(2, obj.getStartDate());
+                stmt.setString(3, obj.getEndDate());
+                stmt.setDouble(4, obj.getPrice());
+                stmt.setString(5, obj.getCountry());
+                stmt.setString(6, obj.getCity());
+                stmt.setString(7, obj.getName());
+                stmt.setString(8, obj.getAddress());
+                stmt.executeUpdate();
+            }catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
     }
@@ -58,21 +106,25 @@ public class DatabaseContest extends DatabaseRepo<Contest>{
      */
     @Override
     public void remove(Integer RemoveId) throws DatabaseException {
+        try (Connection connection = getConnection()) {
 
-        String removeStudentContests = "DELETE FROM StudentsContests WHERE idContest = ?";
+            String removeStudentContests = "DELETE FROM StudentsContests WHERE idContest = ?";
 
-        try(PreparedStatement stmt = connection.prepareStatement(removeStudentContests)){
-            stmt.setInt(1, RemoveId);
-            stmt.executeUpdate();
-        }catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
+            try(PreparedStatement stmt = connection.prepareStatement(removeStudentContests)){
+                stmt.setInt(1, RemoveId);
+                stmt.executeUpdate();
+            }catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
 
-        String sql = "DELETE FROM Contest WHERE Contest.id = ?";
-        try(PreparedStatement stmt = connection.prepareStatement(sql)){
-            stmt.setInt(1, RemoveId);
-            stmt.executeUpdate();
-        }catch (SQLException e) {
+            String sql = "DELETE FROM Contest WHERE Contest.id = ?";
+            try(PreparedStatement stmt = connection.prepareStatement(sql)){
+                stmt.setInt(1, RemoveId);
+                stmt.executeUpdate();
+            }catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
     }
@@ -85,45 +137,36 @@ public class DatabaseContest extends DatabaseRepo<Contest>{
      */
     @Override
     public void update(Contest obj) throws DatabaseException {
-        String sql = "UPDATE dbo.Contest SET startDate = ?, endDate = ?, price = ?, country = ?, city = ?, name = ?, address = ? WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            // Setăm toți parametrii, indiferent dacă s-au schimbat sau nu
-            stmt.setString(1, obj.getStartDate());
-            stmt.setString(2, obj.getEndDate());
-            stmt.setDouble(3, obj.getPrice());
-            stmt.setString(4, obj.getCountry());
-            stmt.setString(5, obj.getCity());
-            stmt.setString(6, obj.getName());
-            stmt.setString(7, obj.getAddress());
-            stmt.setInt(8, obj.getId());
-
-            // Executăm query-ul
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-
+        executeInTransaction(connection -> {
+            String sql = "UPDATE dbo.Contest SET startDate = ?, endDate = ?, price = ?, country = ?, city = ?, name = ?, address = ? WHERE id = ?";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                // Setăm toți parametrii, indiferent dacă s-au schimbat sau nu
+                stmt.setString(1, obj.getStartDate());
+                stmt.setString(2, obj.getEndDate());
+                stmt.setDouble(3, obj.getPrice());
+                stmt.setString(4, obj.getCountry());
+                stmt.setString(5, obj.getCity());
+                stmt.setString(6, obj.getName());
+                stmt.setString(7, obj.getAddress());
+                stmt.setInt(8, obj.getId());
 
-        String deleteStudentsFromContest = "DELETE From StudentsContests WHERE idContest = ?";
-        try(PreparedStatement stmt2 = connection.prepareStatement(deleteStudentsFromContest)){
-            stmt2.setInt(1, obj.getId());
-            stmt2.executeUpdate();
-        }catch(SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
+                // Executăm query-ul
+                stmt.executeUpdate();
+            }
 
-        String insertStudentsContests = "INSERT INTO StudentsContests(idContest, idStud) VALUES(?,?)";
+            String deleteStudentsFromContest = "DELETE From StudentsContests WHERE idContest = ?";
+            try(PreparedStatement stmt2 = connection.prepareStatement(deleteStudentsFromContest)){
+                stmt2.setInt(1, obj.getId());
+                stmt2.executeUpdate();
+            }
 
-        for(int idStudent: obj.getStudents()){
-            try(PreparedStatement stmt = connection.prepareStatement(insertStudentsContests)){
+            String insertStudentsContests = "INSERT INTO StudentsContests(idContest, idStud) VALUES(?,?)";
+            executeBatch(connection, insertStudentsContests, obj.getStudents(), (stmt, idStudent) -> {
                 stmt.setInt(1, obj.getId());
                 stmt.setInt(2, idStudent);
-                stmt.executeUpdate();
-            }catch(SQLException e) {
-                throw new DatabaseException("DataBase Exception Error");
-            }
-        }
-
+            });
+            return null;
+        });
     }
 
     /**
@@ -135,44 +178,87 @@ public class DatabaseContest extends DatabaseRepo<Contest>{
      */
     @Override
     public Contest get(Integer getId) throws DatabaseException {
-        String sql = "SELECT * FROM Contest WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, getId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    // Creăm un obiect Contest din valorile obținute
-                    List<Integer> studentList = getContestsStudents(getId);
-                    return extractContest(rs, studentList);
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM Contest WHERE id = ?";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, getId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        // Creăm un obiect Contest din valorile obținute
+                        List<Integer> studentList = getContestsStudents(getId);
+                        return extractContest(rs, studentList);
+                    }
                 }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
+            return null; // Dacă nu există un concurs cu ID-ul dat
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return null; // Dacă nu există un concurs cu ID-ul dat
     }
 
 
     /**
      * Retrieves all contest objects from the database.
+     * The students of all contests are read with one query, not one query per contest.
      *
      * @return A list of all contest objects.
      * @throws DatabaseException If there is an error executing the SQL query.
      */
     @Override
     public List<Contest> getAll() throws DatabaseException {
-        String sql = "SELECT * FROM Contest";
-        List<Contest> contests = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            try (ResultSet rs = stmt.executeQuery()) {
+        try (Connection connection = getConnection()) {
+            Map<Integer, List<Integer>> students = new HashMap<>();
+            try (PreparedStatement stmt = connection.prepareStatement("SELECT idContest, idStud FROM StudentsContests");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    students.computeIfAbsent(rs.getInt("idContest"), k -> new ArrayList<>()).add(rs.getInt("idStud"));
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+            String sql = "SELECT * FROM Contest";
+            List<Contest> contests = new ArrayList<>();
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        contests.add(extractContest(rs, students.getOrDefault(rs.getInt("id"), new ArrayList<>())));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+            return contests;
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+    }
+
+    /**
+     * Retrieves the id, dates and price of all contests, without their students.
+     *
+     * @return The summaries of all contests.
+     * @throws DatabaseException If there is an error executing the SQL query.
+     */
+    @Override
+    public List<EventSummary> getSummaries() throws DatabaseException {
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT id, startDate, endDate, price FROM Contest";
+            List<EventSummary> summaries = new ArrayList<>();
+            try (PreparedStatement stmt = connection.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    List<Integer> studentList = getContestsStudents(rs.getInt("id"));
-                    contests.add(extractContest(rs,studentList));
+                    summaries.add(new EventSummary(EventSummary.Kind.CONTEST, rs.getInt("id"),
+                            rs.getString("startDate"), rs.getString("endDate"), rs.getDouble("price")));
                 }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
+            return summaries;
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return contests;
     }
 
     /**
@@ -183,19 +269,23 @@ public class DatabaseContest extends DatabaseRepo<Contest>{
      * @throws DatabaseException If there is an error executing the SQL query.
      */
     public List<Integer> getContestsStudents(int ContestId) throws DatabaseException{
-        String sql = "SELECT * FROM StudentsContests WHERE idContest = ?";
-        List<Integer> students = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, ContestId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    students.add(rs.getInt("idStud"));
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM StudentsContests WHERE idContest = ?";
+            List<Integer> students = new ArrayList<>();
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, ContestId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        students.add(rs.getInt("idStud"));
+                    }
                 }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
+            return students;
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return students;
     }
 
     /**
@@ -1,11 +1,14 @@
 package org.example.tkdmng.Repository;
 import org.example.tkdmng.Exceptions.DatabaseException;
 import org.example.tkdmng.Model.Parent;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A repository implementation that interacts with the database to manage parent entities.
@@ -22,6 +25,47 @@ public class DatabaseParent extends DatabaseRepo<Parent>{
         super(dbUrl);
     }
 
+    /**
+     * Constructs a new DatabaseParent that borrows its connections from a shared pool.
+     *
+     * @param connectionPool The pool the connections are borrowed from.
+     * @throws DatabaseException If there is an error connecting to the database.
+     */
+    public DatabaseParent(ConnectionPool connectionPool) throws DatabaseException {
+        super(connectionPool);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getTableName() {
+        return "dbo.Parent";
+    }
+
+    /**
+     * {@inheritDoc}
+     * The parents of the range are read with one query and their children with another one.
+     */
+    @Override
+    protected List<Parent> loadRange(Connection connection, int fromId, int toId) throws SQLException, DatabaseException {
+        Map<Integer, List<Integer>> children = new HashMap<>();
+        try (PreparedStatement stmt = prepareBetween(connection, "SELECT idParent, idStudent FROM ParentsStudents", "idParent", fromId, toId);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                children.computeIfAbsent(rs.getInt("idParent"), k -> new ArrayList<>()).add(rs.getInt("idStudent"));
+            }
+        }
+        List<Parent> parents = new ArrayList<>();
+        try (PreparedStatement stmt = prepareBetween(connection, "SELECT * FROM dbo.Parent", "id", fromId, toId);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                parents.add(extractParent(rs, children.getOrDefault(rs.getInt("id"), new ArrayList<>())));
+            }
+        }
+        return parents;
+    }
+
     /**
      * Adds a new parent object to the database.
      *
@@ -30,16 +74,20 @@ public class DatabaseParent extends DatabaseRepo<Parent>{
      */
     @Override
     public void add(Parent obj) throws DatabaseException {
-        String sql = "INSERT INTO PARENT (id,name,lastName, email, address, number) VALUES (?,?,?,?,?,?)";
-        try( PreparedStatement stmt= connection.prepareStatement(sql)) {
-            stmt.setInt(1, obj.getId());
-            stmt.setString(2, obj.getName());
-            stmt.setString(3, obj.getLastName());
-            stmt.setString(4, obj.getEmail());
-            stmt.setString(5, obj.getAddress());
-            stmt.setString(6, obj.getNumber());
-            stmt.executeUpdate();
-        }catch(Exception e) {
+        try (Connection connection = getConnection()) {
+            String sql = "INSERT INTO PARENT (id,name,lastName, email, address, number) VALUES (?,?,?,?,?,?)";
+            try( PreparedStatement stmt= connection.prepareStatement(sql)) {
+                stmt.setInt(1, obj.getId());
+                stmt.setString(2, obj.getName());
+                stmt.setString(3, obj.getLastName());
+                stmt.setString(4, obj.getEmail());
+                stmt.setString(5, obj.getAddress());
+                stmt.setString(6, obj.getNumber());
+                stmt.executeUpdate();
+            }catch(Exception e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
     }
@@ -52,18 +100,22 @@ public class DatabaseParent extends DatabaseRepo<Parent>{
      */
     @Override
     public void remove(Integer RemoveId) throws DatabaseException {
-        String removeChildrenFromParents = "DELETE FROM ParentsStudents WHERE idParent = ?";
-        try(PreparedStatement stmt0 = connection.prepareStatement(removeChildrenFromParents)){
-            stmt0.setInt(1, RemoveId);
-            stmt0.executeUpdate();
-        }catch(SQLException e){
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String sql = "DELETE FROM PARENT WHERE id = ?";
-        try( PreparedStatement stmt= connection.prepareStatement(sql)) {
-            stmt.setInt(1, RemoveId);
-            stmt.executeUpdate();
-        }catch(Exception e) {
+        try (Connection connection = getConnection()) {
+            String removeChildrenFromParents = "DELETE FROM ParentsStudents WHERE idParent = ?";
+            try(PreparedStatement stmt0 = connection.prepareStatement(removeChildrenFromParents)){
+                stmt0.setInt(1, RemoveId);
+                stmt0.executeUpdate();
+            }catch(SQLException e){
+                throw new DatabaseException("DataBase Exception Error");
+            }
+            String sql = "DELETE FROM PARENT WHERE id = ?";
+            try( PreparedStatement stmt= connection.prepareStatement(sql)) {
+                stmt.setInt(1, RemoveId);
+                stmt.executeUpdate();
+            }catch(Exception e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
     }
@@ -76,40 +128,31 @@ public class DatabaseParent extends DatabaseRepo<Parent>{
      */
     @Override
     public void update(Parent obj) throws DatabaseException {
-        String sql = "UPDATE dbo.Parent SET name = ?, lastName = ?, email = ?, address = ?, number=? WHERE id = ?";
-        try( PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, obj.getName());
-            stmt.setString(2, obj.getLastName());
-            stmt.setString(3, obj.getEmail());
-            stmt.setString(4, obj.getAddress());
-            stmt.setString(5, obj.getNumber());
-            stmt.setInt(6, obj.getId());
-            stmt.executeUpdate();
-        }catch (Exception e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-
-        String deleteChildrenFromParent = "DELETE From ParentsStudents WHERE idParent = ?";
-        try(PreparedStatement stmt2 = connection.prepareStatement(deleteChildrenFromParent)){
-            stmt2.setInt(1, obj.getId());
-            stmt2.executeUpdate();
-        }catch(SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-
-
-        String insertChildrenParents = "INSERT INTO ParentsStudents(idParent, idStudent) VALUES(?,?)";
-        for(int idStudent: obj.getChildren()){
-            try(PreparedStatement stmt = connection.prepareStatement(insertChildrenParents)){
-                stmt.setInt(1, obj.getId());
-                stmt.setInt(2, idStudent);
+        executeInTransaction(connection -> {
+            String sql = "UPDATE dbo.Parent SET name = ?, lastName = ?, email = ?, address = ?, number=? WHERE id = ?";
+            try( PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setString(1, obj.getName());
+                stmt.setString(2, obj.getLastName());
+                stmt.setString(3, obj.getEmail());
+                stmt.setString(4, obj.getAddress());
+                stmt.setString(5, obj.getNumber());
+                stmt.setInt(6, obj.getId());
                 stmt.executeUpdate();
-            }catch(SQLException e) {
-                throw new DatabaseException("DataBase Exception Error");
             }
-        }
 
+            String deleteChildrenFromParent = "DELETE From ParentsStudents WHERE idParent = ?";
+            try(PreparedStatement stmt2 = connection.prepareStatement(deleteChildrenFromParent)){
+                stmt2.setInt(1, obj.getId());
+                stmt2.executeUpdate();
+            }
 
+            String insertChildrenParents = "INSERT INTO ParentsStudents(idParent, idStudent) VALUES(?,?)";
+            executeBatch(connection, insertChildrenParents, obj.getChildren(), (stmt, idStudent) -> {
+                stmt.setInt(1, obj.getId());
+                stmt.setInt(2, idStudent);
+            });
+            return null;
+        });
     }
 
     /**
@@ -121,23 +164,27 @@ public class DatabaseParent extends DatabaseRepo<Parent>{
      */
     @Override
     public Parent get(Integer getId) throws DatabaseException {
-        String sql =  "SELECT * FROM dbo.Parent WHERE id = ?";
-        try( PreparedStatement stmt = connection.prepareStatement(sql)){
-            stmt.setInt(1, getId);
-            try(ResultSet rs = stmt.executeQuery()){
-                if(rs.next()){
-                    List<Integer> children = getParentChildren(getId);
-                    return extractParent(rs,children);
+        try (Connection connection = getConnection()) {
+            String sql =  "SELECT * FROM dbo.Parent WHERE id = ?";
+            try( PreparedStatement stmt = connection.prepareStatement(sql)){
+                stmt.setInt(1, getId);
+                try(ResultSet rs = stmt.executeQuery()){
+                    if(rs.next()){
+                        List<Integer> children = getParentChildren(getId);
+                        return extractParent(rs,children);
+                    }
+                }catch (SQLException e){
+                    throw new DatabaseException("DataBase Exception Error");
                 }
-            }catch (SQLException e){
+
+            }
+            catch(Exception e){
                 throw new DatabaseException("DataBase Exception Error");
             }
-
-        }
-        catch(Exception e){
+            return null;
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return null;
     }
 
 
@@ -149,23 +196,27 @@ public class DatabaseParent extends DatabaseRepo<Parent>{
      */
     @Override
     public List<Parent> getAll() throws DatabaseException {
-        String sql =  "SELECT * FROM dbo.Parent";
-        List<Parent> parents = new ArrayList<>();
-        try( PreparedStatement stmt = connection.prepareStatement(sql)){
-            try(ResultSet rs = stmt.executeQuery()){
-                while(rs.next()){
-                    List<Integer> children = getParentChildren(rs.getInt("id"));
-                    parents.add(extractParent(rs,children));
+        try (Connection connection = getConnection()) {
+            String sql =  "SELECT * FROM dbo.Parent";
+            List<Parent> parents = new ArrayList<>();
+            try( PreparedStatement stmt = connection.prepareStatement(sql)){
+                try(ResultSet rs = stmt.executeQuery()){
+                    while(rs.next()){
+                        List<Integer> children = getParentChildren(rs.getInt("id"));
+                        parents.add(extractParent(rs,children));
+                    }
+                }catch (SQLException e){
+                    throw new DatabaseException("DataBase Exception Error");
                 }
-            }catch (SQLException e){
+
+            }
+            catch(Exception e){
                 throw new DatabaseException("DataBase Exception Error");
             }
-
-        }
-        catch(Exception e){
+            return parents;
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return parents;
     }
 
     /**
@@ -176,19 +227,23 @@ public class DatabaseParent extends DatabaseRepo<Parent>{
      * @throws DatabaseException If there is an error executing the SQL query.
      */
     public List<Integer> getParentChildren(int ParentId) throws DatabaseException {
-        String sql = "SELECT * FROM ParentsStudents WHERE idParent = ?";
-        List<Integer> children = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, ParentId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    children.add(rs.getInt("idStudent"));
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM ParentsStudents WHERE idParent = ?";
+            List<Integer> children = new ArrayList<>();
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, ParentId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        children.add(rs.getInt("idStudent"));
+                    }
                 }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
+            return children;
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return children;
     }
 
     /**
@@ -1,42 +1,450 @@
 package org.example.tkdmng.Repository;
 
 import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Exceptions.UncheckedDatabaseException;
 import org.example.tkdmng.Model.HasID;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A repository implementation that stores main.java.data in database.
+ * Every operation borrows a connection from a pool that can be shared by several repositories.
  *
  * @param <T> The type of objects stored in the repository, which must implement HasId.
  */
 public abstract class DatabaseRepo<T extends HasID> implements IRepo<T>,AutoCloseable {
-    protected final Connection connection;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_STREAM_CHUNK_SIZE = 500;
+
+    protected final ConnectionPool connectionPool;
+    private final boolean ownsPool;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Some work done with a connection, inside a transaction.
+     *
+     * @param <R> The type of the result of the work.
+     */
+    @FunctionalInterface
+    protected interface SqlWork<R> {
+        R run(Connection connection) throws SQLException, DatabaseException;
+    }
+
+    /**
+     * Loads the next objects of a table in id order, after a given id.
+     *
+     * @param <T> The type of the objects.
+     */
+    @FunctionalInterface
+    protected interface ChunkLoader<T> {
+        List<T> load(int afterId, int size) throws DatabaseException;
+    }
+
+    /**
+     * Sets the parameters of a prepared statement for one row of a batch.
+     *
+     * @param <E> The type of the rows.
+     */
+    @FunctionalInterface
+    protected interface RowBinder<E> {
+        void bind(PreparedStatement stmt, E row) throws SQLException;
+    }
 
     /**
-     * Constructs a new  DBRepository and establishes a connection to the database.
+     * Constructs a new  DBRepository with its own connection pool and checks that the database can be reached.
      *
      * @param dbUrl The URL of the database to connect to.
      * @throws DatabaseException If there is an error while attempting to connect to the database.
      */
     public DatabaseRepo(String dbUrl) throws DatabaseException {
+        this(new ConnectionPool(dbUrl), true);
+    }
+
+    /**
+     * Constructs a new  DBRepository that borrows its connections from a shared pool.
+     *
+     * @param connectionPool The pool the connections are borrowed from.
+     * @throws DatabaseException If there is an error while attempting to connect to the database.
+     */
+    public DatabaseRepo(ConnectionPool connectionPool) throws DatabaseException {
+        this(connectionPool, false);
+    }
+
+    private DatabaseRepo(ConnectionPool connectionPool, boolean ownsPool) throws DatabaseException {
+        this.connectionPool = connectionPool;
+        this.ownsPool = ownsPool;
         try {
-            connection = DriverManager.getConnection(dbUrl);
+            // the connection goes straight back to the pool, it was only borrowed to check the database
+            getConnection().close();
         } catch (SQLException e) {
+            if (ownsPool) {
+                connectionPool.close();
+            }
             throw new DatabaseException(e.getMessage());
         }
     }
 
     /**
-     * Closes the database connection.
+     * Borrows a connection from the pool for one operation. Closing it gives it back to the pool.
+     *
+     * @return A connection to the database.
+     * @throws SQLException If no connection can be borrowed.
+     */
+    protected Connection getConnection() throws SQLException {
+        return connectionPool.getConnection();
+    }
+
+    /**
+     * Gets the number of rows sent to the database in one batch.
+     * @return The batch size.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of rows sent to the database in one batch.
+     * @param batchSize The batch size, at least 1.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Runs some work inside one transaction, which is committed if the work succeeds and rolled back otherwise.
+     * If the thread is already inside a transaction on its pooled connection, the work joins it
+     * and the caller that started the transaction commits it.
+     *
+     * @param work The work to run.
+     * @return The result of the work.
+     * @throws DatabaseException If the work fails.
+     */
+    protected <R> R executeInTransaction(SqlWork<R> work) throws DatabaseException {
+        try (Connection connection = getConnection()) {
+            if (!connection.getAutoCommit()) {
+                return work.run(connection);
+            }
+            connection.setAutoCommit(false);
+            try {
+                R result = work.run(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | DatabaseException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+    }
+
+    /**
+     * Writes rows with one prepared statement, sending them to the database in batches of getBatchSize() rows.
+     *
+     * @param connection    The connection the rows are written with.
+     * @param sql           The statement that writes one row.
+     * @param rows          The rows to write.
+     * @param binder        Sets the parameters of the statement for one row.
+     * @throws SQLException If a batch fails.
+     */
+    protected <E> void executeBatch(Connection connection, String sql, Iterable<E> rows, RowBinder<E> binder) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (E row : rows) {
+                binder.bind(stmt, row);
+                stmt.addBatch();
+                if (++pending == batchSize) {
+                    stmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Updates several objects in one transaction, with one commit.
+     *
+     * @param objs The objects to update.
+     * @throws DatabaseException If one of the updates fails, then none of them is kept.
+     */
+    @Override
+    public void updateAll(Collection<T> objs) throws DatabaseException {
+        executeInTransaction(connection -> {
+            for (T obj : objs) {
+                update(obj);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Streams the objects of a table in chunks read by id ranges (keyset pagination), so only one chunk
+     * is held in memory and no connection stays borrowed between two chunks.
+     *
+     * @param loader    Loads one chunk, ordered by id.
+     * @param chunkSize The number of objects in one chunk.
+     * @return A stream of all the objects, in id order.
+     */
+    protected Stream<T> streamInChunks(ChunkLoader<T> loader, int chunkSize) {
+        Spliterator<T> chunks = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private Iterator<T> chunk = Collections.emptyIterator();
+            private int lastId = Integer.MIN_VALUE;
+            private boolean lastChunk = false;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!chunk.hasNext()) {
+                    if (lastChunk) {
+                        return false;
+                    }
+                    List<T> next;
+                    try {
+                        next = loader.load(lastId, chunkSize);
+                    } catch (DatabaseException e) {
+                        throw new UncheckedDatabaseException(e);
+                    }
+                    lastChunk = next.size() < chunkSize;
+                    if (next.isEmpty()) {
+                        return false;
+                    }
+                    lastId = next.get(next.size() - 1).getId();
+                    chunk = next.iterator();
+                }
+                action.accept(chunk.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(chunks, false);
+    }
+
+    /**
+     * Streams the objects in pages of DEFAULT_STREAM_CHUNK_SIZE read with getPageAfter, so they are never all in memory.
+     *
+     * @return A stream of all the objects, in id order.
+     */
+    @Override
+    public Stream<T> stream() {
+        return streamInChunks(this::getPageAfter, DEFAULT_STREAM_CHUNK_SIZE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The ids of the page are found with ORDER BY id OFFSET ... FETCH NEXT, then only the rows of the page are loaded.
+     */
+    @Override
+    public List<T> getPage(int pageIndex, int pageSize) throws DatabaseException {
+        IRepo.checkPage(pageIndex, pageSize);
+        String sql = "SELECT MIN(id), MAX(id) FROM (SELECT id FROM " + getTableName()
+                + " ORDER BY id OFFSET ? ROWS FETCH NEXT ? ROWS ONLY) page";
+        return loadPage(sql, (int) Math.min(Integer.MAX_VALUE, (long) pageIndex * pageSize), pageSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The ids of the page are found with the primary key, from the id after which it starts, then only the rows
+     * of the page are loaded, so the cost doesn't grow with the number of rows before the page.
+     */
+    @Override
+    public List<T> getPageAfter(int afterId, int pageSize) throws DatabaseException {
+        IRepo.checkPage(0, pageSize);
+        String sql = "SELECT MIN(id), MAX(id) FROM (SELECT TOP (?) id FROM " + getTableName()
+                + " WHERE id > ? ORDER BY id) page";
+        return loadPage(sql, pageSize, afterId);
+    }
+
+    /**
+     * Finds the first and last id of a page and loads the rows between them.
+     *
+     * @param sql       The query that selects the smallest and largest id of the page.
+     * @param first     The first parameter of the query.
+     * @param second    The second parameter of the query.
+     * @return The objects on the page, in id order.
+     * @throws DatabaseException If there is an error executing the SQL query.
+     */
+    private List<T> loadPage(String sql, int first, int second) throws DatabaseException {
+        try (Connection connection = getConnection()) {
+            int fromId;
+            int toId;
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, first);
+                stmt.setInt(2, second);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    fromId = rs.getInt(1);
+                    if (rs.wasNull()) {
+                        return new ArrayList<>();
+                    }
+                    toId = rs.getInt(2);
+                }
+            }
+            return loadRange(connection, fromId, toId);
+        } catch (SQLException | IllegalArgumentException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+    }
+
+    /**
+     * Loads the objects whose ids are between two ids. Repositories that can read a range of rows
+     * and their associations with a few queries override this; by default every object is read with get().
+     *
+     * @param connection    The connection the rows are read with.
+     * @param fromId        The smallest id, included.
+     * @param toId          The largest id, included.
+     * @return The objects in the range, in id order.
+     * @throws SQLException If there is an error executing the SQL query.
+     * @throws DatabaseException If an object can't be read.
+     */
+    protected List<T> loadRange(Connection connection, int fromId, int toId) throws SQLException, DatabaseException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT id FROM " + getTableName() + " WHERE id BETWEEN ? AND ? ORDER BY id")) {
+            stmt.setInt(1, fromId);
+            stmt.setInt(2, toId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        List<T> objects = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            T obj = get(id);
+            if (obj != null) {
+                objects.add(obj);
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * Prepares a query on the rows whose id column is between two ids, ordered by that column.
+     *
+     * @param connection    The connection the rows are read with.
+     * @param select        The query, without a WHERE clause.
+     * @param idColumn      The column that is compared to the ids.
+     * @param fromId        The smallest id, included.
+     * @param toId          The largest id, included.
+     * @return The prepared statement.
+     * @throws SQLException If the statement can't be prepared.
+     */
+    protected static PreparedStatement prepareBetween(Connection connection, String select, String idColumn, int fromId, int toId) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(select + " WHERE " + idColumn + " BETWEEN ? AND ? ORDER BY " + idColumn);
+        stmt.setInt(1, fromId);
+        stmt.setInt(2, toId);
+        return stmt;
+    }
+
+    /**
+     * Gets the name of the table that stores the objects of this repository.
+     *
+     * @return The name of the table.
+     */
+    protected abstract String getTableName();
+
+    /**
+     * Checks if an object with the given ID is in the table with a primary key lookup.
+     *
+     * @param id The unique identifier of the object.
+     * @return true if the object exists.
+     * @throws DatabaseException If there is an error executing the SQL query.
+     */
+    @Override
+    public boolean exists(Integer id) throws DatabaseException {
+        String sql = "SELECT 1 FROM " + getTableName() + " WHERE id = ?";
+        try (Connection connection = getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+    }
+
+    /**
+     * Finds which of several ids are in the table, with one query for every batch of ids.
+     *
+     * @param ids The unique identifiers to check.
+     * @return The ids that are in the table.
+     * @throws DatabaseException If there is an error executing the SQL query.
+     */
+    @Override
+    public Set<Integer> existing(Collection<Integer> ids) throws DatabaseException {
+        Set<Integer> found = new HashSet<>();
+        List<Integer> remaining = new ArrayList<>(new HashSet<>(ids));
+        try (Connection connection = getConnection()) {
+            for (int from = 0; from < remaining.size(); from += batchSize) {
+                List<Integer> batch = remaining.subList(from, Math.min(from + batchSize, remaining.size()));
+                String sql = "SELECT id FROM " + getTableName() + " WHERE id IN (" + String.join(",", Collections.nCopies(batch.size(), "?")) + ")";
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        stmt.setInt(i + 1, batch.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            found.add(rs.getInt(1));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+        return found;
+    }
+
+    /**
+     * Counts the rows of the table.
+     *
+     * @return The number of objects in the table.
+     * @throws DatabaseException If there is an error executing the SQL query.
+     */
+    @Override
+    public int count() throws DatabaseException {
+        String sql = "SELECT COUNT(*) FROM " + getTableName();
+        try (Connection connection = getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+    }
+
+    /**
+     * Closes the connection pool if this repository created it.
      *
      * @throws Exception If there is an error while closing the connection.
      */
     @Override
     public void close() throws Exception {
-        connection.close();
+        if (ownsPool) {
+            connectionPool.close();
+        }
     }
 }
@@ -0,0 +1,106 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * An id allocator backed by a SQL Server sequence. A block of ids is reserved with one call to
+ * sys.sp_sequence_get_range, so several applications can share the same database without handing out the same id.
+ * The sequence is created on the first allocation, starting after the highest id of the repository.
+ */
+public class DatabaseSequenceIdAllocator extends BlockIdAllocator {
+    public static final int DEFAULT_BLOCK_SIZE = 20;
+
+    private final ConnectionPool connectionPool;
+    private final String sequenceName;
+    private final IRepo<?> repo;
+    private boolean sequenceChecked = false;
+
+    /**
+     * Constructs a new DatabaseSequenceIdAllocator with the default block size.
+     * @param connectionPool    The pool the connections are borrowed from.
+     * @param sequenceName      The name of the sequence, only letters, digits and underscores.
+     * @param repo              The repository the ids are used in.
+     */
+    public DatabaseSequenceIdAllocator(ConnectionPool connectionPool, String sequenceName, IRepo<?> repo) {
+        this(connectionPool, sequenceName, repo, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructs a new DatabaseSequenceIdAllocator.
+     * @param connectionPool    The pool the connections are borrowed from.
+     * @param sequenceName      The name of the sequence, only letters, digits and underscores.
+     * @param repo              The repository the ids are used in.
+     * @param blockSize         The number of ids reserved with one call to the database.
+     */
+    public DatabaseSequenceIdAllocator(ConnectionPool connectionPool, String sequenceName, IRepo<?> repo, int blockSize) {
+        super(blockSize);
+        if (!sequenceName.matches("\\w+")) {
+            throw new IllegalArgumentException("Invalid sequence name: " + sequenceName);
+        }
+        this.connectionPool = connectionPool;
+        this.sequenceName = sequenceName;
+        this.repo = repo;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int reserveBlock(int size) throws DatabaseException {
+        if (!sequenceChecked) {
+            createSequenceIfMissing();
+            sequenceChecked = true;
+        }
+        String sql = "SET NOCOUNT ON; DECLARE @first sql_variant; "
+                + "EXEC sys.sp_sequence_get_range @sequence_name = ?, @range_size = ?, @range_first_value = @first OUTPUT; "
+                + "SELECT CAST(@first AS INT);";
+        try (Connection connection = connectionPool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, "dbo." + sequenceName);
+            stmt.setInt(2, size);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+    }
+
+    /**
+     * Creates the sequence if it doesn't exist yet. If another application creates it at the same time,
+     * its sequence is used.
+     */
+    private void createSequenceIfMissing() throws DatabaseException {
+        try (Connection connection = connectionPool.getConnection()) {
+            if (sequenceExists(connection)) {
+                return;
+            }
+            int start = IdAllocator.maxId(repo) + 1;
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("CREATE SEQUENCE dbo." + sequenceName + " AS INT START WITH " + start + " INCREMENT BY 1 NO CACHE");
+            } catch (SQLException e) {
+                if (!sequenceExists(connection)) {
+                    throw e;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+    }
+
+    private boolean sequenceExists(Connection connection) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT 1 FROM sys.sequences WHERE name = ?")) {
+            stmt.setString(1, sequenceName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
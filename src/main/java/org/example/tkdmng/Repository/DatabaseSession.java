@@ -5,11 +5,14 @@ import org.example.tkdmng.Model.DifficultyLevel;
 import org.example.tkdmng.Model.Session;
 import org.example.tkdmng.Model.TrainingCamp;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A repository implementation that interacts with the database to manage session entities.
@@ -24,6 +27,47 @@ public class DatabaseSession extends DatabaseRepo<Session> {
         super(dbUrl);
     }
 
+    /**
+     * Constructs a new DatabaseSession that borrows its connections from a shared pool.
+     *
+     * @param connectionPool The pool the connections are borrowed from.
+     * @throws DatabaseException If there is an error connecting to the database.
+     */
+    public DatabaseSession(ConnectionPool connectionPool) throws DatabaseException {
+        super(connectionPool);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getTableName() {
+        return "Sessions";
+    }
+
+    /**
+     * {@inheritDoc}
+     * The sessions of the range are read with one query and their students with another one.
+     */
+    @Override
+    protected List<Session> loadRange(Connection connection, int fromId, int toId) throws SQLException, DatabaseException {
+        Map<Integer, List<Integer>> students = new HashMap<>();
+        try (PreparedStatement stmt = prepareBetween(connection, "SELECT sessionId, studentId FROM SessionStudents", "sessionId", fromId, toId);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                students.computeIfAbsent(rs.getInt("sessionId"), k -> new ArrayList<>()).add(rs.getInt("studentId"));
+            }
+        }
+        List<Session> sessions = new ArrayList<>();
+        try (PreparedStatement stmt = prepareBetween(connection, "SELECT * FROM Sessions", "id", fromId, toId);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                sessions.add(extractFromResultSet(rs, students.getOrDefault(rs.getInt("id"), new ArrayList<>())));
+            }
+        }
+        return sessions;
+    }
+
     /**
      * Adds a new session object to the database.
      *
@@ -32,14 +76,18 @@ public class DatabaseSession extends DatabaseRepo<Session> {
      */
     @Override
     public void add(Session session) throws DatabaseException {
-        String sql = "INSERT INTO Sessions (id, difficultyLevel,maximumParticipants,trainerId,pricePerSession) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, session.getId());
-            stmt.setString(2, String.valueOf(session.getDifficultyLevel()));
-            stmt.setInt(3, session.getMaximumParticipants());
-            stmt.setInt(4, session.getTrainer());
-            stmt.setFloat(5, (float) session.getPricePerSession());
-            stmt.executeUpdate();
+        try (Connection connection = getConnection()) {
+            String sql = "INSERT INTO Sessions (id, difficultyLevel,maximumParticipants,trainerId,pricePerSession) VALUES (?, ?, ?, ?, ?)";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, session.getId());
+                stmt.setString(2, String.valueOf(session.getDifficultyLevel()));
+                stmt.setInt(3, session.getMaximumParticipants());
+                stmt.setInt(4, session.getTrainer());
+                stmt.setFloat(5, (float) session.getPricePerSession());
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
@@ -53,19 +101,23 @@ public class DatabaseSession extends DatabaseRepo<Session> {
      */
     @Override
     public void remove(Integer RemoveId) throws DatabaseException {
-        String removeFromSession = "DELETE FROM Sessions WHERE ID=?";
-
-        try(PreparedStatement statement = connection.prepareStatement(removeFromSession)){
-            statement.setInt(1,RemoveId);
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String removeFromSessionStudents = "DELETE FROM SessionStudents WHERE sessionId=?";
+        try (Connection connection = getConnection()) {
+            String removeFromSession = "DELETE FROM Sessions WHERE ID=?";
+
+            try(PreparedStatement statement = connection.prepareStatement(removeFromSession)){
+                statement.setInt(1,RemoveId);
+                statement.execute();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+            String removeFromSessionStudents = "DELETE FROM SessionStudents WHERE sessionId=?";
 
-        try(PreparedStatement statement = connection.prepareStatement(removeFromSessionStudents)){
-            statement.setInt(1,RemoveId);
-            statement.execute();
+            try(PreparedStatement statement = connection.prepareStatement(removeFromSessionStudents)){
+                statement.setInt(1,RemoveId);
+                statement.execute();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
@@ -79,14 +131,18 @@ public class DatabaseSession extends DatabaseRepo<Session> {
      */
     @Override
     public void update(Session session)  throws DatabaseException {
-        String sql = "UPDATE Sessions SET difficultyLevel=?, maximumParticipants=?, trainerId=?,pricePerSession=?  WHERE id=?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, session.getDifficultyLevel().name());
-            stmt.setInt(2, session.getMaximumParticipants());
-            stmt.setInt(3, session.getTrainer());
-            stmt.setDouble(4, session.getPricePerSession());
-            stmt.setInt(5, session.getId());
-            stmt.executeUpdate();
+        try (Connection connection = getConnection()) {
+            String sql = "UPDATE Sessions SET difficultyLevel=?, maximumParticipants=?, trainerId=?,pricePerSession=?  WHERE id=?";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setString(1, session.getDifficultyLevel().name());
+                stmt.setInt(2, session.getMaximumParticipants());
+                stmt.setInt(3, session.getTrainer());
+                stmt.setDouble(4, session.getPricePerSession());
+                stmt.setInt(5, session.getId());
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
@@ -101,18 +157,22 @@ public class DatabaseSession extends DatabaseRepo<Session> {
      */
     @Override
     public Session get(Integer getId) throws DatabaseException{
-        String sql = "SELECT * FROM Sessions WHERE ID=?";
-
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            statement.setInt(1,getId);
-
-            ResultSet resultSet = statement.executeQuery();
-
-            if(resultSet.next()){
-                List<Integer> students = getSessionStudents(getId);
-                return extractFromResultSet(resultSet,students);
-            } else {
-                return null;
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM Sessions WHERE ID=?";
+
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                statement.setInt(1,getId);
+
+                ResultSet resultSet = statement.executeQuery();
+
+                if(resultSet.next()){
+                    List<Integer> students = getSessionStudents(getId);
+                    return extractFromResultSet(resultSet,students);
+                } else {
+                    return null;
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
@@ -127,19 +187,23 @@ public class DatabaseSession extends DatabaseRepo<Session> {
      */
     @Override
     public List<Session> getAll() throws DatabaseException {
-        String sql = "SELECT * FROM Sessions";
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM Sessions";
 
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            ResultSet resultSet = statement.executeQuery();
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                ResultSet resultSet = statement.executeQuery();
 
-            List<Session> sessions = new ArrayList<>();
+                List<Session> sessions = new ArrayList<>();
 
-            while(resultSet.next()){
-                List<Integer> students = getSessionStudents(resultSet.getInt("id"));
-                sessions.add(extractFromResultSet(resultSet,students));
-            }
+                while(resultSet.next()){
+                    List<Integer> students = getSessionStudents(resultSet.getInt("id"));
+                    sessions.add(extractFromResultSet(resultSet,students));
+                }
 
-            return sessions;
+                return sessions;
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
@@ -171,17 +235,21 @@ public class DatabaseSession extends DatabaseRepo<Session> {
      * @throws DatabaseException If there is an error executing the SQL query.
      */
     public List<Integer> getSessionStudents(int sessionId) throws DatabaseException {
-        String sql = "SELECT * FROM SessionStudents WHERE sessionId=?";
-        List<Integer> studentList = new ArrayList<>();
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            statement.setInt(1,sessionId);
-            ResultSet resultSet = statement.executeQuery();
-            while(resultSet.next()){
-                studentList.add(resultSet.getInt("studentId"));
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM SessionStudents WHERE sessionId=?";
+            List<Integer> studentList = new ArrayList<>();
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                statement.setInt(1,sessionId);
+                ResultSet resultSet = statement.executeQuery();
+                while(resultSet.next()){
+                    studentList.add(resultSet.getInt("studentId"));
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
+            return studentList;
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return studentList;
     }
 }
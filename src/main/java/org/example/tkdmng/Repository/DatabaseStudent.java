@@ -7,13 +7,17 @@ import org.example.tkdmng.Model.Student;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A repository implementation that interacts with the database to manage Student entities.
  */
 
-public class DatabaseStudent extends DatabaseRepo<Student> {
+public class DatabaseStudent extends DatabaseRepo<Student> implements IAttendanceRepo {
+    private boolean bulkLoad = true;
+
     /**
      * Constructs a new DatabaseStudent with the specified database URL.
      * @param dbUrl
@@ -22,6 +26,40 @@ public class DatabaseStudent extends DatabaseRepo<Student> {
         super(dbUrl);
     }
 
+    /**
+     * Constructs a new DatabaseStudent that borrows its connections from a shared pool.
+     *
+     * @param connectionPool The pool the connections are borrowed from.
+     * @throws DatabaseException If there is an error connecting to the database.
+     */
+    public DatabaseStudent(ConnectionPool connectionPool) throws DatabaseException {
+        super(connectionPool);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getTableName() {
+        return "Students";
+    }
+
+    /**
+     * Checks if getAll() reads every association table once instead of querying them for every student.
+     * @return true if the bulk loading mode is used.
+     */
+    public boolean isBulkLoad() {
+        return bulkLoad;
+    }
+
+    /**
+     * Sets the loading mode used by getAll().
+     * @param bulkLoad true to read every association table once, false to query them for every student.
+     */
+    public void setBulkLoad(boolean bulkLoad) {
+        this.bulkLoad = bulkLoad;
+    }
+
     /**
      * Adds a new student object in the database.
      *
@@ -31,27 +69,31 @@ public class DatabaseStudent extends DatabaseRepo<Student> {
 
     @Override
     public void add(Student student) throws DatabaseException {
-        String addToStudent = "INSERT INTO Students (id, name,lastName,email,address,dateOfBirth,number, beltLevel, session) VALUES (?, ?, ?, ?, ?, ?, ?, ?,?)";
-        try (PreparedStatement stmt = connection.prepareStatement(addToStudent)) {
-            stmt.setInt(1, student.getId());
-            stmt.setString(2, student.getName());
-            stmt.setString(3, student.getLastName());
-            stmt.setString(4, student.getEmail());
-            stmt.setString(5, student.getAddress());
-            stmt.setInt(6, student.getDateOfBirth());
-            stmt.setString(7, student.getNumber());
-            stmt.setString(8, String.valueOf(student.getBeltLevel()));
-            stmt.setInt(9, student.getSession());
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String addToSessionStudents = "INSERT INTO SessionStudents (studentId, sessionId) VALUES (?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(addToSessionStudents)) {
-            stmt.setInt(1, student.getId());
-            stmt.setInt(2, student.getSession());
+        try (Connection connection = getConnection()) {
+            String addToStudent = "INSERT INTO Students (id, name,lastName,email,address,dateOfBirth,number, beltLevel, session) VALUES (?, ?, ?, ?, ?, ?, ?, ?,?)";
+            try (PreparedStatement stmt = connection.prepareStatement(addToStudent)) {
+                stmt.setInt(1, student.getId());
+                stmt.setString(2, student.getName());
+                stmt.setString(3, student.getLastName());
+                stmt.setString(4, student.getEmail());
+                stmt.setString(5, student.getAddress());
+                stmt.setInt(6, student.getDateOfBirth());
+                stmt.setString(7, student.getNumber());
+                stmt.setString(8, String.valueOf(student.getBeltLevel()));
+                stmt.setInt(9, student.getSession());
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+            String addToSessionStudents = "INSERT INTO SessionStudents (studentId, sessionId) VALUES (?, ?)";
+            try (PreparedStatement stmt = connection.prepareStatement(addToSessionStudents)) {
+                stmt.setInt(1, student.getId());
+                stmt.setInt(2, student.getSession());
 
-            stmt.executeUpdate();
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
@@ -66,64 +108,24 @@ public class DatabaseStudent extends DatabaseRepo<Student> {
 
     @Override
     public void remove(Integer RemoveId) throws DatabaseException {
-
-        String removeChildrenFromParents = "DELETE FROM ParentsStudents WHERE idStudent = ?";
-        try(PreparedStatement stmt0 = connection.prepareStatement(removeChildrenFromParents)){
-            stmt0.setInt(1, RemoveId);
-            stmt0.executeUpdate();
-        }catch(SQLException e){
-            throw new DatabaseException("DataBase Exception Error");
-        }
-
-        String removeFromSessionStudents = "DELETE FROM SessionStudents WHERE studentId=?";
-
-        try(PreparedStatement statement = connection.prepareStatement(removeFromSessionStudents)){
-            statement.setInt(1,RemoveId);
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String removeFromSessionDates = "DELETE FROM SessionDates WHERE studentId=?";
-
-        try(PreparedStatement statement = connection.prepareStatement(removeFromSessionDates)){
-            statement.setInt(1,RemoveId);
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String removeFromStudentsTrainingCamp = "DELETE FROM StudentsTrainingCamp WHERE idStud=?";
-
-        try(PreparedStatement statement = connection.prepareStatement(removeFromStudentsTrainingCamp)){
-            statement.setInt(1,RemoveId);
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String removeFromStudentsContests = "DELETE FROM StudentsContests WHERE idStud=?";
-
-        try(PreparedStatement statement = connection.prepareStatement(removeFromStudentsContests)){
-            statement.setInt(1,RemoveId);
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String removeFromResultsBeltExams = "DELETE FROM ResultsBeltExams WHERE idStud=?";
-
-        try(PreparedStatement statement = connection.prepareStatement(removeFromResultsBeltExams)){
-            statement.setInt(1,RemoveId);
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String removeFromStudent = "DELETE FROM Students WHERE id=?";
-
-        try(PreparedStatement statement = connection.prepareStatement(removeFromStudent)){
-            statement.setInt(1,RemoveId);
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-
+        String[] deletes = {
+                "DELETE FROM ParentsStudents WHERE idStudent = ?",
+                "DELETE FROM SessionStudents WHERE studentId=?",
+                "DELETE FROM SessionDates WHERE studentId=?",
+                "DELETE FROM StudentsTrainingCamp WHERE idStud=?",
+                "DELETE FROM StudentsContests WHERE idStud=?",
+                "DELETE FROM ResultsBeltExams WHERE idStud=?",
+                "DELETE FROM Students WHERE id=?"
+        };
+        executeInTransaction(connection -> {
+            for (String sql : deletes) {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setInt(1, RemoveId);
+                    statement.executeUpdate();
+                }
+            }
+            return null;
+        });
     }
 
 
@@ -136,48 +138,89 @@ public class DatabaseStudent extends DatabaseRepo<Student> {
 
     @Override
     public void update(Student obj) throws DatabaseException{
-        String updateStudent = "UPDATE Students SET name=?, lastName=?,email=?,address=?,dateOfBirth=?,number=?, beltLevel=?, session=? WHERE id=?";
-
-        try(PreparedStatement statement = connection.prepareStatement(updateStudent)){
-            statement.setString(1,obj.getName());
-            statement.setString(2,obj.getLastName());
-            statement.setString(3,obj.getEmail());
-            statement.setString(4,obj.getAddress());
-            statement.setInt(5,obj.getDateOfBirth());
-            statement.setString(6,obj.getNumber());
-            statement.setString(7,String.valueOf(obj.getBeltLevel()));
-            statement.setInt(8,obj.getSession());
-            statement.setInt(9,obj.getId());
-
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String deleteSessionDates = "DELETE From SessionDates WHERE studentId=?";
+        executeInTransaction(connection -> {
+            String updateStudent = "UPDATE Students SET name=?, lastName=?,email=?,address=?,dateOfBirth=?,number=?, beltLevel=?, session=? WHERE id=?";
+
+            try(PreparedStatement statement = connection.prepareStatement(updateStudent)){
+                statement.setString(1,obj.getName());
+                statement.setString(2,obj.getLastName());
+                statement.setString(3,obj.getEmail());
+                statement.setString(4,obj.getAddress());
+                statement.setInt(5,obj.getDateOfBirth());
+                statement.setString(6,obj.getNumber());
+                statement.setString(7,String.valueOf(obj.getBeltLevel()));
+                statement.setInt(8,obj.getSession());
+                statement.setInt(9,obj.getId());
 
-        try(PreparedStatement statement = connection.prepareStatement(deleteSessionDates)){
-            statement.setInt(1,obj.getId());
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String addSessionDates = "INSERT INTO SessionDates (studentId, sessionId,weekday,date,attended) VALUES (?,?,?,?,?)";
+                statement.execute();
+            }
+            String deleteSessionDates = "DELETE From SessionDates WHERE studentId=?";
 
-        for(SessionDate sd: obj.getSessionDateList()) {
-            try (PreparedStatement statement = connection.prepareStatement(addSessionDates)) {
+            try(PreparedStatement statement = connection.prepareStatement(deleteSessionDates)){
+                statement.setInt(1,obj.getId());
+                statement.execute();
+            }
+            String addSessionDates = "INSERT INTO SessionDates (studentId, sessionId,weekday,date,attended) VALUES (?,?,?,?,?)";
+            executeBatch(connection, addSessionDates, obj.getSessionDateList(), (statement, sd) -> {
                 statement.setInt(1, obj.getId());
                 statement.setInt(2, obj.getSession());
                 statement.setString(3, sd.getWeekDay());
                 statement.setDate(4, Date.valueOf(sd.getDate()));
                 statement.setBoolean(5, sd.isAttended());
-                statement.execute();
-            } catch (SQLException e) {
-                //throw new DatabaseException("An error is by update occurred");
-                throw new RuntimeException();
-            }
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Inserts only the new session dates of a student, the rest of the attendance history stays as it is.
+     *
+     * @param student       The student the session dates belong to.
+     * @param sessionDates  The new session dates.
+     * @throws DatabaseException If there is an error executing the SQL query.
+     */
+    @Override
+    public void addSessionDates(Student student, List<SessionDate> sessionDates) throws DatabaseException {
+        if (sessionDates.isEmpty()) {
+            return;
         }
+        String addSessionDates = "INSERT INTO SessionDates (studentId, sessionId,weekday,date,attended) VALUES (?,?,?,?,?)";
+        executeInTransaction(connection -> {
+            executeBatch(connection, addSessionDates, sessionDates, (statement, sd) -> {
+                statement.setInt(1, student.getId());
+                statement.setInt(2, sd.getSession());
+                statement.setString(3, sd.getWeekDay());
+                statement.setDate(4, Date.valueOf(sd.getDate()));
+                statement.setBoolean(5, sd.isAttended());
+            });
+            return null;
+        });
     }
 
+    /**
+     * Inserts the new session dates of several students with one batched statement, in one transaction.
+     *
+     * @param sessionDates The new session date of every student, by student id.
+     * @throws DatabaseException If there is an error executing the SQL query.
+     */
+    @Override
+    public void addSessionDates(Map<Integer, SessionDate> sessionDates) throws DatabaseException {
+        if (sessionDates.isEmpty()) {
+            return;
+        }
+        String addSessionDates = "INSERT INTO SessionDates (studentId, sessionId,weekday,date,attended) VALUES (?,?,?,?,?)";
+        executeInTransaction(connection -> {
+            executeBatch(connection, addSessionDates, sessionDates.entrySet(), (statement, entry) -> {
+                SessionDate sd = entry.getValue();
+                statement.setInt(1, entry.getKey());
+                statement.setInt(2, sd.getSession());
+                statement.setString(3, sd.getWeekDay());
+                statement.setDate(4, Date.valueOf(sd.getDate()));
+                statement.setBoolean(5, sd.isAttended());
+            });
+            return null;
+        });
+    }
 
     /**
      * Retrieves a student object from the database by its ID.
@@ -189,21 +232,25 @@ public class DatabaseStudent extends DatabaseRepo<Student> {
 
     @Override
     public Student get(Integer getId) throws DatabaseException{
-        String sql = "SELECT * FROM Students WHERE id=?";
-
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            statement.setInt(1,getId);
-
-            ResultSet resultSet = statement.executeQuery();
-
-            if(resultSet.next()){
-                List<SessionDate> sessionDateList = getSessionDateStudent(getId);
-                List<Integer> trainingCampIdList = getTrainingCampsStudent(getId);
-                List<Integer> contestList = getContestsStudent(getId);
-                int parentId = getIdParentfromStudent(resultSet.getInt("id"));
-                return extractFromResultSet(resultSet, sessionDateList,trainingCampIdList,contestList,parentId);
-            } else {
-                return null;
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM Students WHERE id=?";
+
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                statement.setInt(1,getId);
+
+                ResultSet resultSet = statement.executeQuery();
+
+                if(resultSet.next()){
+                    List<SessionDate> sessionDateList = getSessionDateStudent(getId);
+                    List<Integer> trainingCampIdList = getTrainingCampsStudent(getId);
+                    List<Integer> contestList = getContestsStudent(getId);
+                    int parentId = getIdParentfromStudent(resultSet.getInt("id"));
+                    return extractFromResultSet(resultSet, sessionDateList,trainingCampIdList,contestList,parentId);
+                } else {
+                    return null;
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
@@ -220,27 +267,155 @@ public class DatabaseStudent extends DatabaseRepo<Student> {
 
     @Override
     public List<Student> getAll() throws DatabaseException{
-        String sql = "SELECT * FROM Students";
+        try (Connection connection = getConnection()) {
+            if(bulkLoad){
+                return getAllBulk();
+            }
+            String sql = "SELECT * FROM Students";
 
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            ResultSet resultSet = statement.executeQuery();
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                ResultSet resultSet = statement.executeQuery();
 
-            List<Student> students = new ArrayList<>();
+                List<Student> students = new ArrayList<>();
 
-            while(resultSet.next()){
-                List<SessionDate> sessionDateList = getSessionDateStudent(resultSet.getInt("id"));
-                List<Integer> trainingCampList = getTrainingCampsStudent(resultSet.getInt("id"));
-                List<Integer> contestList = getContestsStudent(resultSet.getInt("id"));
-                int parentId = getIdParentfromStudent(resultSet.getInt("id"));
-                students.add(extractFromResultSet(resultSet,sessionDateList,trainingCampList,contestList,parentId));
+                while(resultSet.next()){
+                    List<SessionDate> sessionDateList = getSessionDateStudent(resultSet.getInt("id"));
+                    List<Integer> trainingCampList = getTrainingCampsStudent(resultSet.getInt("id"));
+                    List<Integer> contestList = getContestsStudent(resultSet.getInt("id"));
+                    int parentId = getIdParentfromStudent(resultSet.getInt("id"));
+                    students.add(extractFromResultSet(resultSet,sessionDateList,trainingCampList,contestList,parentId));
+                }
+
+                return students;
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+    }
+
+    /**
+     * Retrieves all students objects from the database by reading every association table once and
+     * stitching the rows to their students in memory, instead of querying the associations for every student.
+     *
+     * @return A list of all Student objects.
+     * @throws DatabaseException If there is an error executing the SQL query.
+     */
+    private List<Student> getAllBulk() throws DatabaseException{
+        try (Connection connection = getConnection()) {
+            Associations associations = loadAssociations(connection, null, null);
+
+            try(PreparedStatement statement = connection.prepareStatement("SELECT * FROM Students")){
+                ResultSet resultSet = statement.executeQuery();
 
-            return students;
+                List<Student> students = new ArrayList<>();
+
+                while(resultSet.next()){
+                    students.add(associations.extract(resultSet));
+                }
+
+                return students;
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * The students of the range and their associations are read with one query per table, limited to the range.
+     */
+    @Override
+    protected List<Student> loadRange(Connection connection, int fromId, int toId) throws SQLException, DatabaseException {
+        Associations associations = loadAssociations(connection, fromId, toId);
+        List<Student> students = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM Students WHERE id BETWEEN ? AND ? ORDER BY id")) {
+            statement.setInt(1, fromId);
+            statement.setInt(2, toId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    students.add(associations.extract(resultSet));
+                }
+            }
+        }
+        return students;
+    }
+
+    /**
+     * The associations of several students, by student id.
+     */
+    private record Associations(Map<Integer,List<SessionDate>> sessionDates, Map<Integer,List<Integer>> trainingCamps,
+                                Map<Integer,List<Integer>> contests, Map<Integer,Integer> parents) {
+
+        Student extract(ResultSet resultSet) throws SQLException {
+            int id = resultSet.getInt("id");
+            return extractFromResultSet(resultSet,
+                    sessionDates.getOrDefault(id, new ArrayList<>()),
+                    trainingCamps.getOrDefault(id, new ArrayList<>()),
+                    contests.getOrDefault(id, new ArrayList<>()),
+                    parents.getOrDefault(id, 0));
+        }
+    }
+
+    /**
+     * Reads every association table once, for all students or only for the students with ids in a range.
+     *
+     * @param connection    The connection used for the queries.
+     * @param fromId        The first student id of the range, or null for all students.
+     * @param toId          The last student id of the range, or null for all students.
+     * @return The associations, by student id.
+     * @throws DatabaseException If there is an error executing the SQL queries.
+     */
+    private Associations loadAssociations(Connection connection, Integer fromId, Integer toId) throws DatabaseException {
+        Associations associations = new Associations(new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>());
+        try(PreparedStatement statement = prepareRange(connection, "SELECT * FROM SessionDates", "studentId", fromId, toId)){
+            ResultSet resultSet = statement.executeQuery();
+            while(resultSet.next()){
+                associations.sessionDates().computeIfAbsent(resultSet.getInt("studentId"), k -> new ArrayList<>()).add(extractFromSessionDate(resultSet));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+        try(PreparedStatement statement = prepareRange(connection, "SELECT * FROM StudentsTrainingCamp", "idStud", fromId, toId)){
+            ResultSet resultSet = statement.executeQuery();
+            while(resultSet.next()){
+                associations.trainingCamps().computeIfAbsent(resultSet.getInt("idStud"), k -> new ArrayList<>()).add(resultSet.getInt("idTrainingCamp"));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+        try(PreparedStatement statement = prepareRange(connection, "SELECT * FROM StudentsContests", "idStud", fromId, toId)){
+            ResultSet resultSet = statement.executeQuery();
+            while(resultSet.next()){
+                associations.contests().computeIfAbsent(resultSet.getInt("idStud"), k -> new ArrayList<>()).add(resultSet.getInt("idContest"));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+        try(PreparedStatement statement = prepareRange(connection, "SELECT * FROM ParentsStudents", "idStudent", fromId, toId)){
+            ResultSet resultSet = statement.executeQuery();
+            while(resultSet.next()){
+                associations.parents().putIfAbsent(resultSet.getInt("idStudent"), resultSet.getInt("idParent"));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+        return associations;
+    }
+
+    private static PreparedStatement prepareRange(Connection connection, String select, String idColumn, Integer fromId, Integer toId) throws SQLException {
+        if (fromId == null) {
+            return connection.prepareStatement(select);
+        }
+        PreparedStatement statement = connection.prepareStatement(select + " WHERE " + idColumn + " BETWEEN ? AND ?");
+        statement.setInt(1, fromId);
+        statement.setInt(2, toId);
+        return statement;
+    }
+
     /**
      * Extracts a student object from the given ResultSet.
      *
@@ -278,20 +453,24 @@ public class DatabaseStudent extends DatabaseRepo<Student> {
      * @throws DatabaseException    If there is an error retrieving related entities.
      */
     public List<SessionDate> getSessionDateStudent(int studentId) throws DatabaseException{
-        String sql = "SELECT * FROM SessionDates WHERE studentId=?";
-        List<SessionDate> sessionDateList = new ArrayList<>();
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            statement.setInt(1,studentId);
-            ResultSet resultSet = statement.executeQuery();
-
-            while(resultSet.next()){
-                sessionDateList.add(extractFromSessionDate(resultSet));
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM SessionDates WHERE studentId=?";
+            List<SessionDate> sessionDateList = new ArrayList<>();
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                statement.setInt(1,studentId);
+                ResultSet resultSet = statement.executeQuery();
+
+                while(resultSet.next()){
+                    sessionDateList.add(extractFromSessionDate(resultSet));
+                }
             }
-        }
-        catch (SQLException e) {
+            catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+            return sessionDateList;
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return sessionDateList;
     }
 
     /**
@@ -301,18 +480,22 @@ public class DatabaseStudent extends DatabaseRepo<Student> {
      * @throws DatabaseException If there is an error retrieving related entities.
      */
     public List<Integer> getTrainingCampsStudent(int studentId) throws DatabaseException{
-        String sql = "SELECT * FROM StudentsTrainingCamp WHERE idStud=?";
-        List<Integer> trainingCampList = new ArrayList<>();
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            statement.setInt(1,studentId);
-            ResultSet resultSet = statement.executeQuery();
-            while(resultSet.next()){
-                trainingCampList.add(resultSet.getInt("idTrainingCamp"));
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM StudentsTrainingCamp WHERE idStud=?";
+            List<Integer> trainingCampList = new ArrayList<>();
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                statement.setInt(1,studentId);
+                ResultSet resultSet = statement.executeQuery();
+                while(resultSet.next()){
+                    trainingCampList.add(resultSet.getInt("idTrainingCamp"));
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
+            return trainingCampList;
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return trainingCampList;
     }
 
     /**
@@ -323,18 +506,22 @@ public class DatabaseStudent extends DatabaseRepo<Student> {
      * @throws DatabaseException if an error occurs while accessing the database
      */
     public List<Integer> getContestsStudent(int studentId) throws DatabaseException{
-        String sql = "SELECT * FROM StudentsContests WHERE idStud=?";
-        List<Integer> contestList = new ArrayList<>();
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            statement.setInt(1,studentId);
-            ResultSet resultSet = statement.executeQuery();
-            while(resultSet.next()){
-                contestList.add(resultSet.getInt("idContest"));
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM StudentsContests WHERE idStud=?";
+            List<Integer> contestList = new ArrayList<>();
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                statement.setInt(1,studentId);
+                ResultSet resultSet = statement.executeQuery();
+                while(resultSet.next()){
+                    contestList.add(resultSet.getInt("idContest"));
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
+            return contestList;
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return contestList;
     }
 
     /**
@@ -345,16 +532,20 @@ public class DatabaseStudent extends DatabaseRepo<Student> {
      * @throws DatabaseException if an error occurs while accessing the database
      */
     public int getIdParentfromStudent(int studentId) throws DatabaseException{
-        String sql = "SELECT * FROM ParentsStudents WHERE idStudent = ?";
-        try(PreparedStatement stmt = connection.prepareStatement(sql)){
-            stmt.setInt(1,studentId);
-            ResultSet resultSet = stmt.executeQuery();
-            if(resultSet.next()){
-                return resultSet.getInt("idParent");
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM ParentsStudents WHERE idStudent = ?";
+            try(PreparedStatement stmt = connection.prepareStatement(sql)){
+                stmt.setInt(1,studentId);
+                ResultSet resultSet = stmt.executeQuery();
+                if(resultSet.next()){
+                    return resultSet.getInt("idParent");
+                }
+                else return 0;
+
+            }catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
-            else return 0;
-
-        }catch (SQLException e) {
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
     }
@@ -27,6 +27,24 @@ public class DatabaseTrainer extends DatabaseRepo<Trainer>{
         super(dbUrl);
     }
 
+    /**
+     * Constructs a new DatabaseTrainer that borrows its connections from a shared pool.
+     *
+     * @param connectionPool The pool the connections are borrowed from.
+     * @throws DatabaseException If there is an error connecting to the database.
+     */
+    public DatabaseTrainer(ConnectionPool connectionPool) throws DatabaseException {
+        super(connectionPool);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getTableName() {
+        return "dbo.Trainer";
+    }
+
     /**
      * Adds a new `Trainer` object to the database.
      *
@@ -35,18 +53,22 @@ public class DatabaseTrainer extends DatabaseRepo<Trainer>{
      */
     @Override
     public void add(Trainer obj) throws DatabaseException {
-        String sql =  "INSERT INTO dbo.Trainer (id,name,lastName, email, address, dateOfBirth, number, beltLevel) Values (?,?,?,?,?,?,?,?)";
-        try(PreparedStatement stmt = connection.prepareStatement(sql)){
-            stmt.setInt(1, obj.getId());
-            stmt.setString(2, obj.getName());
-            stmt.setString(3, obj.getLastName());
-            stmt.setString(4, obj.getEmail());
-            stmt.setString(5, obj.getAddress());
-            stmt.setInt(6,obj.getDateOfBirth());
-            stmt.setString(7, obj.getNumber());
-            stmt.setString(8, String.valueOf(obj.getBeltLevel()));
-            stmt.executeUpdate();
-        }catch(Exception e){
+        try (Connection connection = getConnection()) {
+            String sql =  "INSERT INTO dbo.Trainer (id,name,lastName, email, address, dateOfBirth, number, beltLevel) Values (?,?,?,?,?,?,?,?)";
+            try(PreparedStatement stmt = connection.prepareStatement(sql)){
+                stmt.setInt(1, obj.getId());
+                stmt.setString(2, obj.getName());
+                stmt.setString(3, obj.getLastName());
+                stmt.setString(4, obj.getEmail());
+                stmt.setString(5, obj.getAddress());
+                stmt.setInt(6,obj.getDateOfBirth());
+                stmt.setString(7, obj.getNumber());
+                stmt.setString(8, String.valueOf(obj.getBeltLevel()));
+                stmt.executeUpdate();
+            }catch(Exception e){
+                throw new DatabaseException("DataBase Exception Error");
+            }
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
     }
@@ -59,12 +81,16 @@ public class DatabaseTrainer extends DatabaseRepo<Trainer>{
      */
     @Override
     public void remove(Integer removeId) throws DatabaseException {
-        String sql =  "DELETE FROM dbo.Trainer WHERE id = ?";
-        try(PreparedStatement stmt = connection.prepareStatement(sql)){
-            stmt.setInt(1, removeId);
-            stmt.executeUpdate();
-        }
-        catch(Exception e){
+        try (Connection connection = getConnection()) {
+            String sql =  "DELETE FROM dbo.Trainer WHERE id = ?";
+            try(PreparedStatement stmt = connection.prepareStatement(sql)){
+                stmt.setInt(1, removeId);
+                stmt.executeUpdate();
+            }
+            catch(Exception e){
+                throw new DatabaseException("DataBase Exception Error");
+            }
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
     }
@@ -77,18 +103,22 @@ public class DatabaseTrainer extends DatabaseRepo<Trainer>{
      */
     @Override
     public void update(Trainer obj) throws DatabaseException{
-        String sql = "UPDATE dbo.Trainer SET name = ?, lastName = ?, email = ?, address = ?, " +
-                "dateOfBirth = ?, number = ?, beltLevel = ? WHERE id = ?";
-        try(PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, obj.getName());
-            stmt.setString(2, obj.getLastName());
-            stmt.setString(3, obj.getEmail());
-            stmt.setString(4, obj.getAddress());
-            stmt.setInt(5, obj.getDateOfBirth());
-            stmt.setString(6, obj.getNumber());
-            stmt.setString(7, String.valueOf(obj.getBeltLevel()));
-            stmt.setInt(8, obj.getId());
-            stmt.executeUpdate();
+        try (Connection connection = getConnection()) {
+            String sql = "UPDATE dbo.Trainer SET name = ?, lastName = ?, email = ?, address = ?, " +
+                    "dateOfBirth = ?, number = ?, beltLevel = ? WHERE id = ?";
+            try(PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setString(1, obj.getName());
+                stmt.setString(2, obj.getLastName());
+                stmt.setString(3, obj.getEmail());
+                stmt.setString(4, obj.getAddress());
+                stmt.setInt(5, obj.getDateOfBirth());
+                stmt.setString(6, obj.getNumber());
+                stmt.setString(7, String.valueOf(obj.getBeltLevel()));
+                stmt.setInt(8, obj.getId());
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
@@ -103,31 +133,26 @@ public class DatabaseTrainer extends DatabaseRepo<Trainer>{
      */
     @Override
     public Trainer get(Integer getId) throws DatabaseException {
-        String sql =  "SELECT * FROM dbo.Trainer WHERE id = ?";
-        try(PreparedStatement stmt = connection.prepareStatement(sql)){
-            stmt.setInt(1, getId);
-            try(ResultSet rs = stmt.executeQuery()){
-                if(rs.next()){
-                    return new Trainer(
-                            rs.getInt("id"),
-                            rs.getString("name"),
-                            rs.getString("lastName"),
-                            rs.getString("email"),
-                            rs.getString("address"),
-                            rs.getInt("dateOfBirth"),
-                            rs.getString("number"),
-                            BeltLevel.valueOf(rs.getString("beltLevel"))
-                    );
+        try (Connection connection = getConnection()) {
+            String sql =  "SELECT * FROM dbo.Trainer WHERE id = ?";
+            try(PreparedStatement stmt = connection.prepareStatement(sql)){
+                stmt.setInt(1, getId);
+                try(ResultSet rs = stmt.executeQuery()){
+                    if(rs.next()){
+                        return extractTrainer(rs);
+                    }
+                }catch (SQLException e){
+                    throw new DatabaseException("DataBase Exception Error");
                 }
-            }catch (SQLException e){
+
+            }
+            catch(Exception e){
                 throw new DatabaseException("DataBase Exception Error");
             }
-
-        }
-        catch(Exception e){
+            return null;
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return null;
     }
 
 
@@ -139,32 +164,57 @@ public class DatabaseTrainer extends DatabaseRepo<Trainer>{
      */
     @Override
     public List<Trainer> getAll() throws DatabaseException {
-        String sql =  "SELECT * FROM dbo.Trainer";
-        List<Trainer> trainers = new ArrayList<>();
-        try(PreparedStatement stmt = connection.prepareStatement(sql)){
-            try(ResultSet rs = stmt.executeQuery()){
-                while(rs.next()){
-                    trainers.add(new Trainer(
-                            rs.getInt("id"),
-                            rs.getString("name"),
-                            rs.getString("lastName"),
-                            rs.getString("email"),
-                            rs.getString("address"),
-                            rs.getInt("dateOfBirth"),
-                            rs.getString("number"),
-                            BeltLevel.valueOf(rs.getString("beltLevel"))
-                    ));
+        try (Connection connection = getConnection()) {
+            String sql =  "SELECT * FROM dbo.Trainer";
+            List<Trainer> trainers = new ArrayList<>();
+            try(PreparedStatement stmt = connection.prepareStatement(sql)){
+                try(ResultSet rs = stmt.executeQuery()){
+                    while(rs.next()){
+                        trainers.add(extractTrainer(rs));
+                    }
+                }catch (SQLException e){
+                    throw new DatabaseException("DataBase Exception Error");
                 }
-            }catch (SQLException e){
+
+            }
+            catch(Exception e){
                 throw new DatabaseException("DataBase Exception Error");
             }
-
-        }
-        catch(Exception e){
+            return trainers;
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return trainers;
     }
 
+    /**
+     * {@inheritDoc}
+     * The trainers of the range are read with one query.
+     */
+    @Override
+    protected List<Trainer> loadRange(Connection connection, int fromId, int toId) throws SQLException {
+        List<Trainer> trainers = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT * FROM dbo.Trainer WHERE id BETWEEN ? AND ? ORDER BY id")) {
+            stmt.setInt(1, fromId);
+            stmt.setInt(2, toId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    trainers.add(extractTrainer(rs));
+                }
+            }
+        }
+        return trainers;
+    }
 
+    private static Trainer extractTrainer(ResultSet rs) throws SQLException {
+        return new Trainer(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getString("lastName"),
+                rs.getString("email"),
+                rs.getString("address"),
+                rs.getInt("dateOfBirth"),
+                rs.getString("number"),
+                BeltLevel.valueOf(rs.getString("beltLevel"))
+        );
+    }
 }
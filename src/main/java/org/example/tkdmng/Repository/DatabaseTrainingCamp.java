@@ -2,20 +2,24 @@ package org.example.tkdmng.Repository;
 
 import org.example.tkdmng.Exceptions.DatabaseException;
 import org.example.tkdmng.Model.BeltExam;
+import org.example.tkdmng.Model.EventSummary;
 import org.example.tkdmng.Model.SessionDate;
 import org.example.tkdmng.Model.TrainingCamp;
 
 import java.sql.Date;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A repository implementation for managing `TrainingCamp` entities in the database.
  */
-public class DatabaseTrainingCamp extends DatabaseRepo<TrainingCamp> {
+public class DatabaseTrainingCamp extends DatabaseRepo<TrainingCamp> implements IEventSummaryRepo {
     /**
      * Constructs a new `DatabaseTrainingCamp` with the specified database URL.
      *
@@ -26,6 +30,47 @@ public class DatabaseTrainingCamp extends DatabaseRepo<TrainingCamp> {
         super(dbUrl);
     }
 
+    /**
+     * Constructs a new DatabaseTrainingCamp that borrows its connections from a shared pool.
+     *
+     * @param connectionPool The pool the connections are borrowed from.
+     * @throws DatabaseException If there is an error connecting to the database.
+     */
+    public DatabaseTrainingCamp(ConnectionPool connectionPool) throws DatabaseException {
+        super(connectionPool);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getTableName() {
+        return "TrainingCamps";
+    }
+
+    /**
+     * {@inheritDoc}
+     * The training camps of the range are read with one query and their students with another one.
+     */
+    @Override
+    protected List<TrainingCamp> loadRange(Connection connection, int fromId, int toId) throws SQLException, DatabaseException {
+        Map<Integer, List<Integer>> students = new HashMap<>();
+        try (PreparedStatement stmt = prepareBetween(connection, "SELECT idTrainingCamp, idStud FROM StudentsTrainingCamp", "idTrainingCamp", fromId, toId);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                students.computeIfAbsent(rs.getInt("idTrainingCamp"), k -> new ArrayList<>()).add(rs.getInt("idStud"));
+            }
+        }
+        List<TrainingCamp> trainingCamps = new ArrayList<>();
+        try (PreparedStatement stmt = prepareBetween(connection, "SELECT * FROM TrainingCamps", "id", fromId, toId);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                trainingCamps.add(extractFromResultSet(rs, students.getOrDefault(rs.getInt("id"), new ArrayList<>())));
+            }
+        }
+        return trainingCamps;
+    }
+
     /**
      * Adds a new `TrainingCamp` object to the database.
      *
@@ -34,17 +79,21 @@ public class DatabaseTrainingCamp extends DatabaseRepo<TrainingCamp> {
      */
     @Override
     public void add(TrainingCamp trainingCamp) throws DatabaseException {
-        String sql = "INSERT INTO TrainingCamps (id, startDate,endDate,price,country,city,address,numberOfParticipants) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, trainingCamp.getId());
-            stmt.setDate(2, Date.valueOf(trainingCamp.getStartDate()));
-            stmt.setDate(3, Date.valueOf(trainingCamp.getEndDate()));
-            stmt.setDouble(4, trainingCamp.getPrice());
-            stmt.setString(5, trainingCamp.getCountry());
-            stmt.setString(6, trainingCamp.getCity());
-            stmt.setString(7, trainingCamp.getAddress());
-            stmt.setInt(8, trainingCamp.getNumberOfParticipants());
-            stmt.executeUpdate();
+        try (Connection connection = getConnection()) {
+            String sql = "INSERT INTO TrainingCamps (id, startDate,endDate,price,country,city,address,numberOfParticipants) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, trainingCamp.getId());
+                stmt.setDate(2, Date.valueOf(trainingCamp.getStartDate()));
+                stmt.setDate(3, Date.valueOf(trainingCamp.getEndDate()));
+                stmt.setDouble(4, trainingCamp.getPrice());
+                stmt.setString(5, trainingCamp.getCountry());
+                stmt.setString(6, trainingCamp.getCity());
+                stmt.setString(7, trainingCamp.getAddress());
+                stmt.setInt(8, trainingCamp.getNumberOfParticipants());
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
@@ -57,19 +106,23 @@ public class DatabaseTrainingCamp extends DatabaseRepo<TrainingCamp> {
      */
     @Override
     public void remove(Integer removeId) throws DatabaseException{
-        String removeFromStudentsTrainingCamp = "DELETE FROM StudentsTrainingCamp WHERE idTrainingCamp=?";
+        try (Connection connection = getConnection()) {
+            String removeFromStudentsTrainingCamp = "DELETE FROM StudentsTrainingCamp WHERE idTrainingCamp=?";
 
-        try(PreparedStatement statement = connection.prepareStatement(removeFromStudentsTrainingCamp)){
-            statement.setInt(1,removeId);
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String sql = "DELETE FROM TrainingCamps WHERE id=?";
+            try(PreparedStatement statement = connection.prepareStatement(removeFromStudentsTrainingCamp)){
+                statement.setInt(1,removeId);
+                statement.execute();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+            String sql = "DELETE FROM TrainingCamps WHERE id=?";
 
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            statement.setInt(1,removeId);
-            statement.execute();
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                statement.setInt(1,removeId);
+                statement.execute();
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
@@ -83,39 +136,32 @@ public class DatabaseTrainingCamp extends DatabaseRepo<TrainingCamp> {
      */
     @Override
     public void update(TrainingCamp trainingCamp) throws DatabaseException {
-        String sql = "UPDATE TrainingCamps SET startDate=?, endDate=?, price=?,country=?,city=?,address=?,numberOfParticipants=?  WHERE ID=?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setDate(1, Date.valueOf(trainingCamp.getStartDate()));
-            stmt.setDate(2, Date.valueOf(trainingCamp.getEndDate()));
-            stmt.setDouble(3, trainingCamp.getPrice());
-            stmt.setString(4, trainingCamp.getCountry());
-            stmt.setString(5, trainingCamp.getCity());
-            stmt.setString(6, trainingCamp.getAddress());
-            stmt.setInt(7, trainingCamp.getNumberOfParticipants());
-            stmt.setInt(8, trainingCamp.getId());
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String deleteStudentsTrainingCamps = "DELETE From StudentsTrainingCamp WHERE idStud=?";
-
-        try(PreparedStatement statement = connection.prepareStatement(deleteStudentsTrainingCamps)){
-            statement.setInt(1,trainingCamp.getId());
-            statement.execute();
-        } catch (SQLException e) {
-            throw new DatabaseException("DataBase Exception Error");
-        }
-        String addStudentsTrainingCamps = "INSERT INTO StudentsTrainingCamp (idTrainingCamp,idStud) VALUES (?,?)";
+        executeInTransaction(connection -> {
+            String sql = "UPDATE TrainingCamps SET startDate=?, endDate=?, price=?,country=?,city=?,address=?,numberOfParticipants=?  WHERE ID=?";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setDate(1, Date.valueOf(trainingCamp.getStartDate()));
+                stmt.setDate(2, Date.valueOf(trainingCamp.getEndDate()));
+                stmt.setDouble(3, trainingCamp.getPrice());
+                stmt.setString(4, trainingCamp.getCountry());
+                stmt.setString(5, trainingCamp.getCity());
+                stmt.setString(6, trainingCamp.getAddress());
+                stmt.setInt(7, trainingCamp.getNumberOfParticipants());
+                stmt.setInt(8, trainingCamp.getId());
+                stmt.executeUpdate();
+            }
+            String deleteStudentsTrainingCamps = "DELETE From StudentsTrainingCamp WHERE idTrainingCamp=?";
 
-        for(int studentId: trainingCamp.getStudents()) {
-            try (PreparedStatement statement = connection.prepareStatement(addStudentsTrainingCamps)) {
-                statement.setInt(1, trainingCamp.getId());
-                statement.setInt(2, studentId);
+            try(PreparedStatement statement = connection.prepareStatement(deleteStudentsTrainingCamps)){
+                statement.setInt(1,trainingCamp.getId());
                 statement.execute();
-            } catch (SQLException e) {
-                throw new DatabaseException("DataBase Exception Error");
             }
-        }
+            String addStudentsTrainingCamps = "INSERT INTO StudentsTrainingCamp (idTrainingCamp,idStud) VALUES (?,?)";
+            executeBatch(connection, addStudentsTrainingCamps, trainingCamp.getStudents(), (statement, studentId) -> {
+                statement.setInt(1, trainingCamp.getId());
+                statement.setInt(2, studentId);
+            });
+            return null;
+        });
     }
 
     /**
@@ -127,18 +173,22 @@ public class DatabaseTrainingCamp extends DatabaseRepo<TrainingCamp> {
      */
     @Override
     public TrainingCamp get(Integer getId) throws DatabaseException{
-        String sql = "SELECT * FROM TrainingCamps WHERE ID=?";
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM TrainingCamps WHERE ID=?";
 
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            statement.setInt(1,getId);
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                statement.setInt(1,getId);
 
-            ResultSet resultSet = statement.executeQuery();
+                ResultSet resultSet = statement.executeQuery();
 
-            if(resultSet.next()){
-                List<Integer> students = getStudentsFromTrainingCamp(getId);
-                return extractFromResultSet(resultSet,students);
-            } else {
-                return null;
+                if(resultSet.next()){
+                    List<Integer> students = getStudentsFromTrainingCamp(getId);
+                    return extractFromResultSet(resultSet,students);
+                } else {
+                    return null;
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
@@ -147,25 +197,69 @@ public class DatabaseTrainingCamp extends DatabaseRepo<TrainingCamp> {
 
     /**
      * Retrieves all `TrainingCamp` objects from the database.
+     * The students of all training camps are read with one query, not one query per training camp.
      *
      * @return A list of all `TrainingCamp` objects.
      * @throws DatabaseException If there is an error executing the SQL query.
      */
     @Override
     public List<TrainingCamp> getAll() throws DatabaseException{
-        String sql = "SELECT * FROM TrainingCamps";
+        try (Connection connection = getConnection()) {
+            Map<Integer,List<Integer>> students = new HashMap<>();
+            try(PreparedStatement statement = connection.prepareStatement("SELECT idTrainingCamp, idStud FROM StudentsTrainingCamp")){
+                ResultSet resultSet = statement.executeQuery();
+                while(resultSet.next()){
+                    students.computeIfAbsent(resultSet.getInt("idTrainingCamp"), k -> new ArrayList<>()).add(resultSet.getInt("idStud"));
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+
+            String sql = "SELECT * FROM TrainingCamps";
 
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            ResultSet resultSet = statement.executeQuery();
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                ResultSet resultSet = statement.executeQuery();
 
-            List<TrainingCamp> trainingCamps = new ArrayList<>();
+                List<TrainingCamp> trainingCamps = new ArrayList<>();
 
-            while(resultSet.next()){
-                List<Integer> students = getStudentsFromTrainingCamp(resultSet.getInt("id"));
-                trainingCamps.add(extractFromResultSet(resultSet,students));
+                while(resultSet.next()){
+                    trainingCamps.add(extractFromResultSet(resultSet, students.getOrDefault(resultSet.getInt("id"), new ArrayList<>())));
+                }
+
+                return trainingCamps;
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
             }
+        } catch (SQLException e) {
+            throw new DatabaseException("DataBase Exception Error");
+        }
+    }
+
+    /**
+     * Retrieves the id, dates and price of all training camps, without their students.
+     *
+     * @return The summaries of all training camps.
+     * @throws DatabaseException If there is an error executing the SQL query.
+     */
+    @Override
+    public List<EventSummary> getSummaries() throws DatabaseException {
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT id, startDate, endDate, price FROM TrainingCamps";
+
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                ResultSet resultSet = statement.executeQuery();
+
+                List<EventSummary> summaries = new ArrayList<>();
 
-            return trainingCamps;
+                while(resultSet.next()){
+                    summaries.add(new EventSummary(EventSummary.Kind.TRAINING_CAMP, resultSet.getInt("id"),
+                            resultSet.getDate("startDate").toString(), resultSet.getDate("endDate").toString(), resultSet.getDouble("price")));
+                }
+
+                return summaries;
+            } catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
         } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
@@ -200,19 +294,23 @@ public class DatabaseTrainingCamp extends DatabaseRepo<TrainingCamp> {
      * @throws DatabaseException If there is an error executing the SQL query.
      */
     public List<Integer> getStudentsFromTrainingCamp(int trainingCampId) throws DatabaseException{
-        String sql = "SELECT * FROM StudentsTrainingCamp WHERE idTrainingCamp=?";
-        List<Integer> students = new ArrayList<>();
-        try(PreparedStatement statement = connection.prepareStatement(sql)){
-            statement.setInt(1,trainingCampId);
-            ResultSet resultSet = statement.executeQuery();
-
-            while(resultSet.next()){
-                students.add(resultSet.getInt("idStud"));
+        try (Connection connection = getConnection()) {
+            String sql = "SELECT * FROM StudentsTrainingCamp WHERE idTrainingCamp=?";
+            List<Integer> students = new ArrayList<>();
+            try(PreparedStatement statement = connection.prepareStatement(sql)){
+                statement.setInt(1,trainingCampId);
+                ResultSet resultSet = statement.executeQuery();
+
+                while(resultSet.next()){
+                    students.add(resultSet.getInt("idStud"));
+                }
             }
-        }
-        catch (SQLException e) {
+            catch (SQLException e) {
+                throw new DatabaseException("DataBase Exception Error");
+            }
+            return students;
+        } catch (SQLException e) {
             throw new DatabaseException("DataBase Exception Error");
         }
-        return students;
     }
 }
@@ -0,0 +1,67 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * An id allocator that stores its high-water mark in a file.
+ * The file is rewritten once per block, before any id of the block is handed out,
+ * so ids are never reused after a restart. Without a file, it starts after the highest id of its repository.
+ */
+public class FileIdAllocator extends BlockIdAllocator {
+    public static final int DEFAULT_BLOCK_SIZE = 32;
+
+    private final Path filePath;
+    private final IRepo<?> repo;
+    private int highWaterMark = -1;
+
+    /**
+     * Constructs a new FileIdAllocator with the default block size.
+     * @param filePath  The path of the file that stores the high-water mark.
+     * @param repo      The repository the ids are used in.
+     */
+    public FileIdAllocator(String filePath, IRepo<?> repo) {
+        this(filePath, repo, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructs a new FileIdAllocator.
+     * @param filePath  The path of the file that stores the high-water mark.
+     * @param repo      The repository the ids are used in.
+     * @param blockSize The number of ids reserved with one write of the file.
+     */
+    public FileIdAllocator(String filePath, IRepo<?> repo, int blockSize) {
+        super(blockSize);
+        this.filePath = Paths.get(filePath);
+        this.repo = repo;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int reserveBlock(int size) throws DatabaseException {
+        try {
+            if (highWaterMark < 0) {
+                highWaterMark = Files.exists(filePath)
+                        ? Integer.parseInt(Files.readString(filePath, StandardCharsets.UTF_8).trim())
+                        : IdAllocator.maxId(repo);
+            }
+            int first = highWaterMark + 1;
+            int newHighWaterMark = highWaterMark + size;
+            Path temp = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+            Files.writeString(temp, Integer.toString(newHighWaterMark), StandardCharsets.UTF_8);
+            Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            highWaterMark = newHighWaterMark;
+            return first;
+        } catch (IOException | NumberFormatException e) {
+            throw new DatabaseException("Error while reserving ids in " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+}
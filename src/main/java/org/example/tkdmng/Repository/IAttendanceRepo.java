@@ -0,0 +1,30 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.SessionDate;
+import org.example.tkdmng.Model.Student;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A student repository that can record attendance without rewriting the whole attendance history of a student.
+ */
+public interface IAttendanceRepo {
+
+    /**
+     * Stores new session dates of a student, the ones already stored are not touched.
+     * @param student       The student, whose session date list already contains the new session dates.
+     * @param sessionDates  The new session dates.
+     * @throws DatabaseException If the session dates can't be stored.
+     */
+    void addSessionDates(Student student, List<SessionDate> sessionDates) throws DatabaseException;
+
+    /**
+     * Stores one new session date for each of several students, all of them together.
+     * The students must exist; if one session date can't be stored, none of them is.
+     * @param sessionDates  The new session date of every student, by student id.
+     * @throws DatabaseException If the session dates can't be stored.
+     */
+    void addSessionDates(Map<Integer, SessionDate> sessionDates) throws DatabaseException;
+}
@@ -0,0 +1,19 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.EventSummary;
+
+import java.util.List;
+
+/**
+ * An event repository that can read the id, dates and price of its events without loading their participants.
+ */
+public interface IEventSummaryRepo {
+
+    /**
+     * Gets the summaries of all events, in one query.
+     * @return The summaries of all events.
+     * @throws DatabaseException If the summaries can't be read.
+     */
+    List<EventSummary> getSummaries() throws DatabaseException;
+}
@@ -0,0 +1,38 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.HasID;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A repository that can keep secondary indexes, so objects can be found by a property without a full scan.
+ * @param <T> The type of objects stored in the repository, which must implement HasId.
+ */
+public interface IIndexedRepo<T extends HasID> extends IRepo<T> {
+
+    /**
+     * Declares a secondary index, which is built from the objects already in the repository
+     * and kept up to date on every add, update and remove.
+     * @param name          The name of the index.
+     * @param keyExtractor  Gets the indexed property of an object.
+     */
+    <K> void addIndex(String name, Function<T, K> keyExtractor);
+
+    /**
+     * Checks if an index was declared.
+     * @param name The name of the index.
+     * @return true if the index exists.
+     */
+    boolean hasIndex(String name);
+
+    /**
+     * Gets the objects whose indexed property has the given value.
+     * @param name  The name of the index.
+     * @param key   The value of the indexed property.
+     * @return The matching objects, an empty list if there are none.
+     * @throws DatabaseException If the objects can't be read.
+     */
+    <K> List<T> findBy(String name, K key) throws DatabaseException;
+}
@@ -4,7 +4,13 @@ import org.example.tkdmng.Exceptions.DatabaseException;
 import org.example.tkdmng.Model.HasID;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * An interface that defines the basic CRUD operations for a repository.
@@ -41,4 +47,118 @@ public interface IRepo <T extends HasID>{
      * @return A list of all objects in the repository.
      */
     List<T> getAll() throws DatabaseException;
+
+    /**
+     * Streams all objects of the repository. Backends that can read their objects a few at a time override this,
+     * so the whole repository is never held in memory. The stream must be closed, for example with try-with-resources.
+     * A read error while the stream is consumed is thrown as an UncheckedDatabaseException.
+     * @return A stream of all objects in the repository.
+     */
+    default Stream<T> stream() throws DatabaseException {
+        return getAll().stream();
+    }
+
+    /**
+     * Retrieves one page of the objects, ordered by id. Backends that can jump to a page override this,
+     * so a page costs about its size instead of the size of the repository.
+     * @param pageIndex The index of the page, starting at 0.
+     * @param pageSize  The number of objects on a page.
+     * @return The objects on the page, fewer than pageSize on the last page.
+     */
+    default List<T> getPage(int pageIndex, int pageSize) throws DatabaseException {
+        checkPage(pageIndex, pageSize);
+        try (Stream<T> objects = stream()) {
+            return objects.sorted(Comparator.comparing(HasID::getId))
+                    .skip((long) pageIndex * pageSize)
+                    .limit(pageSize)
+                    .toList();
+        }
+    }
+
+    /**
+     * Retrieves the objects that come after an id, ordered by id (a keyset cursor).
+     * The id of the last object of a page is the cursor of the next one, so a page is found without counting
+     * the objects before it. Backends with sorted keys override this.
+     * @param afterId   The id after which the page starts, for example 0 for the first page.
+     * @param pageSize  The number of objects on a page.
+     * @return The objects after the id, fewer than pageSize on the last page.
+     */
+    default List<T> getPageAfter(int afterId, int pageSize) throws DatabaseException {
+        checkPage(0, pageSize);
+        try (Stream<T> objects = stream()) {
+            return objects.filter(obj -> obj.getId() > afterId)
+                    .sorted(Comparator.comparing(HasID::getId))
+                    .limit(pageSize)
+                    .toList();
+        }
+    }
+
+    /**
+     * Checks the arguments of a page request.
+     * @param pageIndex The index of the page.
+     * @param pageSize  The number of objects on a page.
+     */
+    static void checkPage(int pageIndex, int pageSize) {
+        if (pageIndex < 0) {
+            throw new IllegalArgumentException("The page index can't be negative");
+        }
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("A page must hold at least one object");
+        }
+    }
+
+    /**
+     * Checks if an object with the given ID is in the repository, without loading it.
+     * @param id The unique identifier of the object.
+     * @return true if the object exists.
+     */
+    boolean exists(Integer id) throws DatabaseException;
+
+    /**
+     * Finds which of several ids are in the repository, without loading the objects.
+     * Backends that can check them all with one query or one read override this.
+     * @param ids The unique identifiers to check.
+     * @return The ids that are in the repository.
+     */
+    default Set<Integer> existing(Collection<Integer> ids) throws DatabaseException {
+        Set<Integer> found = new HashSet<>();
+        for (Integer id : ids) {
+            if (exists(id)) {
+                found.add(id);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Retrieves several objects by their IDs. Backends that can read them all in one pass override this.
+     * @param ids The unique identifiers of the objects.
+     * @return The objects that were found, ids that are not in the repository are left out.
+     */
+    default List<T> getAll(Collection<Integer> ids) throws DatabaseException {
+        List<T> objects = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            T obj = get(id);
+            if (obj != null) {
+                objects.add(obj);
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * Counts the objects in the repository, without loading them.
+     * @return The number of objects in the repository.
+     */
+    int count() throws DatabaseException;
+
+    /**
+     * Updates several existing objects in the repository. Backends that can write them in one pass override this.
+     * @param objs The objects to update.
+     */
+    default void updateAll(Collection<T> objs) throws DatabaseException {
+        for (T obj : objs) {
+            update(obj);
+        }
+    }
 }
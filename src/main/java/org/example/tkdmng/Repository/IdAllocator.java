@@ -0,0 +1,32 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.HasID;
+
+/**
+ * Hands out unique ids for the objects of one repository.
+ * An id is never handed out twice, even after the object that had it was removed.
+ */
+public interface IdAllocator {
+
+    /**
+     * Reserves the next free id.
+     * @return An id that was never handed out before.
+     * @throws DatabaseException If the allocator can't reserve new ids.
+     */
+    int nextId() throws DatabaseException;
+
+    /**
+     * Gets the highest id in a repository, used to seed an allocator that has no stored state yet.
+     * @param repo The repository whose ids are looked at.
+     * @return The highest id, or 0 if the repository is empty.
+     * @throws DatabaseException If the repository can't be read.
+     */
+    static int maxId(IRepo<?> repo) throws DatabaseException {
+        int max = 0;
+        for (HasID obj : repo.getAll()) {
+            max = Math.max(max, obj.getId());
+        }
+        return max;
+    }
+}
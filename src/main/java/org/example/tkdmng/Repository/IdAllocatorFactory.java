@@ -0,0 +1,16 @@
+package org.example.tkdmng.Repository;
+
+/**
+ * Creates the id allocator of one type of object.
+ */
+@FunctionalInterface
+public interface IdAllocatorFactory {
+
+    /**
+     * Creates an id allocator.
+     * @param entityName    The name of the type of object, like "students", used to name the stored state.
+     * @param repo          The repository the ids are used in.
+     * @return The id allocator.
+     */
+    IdAllocator create(String entityName, IRepo<?> repo);
+}
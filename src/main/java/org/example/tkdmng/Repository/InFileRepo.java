@@ -2,14 +2,25 @@ package org.example.tkdmng.Repository;
 
 import org.example.tkdmng.Model.*;
 import java.io.*;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * A repository implementation that stores main.java.data in a file.
+ * The rows are written in id order, so a page of them is found from their ids alone.
+ * A row is only turned into an object when that object is read; writes copy the lines of the other rows as they are.
  *
  * @param <T> The type of objects stored in the repository, which must implement HasId.
  */
@@ -32,15 +43,25 @@ public class InFileRepo<T extends HasID> implements IRepo<T> {
      */
     @Override
     public void add(T obj) {
-        doInFile(data -> data.putIfAbsent(obj.getId(), obj));
+        doInFile(obj.getHeader(), lines -> lines.putIfAbsent(obj.getId(), obj.toCSV()));
     }
 
     /**
      * {@inheritDoc}
+     * Only the ids of the rows are read, the row that is found is the only one turned into an object.
      */
     @Override
     public T get(Integer id) {
-        return readDataFromFile().get(id);
+        try (MappedCsvFile<T> file = MappedCsvFile.open(Paths.get(filePath), fromCSV)) {
+            for (int row = file.size() - 1; row >= 0; row--) {
+                if (file.getId(row) == id) {
+                    return file.get(row);
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
     }
 
     /**
@@ -48,7 +69,19 @@ public class InFileRepo<T extends HasID> implements IRepo<T> {
      */
     @Override
     public void update(T obj) {
-        doInFile(data -> data.replace(obj.getId(), obj));
+        doInFile(obj.getHeader(), lines -> lines.replace(obj.getId(), obj.toCSV()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The file is read and rewritten once for all the objects.
+     */
+    @Override
+    public void updateAll(Collection<T> objs) {
+        if (objs.isEmpty()) {
+            return;
+        }
+        doInFile(objs.iterator().next().getHeader(), lines -> objs.forEach(obj -> lines.replace(obj.getId(), obj.toCSV())));
     }
 
     /**
@@ -56,7 +89,7 @@ public class InFileRepo<T extends HasID> implements IRepo<T> {
      */
     @Override
     public void remove(Integer id) {
-        doInFile(data -> data.remove(id));
+        doInFile(null, lines -> lines.remove(id));
     }
 
     /**
@@ -64,53 +97,229 @@ public class InFileRepo<T extends HasID> implements IRepo<T> {
      */
     @Override
     public List<T> getAll() {
-        return readDataFromFile().values().stream().toList();
+        try (MappedCsvFile<T> file = MappedCsvFile.open(Paths.get(filePath), fromCSV)) {
+            long[] rows = rowsById(file);
+            List<T> objects = new ArrayList<>(rows.length);
+            for (int i = 0; i < rows.length; i++) {
+                if (i + 1 < rows.length && rows[i + 1] >>> 32 == rows[i] >>> 32) {
+                    continue;   // the same id again further down the file, the last row wins
+                }
+                objects.add(file.get((int) rows[i]));
+            }
+            return objects;
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The file stays mapped while the stream is open and a row is only turned into an object when it is reached.
+     */
+    @Override
+    public Stream<T> stream() {
+        MappedCsvFile<T> file;
+        try {
+            file = MappedCsvFile.open(Paths.get(filePath), fromCSV);
+        } catch (IOException e) {
+            return Stream.empty();
+        }
+        return IntStream.range(0, file.size()).mapToObj(file::get).onClose(file::close);
     }
 
     /**
-     * Performs an operation on the main.java.data stored in the file.
+     * {@inheritDoc}
+     * Only the ids of the rows are read, the rows on the page are the only ones turned into objects.
+     */
+    @Override
+    public List<T> getPage(int pageIndex, int pageSize) {
+        IRepo.checkPage(pageIndex, pageSize);
+        try (MappedCsvFile<T> file = MappedCsvFile.open(Paths.get(filePath), fromCSV)) {
+            long[] rows = rowsById(file);
+            long from = (long) pageIndex * pageSize;
+            if (from >= rows.length) {
+                return List.of();
+            }
+            return readRows(file, rows, (int) from, pageSize);
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only the ids of the rows are read, the rows on the page are the only ones turned into objects.
+     */
+    @Override
+    public List<T> getPageAfter(int afterId, int pageSize) {
+        IRepo.checkPage(0, pageSize);
+        try (MappedCsvFile<T> file = MappedCsvFile.open(Paths.get(filePath), fromCSV)) {
+            long[] rows = rowsById(file);
+            int from = -Arrays.binarySearch(rows, ((long) afterId << 32) | 0xFFFFFFFFL) - 1;
+            return readRows(file, rows, from, pageSize);
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Reads the id of every row and sorts the rows by id. Each row is packed in a long, with the id in the high half
+     * and the index of the row in the low half, so the rows are sorted without boxing.
+     * A file written by this repository is already sorted, then it isn't sorted again.
      *
-     * @param function The function to apply to the main.java.data.
+     * @param file The mapped file.
+     * @return The packed rows, ordered by id.
      */
-    private void doInFile(Consumer<Map<Integer, T>> function) {
-        Map<Integer, T> objects = readDataFromFile();
-        function.accept(objects);
-        writeDataToFile(objects);
+    private static long[] rowsById(MappedCsvFile<?> file) {
+        long[] rows = new long[file.size()];
+        boolean sorted = true;
+        for (int row = 0; row < rows.length; row++) {
+            rows[row] = ((long) file.getId(row) << 32) | row;
+            if (row > 0 && rows[row] < rows[row - 1]) {
+                sorted = false;
+            }
+        }
+        if (!sorted) {
+            Arrays.sort(rows);
+        }
+        return rows;
     }
 
     /**
-     * Reads the main.java.data from the file.
+     * Turns the rows of a page into objects.
      *
-     * @return The main.java.data stored in the file, or an empty map if the file is empty or does not exist.
+     * @param file      The mapped file.
+     * @param rows      The packed rows, ordered by id.
+     * @param from      The position of the first row of the page in rows.
+     * @param pageSize  The number of objects on a page.
+     * @return The objects on the page.
      */
-    private Map<Integer, T> readDataFromFile() {
-        Map<Integer, T> objects = new HashMap<>();
+    private static <T extends HasID> List<T> readRows(MappedCsvFile<T> file, long[] rows, int from, int pageSize) {
+        int to = (int) Math.min(rows.length, (long) from + pageSize);
+        List<T> page = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            page.add(file.get((int) rows[i]));
+        }
+        return page;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only the ids of the rows are read, no row is turned into an object.
+     */
+    @Override
+    public boolean exists(Integer id) {
+        try (MappedCsvFile<T> file = MappedCsvFile.open(Paths.get(filePath), fromCSV)) {
+            for (int row = 0; row < file.size(); row++) {
+                if (file.getId(row) == id) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line = reader.readLine();
-            while ((line = reader.readLine()) != null) {
-                T obj = fromCSV.apply(line);
-                objects.put(obj.getId(), obj);
+    /**
+     * {@inheritDoc}
+     * The file is read once and only the ids of the rows are decoded.
+     */
+    @Override
+    public Set<Integer> existing(Collection<Integer> ids) {
+        Set<Integer> wanted = new HashSet<>(ids);
+        Set<Integer> found = new HashSet<>();
+        try (MappedCsvFile<T> file = MappedCsvFile.open(Paths.get(filePath), fromCSV)) {
+            for (int row = 0; row < file.size(); row++) {
+                int id = file.getId(row);
+                if (wanted.contains(id)) {
+                    found.add(id);
+                }
+            }
+        } catch (IOException e) {
+            return found;
+        }
+        return found;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The file is read once and only the rows of the wanted ids are turned into objects,
+     * in the order of the ids; when an id is in the file twice, the last row wins.
+     */
+    @Override
+    public List<T> getAll(Collection<Integer> ids) {
+        Set<Integer> wanted = new HashSet<>(ids);
+        Map<Integer, Integer> rows = new HashMap<>();
+        try (MappedCsvFile<T> file = MappedCsvFile.open(Paths.get(filePath), fromCSV)) {
+            for (int row = 0; row < file.size(); row++) {
+                int id = file.getId(row);
+                if (wanted.contains(id)) {
+                    rows.put(id, row);
+                }
+            }
+            List<T> objects = new ArrayList<>(rows.size());
+            for (Integer id : ids) {
+                Integer row = rows.remove(id);
+                if (row != null) {
+                    objects.add(file.get(row));
+                }
             }
             return objects;
         } catch (IOException e) {
-            return new HashMap<>();
+            return List.of();
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * Only the lines of the file are counted, no row is turned into an object.
+     */
+    @Override
+    public int count() {
+        try (MappedCsvFile<T> file = MappedCsvFile.open(Paths.get(filePath), fromCSV)) {
+            return file.size();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Performs an operation on the lines of the file, by id, and rewrites the file.
+     * The rows are never turned into objects, the lines that are not changed are written back as they were read.
+     *
+     * @param header    The header of the objects that are written, or null to keep the header of the file.
+     * @param function  The function to apply to the lines.
+     */
+    private void doInFile(String[] header, Consumer<Map<Integer, String>> function) {
+        Map<Integer, String> lines = new TreeMap<>();
+        String fileHeader = "";
+        try (MappedCsvFile<T> file = MappedCsvFile.open(Paths.get(filePath), fromCSV)) {
+            fileHeader = file.getHeader();
+            for (int row = 0; row < file.size(); row++) {
+                lines.put(file.getId(row), file.getLine(row));
+            }
+        } catch (IOException e) {
+            // no file yet, it is written with the first object
+        }
+        function.accept(lines);
+        writeDataToFile(header != null ? String.join(",", header) : fileHeader, lines);
+    }
+
     /**
      * Writes the main.java.data to the file.
      *
-     * @param objects The main.java.data to write to the file.
+     * @param header    The header line of the file.
+     * @param lines     The lines of the objects to write to the file, ordered by id.
      */
-    private void writeDataToFile(Map<Integer, T> objects) {
-        if(objects.isEmpty()) return;
+    private void writeDataToFile(String header, Map<Integer, String> lines) {
+        if(lines.isEmpty()) return;
 
         try (FileWriter writer = new FileWriter(filePath)) {
-            writer.write(String.join(",", objects.entrySet().iterator().next().getValue().getHeader()) + "\n");
+            writer.write(header + "\n");
 
-            for(Map.Entry<Integer, T> entry : objects.entrySet()){
-                writer.write(entry.getValue().toCSV() + "\n");
+            for(String line : lines.values()){
+                writer.write(line + "\n");
             }
         } catch (IOException e) {
             System.err.println("Error while writing to file: " + e.getMessage());
@@ -118,4 +327,3 @@ public class InFileRepo<T extends HasID> implements IRepo<T> {
     }
 
 }
-
@@ -0,0 +1,403 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.HasID;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A repository implementation that stores data in an append-only journal file.
+ * Every add, update and remove appends one record to the journal instead of rewriting the whole file,
+ * and an in-memory index keeps the latest version of every object.
+ * When too many records in the journal are outdated, it is compacted on a background thread.
+ * A new journal can be seeded from the CSV file of the file repository, so switching to it keeps the existing data.
+ * Like InMemoryRepo, add replaces an object with the same id, while update and remove ignore ids that are not stored.
+ * A journal that can't be read fails the construction, and a failed compaction is reported by the next write.
+ *
+ * @param <T> The type of objects stored in the repository, which must implement HasId.
+ */
+public class InJournalRepo<T extends HasID> implements IRepo<T>, AutoCloseable {
+    private static final String PUT = "+";
+    private static final String DELETE = "-";
+    private static final int MIN_RECORDS_BEFORE_COMPACTION = 64;
+    private static final Logger LOGGER = Logger.getLogger(InJournalRepo.class.getName());
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+
+    private final Path journalPath;
+    private final Function<String, T> fromCSV;
+    private final double compactionThreshold;
+    private final TreeMap<Integer, T> index = new TreeMap<>();
+    private final ExecutorService compactor;
+
+    private BufferedWriter writer;
+    private long records = 0;
+    private List<String> appendedDuringCompaction = null;
+    private IOException compactionError = null;
+
+    /**
+     * Constructs a new InJournalRepo that compacts the journal when half of its records are outdated.
+     *
+     * @param filePath  The path to the journal file.
+     * @param fromCSV   The function that reads an object from its CSV format.
+     * @throws DatabaseException If the journal can't be read.
+     */
+    public InJournalRepo(String filePath, Function<String, T> fromCSV) throws DatabaseException {
+        this(filePath, null, fromCSV, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Constructs a new InJournalRepo that starts from the rows of a CSV file when the journal does not exist yet.
+     *
+     * @param filePath  The path to the journal file.
+     * @param seedPath  The path to the CSV file of the file repository.
+     * @param fromCSV   The function that reads an object from its CSV format.
+     * @throws DatabaseException If the journal or the CSV file can't be read.
+     */
+    public InJournalRepo(String filePath, String seedPath, Function<String, T> fromCSV) throws DatabaseException {
+        this(filePath, seedPath, fromCSV, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Constructs a new InJournalRepo and replays the journal into the in-memory index.
+     * If there is no journal yet and a seed file is given, the journal is first written from the rows of the seed file.
+     *
+     * @param filePath              The path to the journal file.
+     * @param seedPath              The path to the CSV file of the file repository, or null to start empty.
+     * @param fromCSV               The function that reads an object from its CSV format.
+     * @param compactionThreshold   The ratio of outdated records that starts a compaction.
+     * @throws DatabaseException If the journal or the seed file can't be read.
+     */
+    public InJournalRepo(String filePath, String seedPath, Function<String, T> fromCSV, double compactionThreshold) throws DatabaseException {
+        this.journalPath = Paths.get(filePath);
+        this.fromCSV = fromCSV;
+        this.compactionThreshold = compactionThreshold;
+        if (seedPath != null && Files.notExists(journalPath) && Files.exists(Paths.get(seedPath))) {
+            seed(new InFileRepo<>(seedPath, fromCSV).getAll());
+        }
+        replay();
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tkd-journal-compactor-" + journalPath.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void add(T obj) throws DatabaseException {
+        append(PUT + "," + obj.toCSV());
+        index.put(obj.getId(), obj);
+        compactIfNeeded();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void remove(Integer RemoveId) throws DatabaseException {
+        if (!index.containsKey(RemoveId)) {
+            return;
+        }
+        append(DELETE + "," + RemoveId);
+        index.remove(RemoveId);
+        compactIfNeeded();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void update(T obj) throws DatabaseException {
+        if (!index.containsKey(obj.getId())) {
+            return;
+        }
+        append(PUT + "," + obj.toCSV());
+        index.put(obj.getId(), obj);
+        compactIfNeeded();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized T get(Integer getId) {
+        return index.get(getId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<T> getAll() {
+        return new ArrayList<>(index.values());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<T> getPage(int pageIndex, int pageSize) {
+        IRepo.checkPage(pageIndex, pageSize);
+        return index.values().stream().skip((long) pageIndex * pageSize).limit(pageSize).toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<T> getPageAfter(int afterId, int pageSize) {
+        IRepo.checkPage(0, pageSize);
+        return index.tailMap(afterId, false).values().stream().limit(pageSize).toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean exists(Integer id) {
+        return index.containsKey(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized int count() {
+        return index.size();
+    }
+
+    /**
+     * Writes a new journal with one record for every object, through a temporary file,
+     * so a crash while seeding leaves no journal and the next start seeds again.
+     *
+     * @param objects The objects the journal starts with.
+     * @throws DatabaseException If the journal can't be written.
+     */
+    private void seed(List<T> objects) throws DatabaseException {
+        Path seeded = journalPath.resolveSibling(journalPath.getFileName() + ".seed");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(seeded, StandardCharsets.UTF_8)) {
+                for (T obj : objects) {
+                    out.write(PUT + "," + obj.toCSV());
+                    out.newLine();
+                }
+            }
+            Files.move(seeded, journalPath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new DatabaseException("Error while seeding the journal: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the journal from the start and keeps the latest record of every object.
+     * A truncated last line, left by a crash in the middle of a write, is skipped and cut from the file;
+     * any other record that can't be read means the journal is damaged.
+     *
+     * @throws DatabaseException If the journal can't be read or a record before the last one is damaged.
+     */
+    private void replay() throws DatabaseException {
+        boolean unreadableTail;
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String unreadable = null;
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (unreadable != null) {
+                    throw new DatabaseException("Unreadable journal record at line " + (lineNumber - 1) + ": " + unreadable);
+                }
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    if (line.startsWith(PUT + ",")) {
+                        T obj = fromCSV.apply(line.substring(2));
+                        index.put(obj.getId(), obj);
+                    } else if (line.startsWith(DELETE + ",")) {
+                        index.remove(Integer.parseInt(line.substring(2)));
+                    } else {
+                        unreadable = line;
+                        continue;
+                    }
+                } catch (RuntimeException e) {
+                    unreadable = line;
+                    continue;
+                }
+                records++;
+            }
+            unreadableTail = unreadable != null;
+            if (unreadable != null) {
+                LOGGER.log(Level.WARNING, "Dropping the truncated last record of " + journalPath + ": " + unreadable);
+            }
+        } catch (NoSuchFileException e) {
+            // a new journal, it is created by the first write
+            return;
+        } catch (IOException e) {
+            throw new DatabaseException("Error while reading the journal: " + e.getMessage(), e);
+        }
+        if (unreadableTail) {
+            dropLastLine();
+        }
+    }
+
+    /**
+     * Cuts the journal back to the end of the line before its last record, so the next record is not appended
+     * to the rest of a record that was only half written.
+     *
+     * @throws DatabaseException If the journal can't be cut.
+     */
+    private void dropLastLine() throws DatabaseException {
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            ByteBuffer one = ByteBuffer.allocate(1);
+            boolean inRecord = false;
+            while (end > 0) {
+                one.clear();
+                channel.read(one, end - 1);
+                byte b = one.get(0);
+                if (b == '\n' && inRecord) {
+                    break;
+                }
+                if (b != '\n' && b != '\r') {
+                    inRecord = true;
+                }
+                end--;
+            }
+            channel.truncate(end);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new DatabaseException("Error while repairing the journal: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Appends a record to the journal.
+     *
+     * @param record The record to append.
+     * @throws DatabaseException If the record can't be written.
+     */
+    private void append(String record) throws DatabaseException {
+        if (compactionError != null) {
+            IOException error = compactionError;
+            compactionError = null;
+            throw new DatabaseException("Error while compacting the journal, nothing was lost: " + error.getMessage(), error);
+        }
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(record);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new DatabaseException("Error while writing to the journal: " + e.getMessage(), e);
+        }
+        records++;
+        if (appendedDuringCompaction != null) {
+            appendedDuringCompaction.add(record);
+        }
+    }
+
+    /**
+     * Starts a background compaction if the ratio of outdated records in the journal passed the threshold
+     * and no compaction is running yet.
+     */
+    private void compactIfNeeded() {
+        if (appendedDuringCompaction != null || records < MIN_RECORDS_BEFORE_COMPACTION) {
+            return;
+        }
+        if ((double) (records - index.size()) / records <= compactionThreshold) {
+            return;
+        }
+        appendedDuringCompaction = new ArrayList<>();
+        List<String> snapshot = new ArrayList<>(index.size());
+        for (T obj : index.values()) {
+            snapshot.add(PUT + "," + obj.toCSV());
+        }
+        compactor.submit(() -> compact(snapshot));
+    }
+
+    /**
+     * Writes the live records to a new journal and swaps it with the current one.
+     * Records appended while the new journal was written are copied to it before the swap.
+     *
+     * @param snapshot The live records at the moment the compaction started.
+     */
+    private void compact(List<String> snapshot) {
+        Path compacted = journalPath.resolveSibling(journalPath.getFileName() + ".compact");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+                for (String record : snapshot) {
+                    out.write(record);
+                    out.newLine();
+                }
+            }
+            synchronized (this) {
+                try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8, StandardOpenOption.APPEND)) {
+                    for (String record : appendedDuringCompaction) {
+                        out.write(record);
+                        out.newLine();
+                    }
+                }
+                if (writer != null) {
+                    writer.close();
+                    writer = null;
+                }
+                Files.move(compacted, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                records = snapshot.size() + appendedDuringCompaction.size();
+                appendedDuringCompaction = null;
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error while compacting " + journalPath, e);
+            synchronized (this) {
+                appendedDuringCompaction = null;
+                compactionError = e;
+            }
+        }
+    }
+
+    /**
+     * Closes the journal file and stops the background compaction. A compaction that is running is waited for,
+     * so the journal is never swapped after the repository was closed. The lock is not held while waiting,
+     * because the compaction needs it to finish.
+     */
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            if (!compactor.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOGGER.log(Level.WARNING, "The compaction of " + journalPath + " did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+
+/**
+ * An id allocator that keeps its high-water mark in memory only.
+ * It starts after the highest id of its repository, which is looked up once, on the first allocation.
+ */
+public class InMemoryIdAllocator extends BlockIdAllocator {
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private final IRepo<?> repo;
+    private int highWaterMark = -1;
+
+    /**
+     * Constructs a new InMemoryIdAllocator.
+     * @param repo The repository the ids are used in.
+     */
+    public InMemoryIdAllocator(IRepo<?> repo) {
+        super(DEFAULT_BLOCK_SIZE);
+        this.repo = repo;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int reserveBlock(int size) throws DatabaseException {
+        if (highWaterMark < 0) {
+            highWaterMark = IdAllocator.maxId(repo);
+        }
+        int first = highWaterMark + 1;
+        highWaterMark += size;
+        return first;
+    }
+}
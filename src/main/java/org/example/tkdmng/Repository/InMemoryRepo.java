@@ -2,17 +2,66 @@ package org.example.tkdmng.Repository;
 
 import org.example.tkdmng.Model.HasID;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * A repository implementation that stores data in memory.
+ * Secondary indexes can be declared to find objects by a property without scanning all of them.
+ * The objects are kept sorted by id, so a page after an id (getPageAfter) starts with a lookup of that id
+ * instead of looking at the objects before it.
  * @param <T> The type of objects stored in the repository, which must implement HasId.
  */
-public class InMemoryRepo<T extends HasID> implements IRepo<T>{
+public class InMemoryRepo<T extends HasID> implements IIndexedRepo<T> {
 
-    Map<Integer, T> data= new HashMap<>();
+    NavigableMap<Integer, T> data= new TreeMap<>();
+
+    private final Map<String, SecondaryIndex<T, ?>> indexes = new HashMap<>();
+
+    /**
+     * The ids of the objects for every value of one property. The indexed value of every object is kept too,
+     * because objects are often changed in place before they are updated, so the old value can't be read from them.
+     */
+    private static class SecondaryIndex<T, K> {
+        final Function<T, K> keyExtractor;
+        final Map<K, Set<Integer>> idsByKey = new HashMap<>();
+        final Map<Integer, K> keyById = new HashMap<>();
+
+        SecondaryIndex(Function<T, K> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+        }
+
+        void put(Integer id, T obj) {
+            remove(id);
+            K key = keyExtractor.apply(obj);
+            idsByKey.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(id);
+            keyById.put(id, key);
+        }
+
+        void remove(Integer id) {
+            if (!keyById.containsKey(id)) {
+                return;
+            }
+            K oldKey = keyById.remove(id);
+            Set<Integer> ids = idsByKey.get(oldKey);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByKey.remove(oldKey);
+            }
+        }
+
+        Set<Integer> get(Object key) {
+            return idsByKey.getOrDefault(key, Set.of());
+        }
+    }
 
 
 
@@ -22,6 +71,7 @@ public class InMemoryRepo<T extends HasID> implements IRepo<T>{
     @Override
     public void add(T obj) {
         data.put(obj.getId(), obj);
+        indexes.values().forEach(index -> index.put(obj.getId(), obj));
     }
 
     /**
@@ -30,6 +80,7 @@ public class InMemoryRepo<T extends HasID> implements IRepo<T>{
     @Override
     public void remove(Integer id) {
         data.remove(id);
+        indexes.values().forEach(index -> index.remove(id));
     }
 
     /**
@@ -37,7 +88,9 @@ public class InMemoryRepo<T extends HasID> implements IRepo<T>{
      */
     @Override
     public void update(T obj) {
-        data.replace(obj.getId(), obj);
+        if (data.replace(obj.getId(), obj) != null) {
+            indexes.values().forEach(index -> index.put(obj.getId(), obj));
+        }
     }
 
     /**
@@ -54,4 +107,83 @@ public class InMemoryRepo<T extends HasID> implements IRepo<T>{
     public List<T> getAll(){
         return data.values().stream().toList();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<T> stream() {
+        return data.values().stream();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The objects are already in id order, so nothing is sorted, but the objects before the page are still walked over;
+     * getPageAfter jumps straight to its page.
+     */
+    @Override
+    public List<T> getPage(int pageIndex, int pageSize) {
+        IRepo.checkPage(pageIndex, pageSize);
+        return data.values().stream().skip((long) pageIndex * pageSize).limit(pageSize).toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getPageAfter(int afterId, int pageSize) {
+        IRepo.checkPage(0, pageSize);
+        return data.tailMap(afterId, false).values().stream().limit(pageSize).toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean exists(Integer id) {
+        return data.containsKey(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int count() {
+        return data.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <K> void addIndex(String name, Function<T, K> keyExtractor) {
+        SecondaryIndex<T, K> index = new SecondaryIndex<>(keyExtractor);
+        data.forEach(index::put);
+        indexes.put(name, index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasIndex(String name) {
+        return indexes.containsKey(name);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <K> List<T> findBy(String name, K key) {
+        SecondaryIndex<T, ?> index = indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("No index named " + name);
+        }
+        Set<Integer> ids = index.get(key);
+        List<T> found = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            found.add(data.get(id));
+        }
+        return found;
+    }
 }
@@ -0,0 +1,265 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Model.HasID;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A CSV file mapped in memory with FileChannel.map, with one lazy row per line after the header.
+ * The lines are only located when the file is opened; a row is decoded and turned into an object
+ * only when it is asked for, and the id of a row can be read straight from the mapped bytes.
+ * The rows can only be used while the file is open, closing it releases the mapping.
+ * Every read of the mapped bytes holds a read lock and checks that the file is still open, and close takes the
+ * write lock before it releases the mapping, so the bytes are never read after they were unmapped,
+ * not even by another thread.
+ *
+ * @param <T> The type of objects stored in the file, which must implement HasId.
+ */
+public class MappedCsvFile<T extends HasID> implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(MappedCsvFile.class.getName());
+    private static final MappedCsvFile<?> EMPTY = new MappedCsvFile<>(null, null, 0, new int[0], new int[0], 0);
+    private static volatile boolean unmapFailureLogged = false;
+
+    private final MappedByteBuffer buffer;
+    private final Function<String, T> fromCSV;
+    private final int headerEnd;
+    private final int[] starts;
+    private final int[] ends;
+    private final int rowCount;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean closed = false;
+
+    private MappedCsvFile(MappedByteBuffer buffer, Function<String, T> fromCSV, int headerEnd, int[] starts, int[] ends, int rowCount) {
+        this.buffer = buffer;
+        this.fromCSV = fromCSV;
+        this.headerEnd = headerEnd;
+        this.starts = starts;
+        this.ends = ends;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Maps a CSV file in memory and locates its rows.
+     *
+     * @param filePath  The path of the CSV file.
+     * @param fromCSV   The function that reads an object from one line of the file.
+     * @return The mapped file, with no rows if the file is empty or only has a header.
+     * @throws IOException If the file can't be read or is larger than 2 GB.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends HasID> MappedCsvFile<T> open(Path filePath, Function<String, T> fromCSV) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return (MappedCsvFile<T>) EMPTY;
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to be mapped: " + filePath);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        int limit = buffer.limit();
+        int[] starts = new int[64];
+        int[] ends = new int[64];
+        int rowCount = 0;
+        int lineStart = 0;
+        int headerEnd = 0;
+        boolean header = true;
+        for (int position = 0; position <= limit; position++) {
+            if (position < limit && buffer.get(position) != '\n') {
+                continue;
+            }
+            int lineEnd = position;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (header) {
+                header = false;
+                headerEnd = lineEnd;
+            } else if (lineEnd > lineStart) {
+                if (rowCount == starts.length) {
+                    starts = Arrays.copyOf(starts, rowCount * 2);
+                    ends = Arrays.copyOf(ends, rowCount * 2);
+                }
+                starts[rowCount] = lineStart;
+                ends[rowCount] = lineEnd;
+                rowCount++;
+            }
+            lineStart = position + 1;
+        }
+        return new MappedCsvFile<>(buffer, fromCSV, headerEnd, starts, ends, rowCount);
+    }
+
+    /**
+     * Gets the number of rows of the file, without the header.
+     * @return The number of rows.
+     */
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * Reads the id of a row, the first field of the line, without decoding the rest of it.
+     *
+     * @param row The index of the row.
+     * @return The id of the object in the row.
+     */
+    public int getId(int row) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return readId(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int readId(int row) {
+        int position = starts[row];
+        int end = ends[row];
+        boolean negative = position < end && buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        int id = 0;
+        for (; position < end; position++) {
+            byte b = buffer.get(position);
+            if (b == ',') {
+                break;
+            }
+            if (b < '0' || b > '9') {
+                throw new NumberFormatException("Invalid id in row " + row + ": " + decode(starts[row], ends[row]));
+            }
+            id = id * 10 + (b - '0');
+        }
+        return negative ? -id : id;
+    }
+
+    /**
+     * Decodes the whole line of a row.
+     *
+     * @param row The index of the row.
+     * @return The line of the row.
+     */
+    public String getLine(int row) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return decode(starts[row], ends[row]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Decodes the header line of the file.
+     *
+     * @return The header, or an empty string if the file is empty.
+     */
+    public String getHeader() {
+        if (buffer == null) {
+            return "";
+        }
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return decode(0, headerEnd);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Turns a row into an object.
+     *
+     * @param row The index of the row.
+     * @return The object in the row.
+     */
+    public T get(int row) {
+        return fromCSV.apply(getLine(row));
+    }
+
+    /**
+     * Turns every row into an object.
+     * @return The objects of the file, in the order of the file.
+     */
+    public List<T> getAll() {
+        List<T> objects = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            objects.add(get(row));
+        }
+        return objects;
+    }
+
+    private String decode(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The mapped file is closed");
+        }
+    }
+
+    /**
+     * Releases the mapping, so the file can be rewritten right away. Reads that already started finish first,
+     * reads that start later fail with an IllegalStateException.
+     */
+    @Override
+    public void close() {
+        if (buffer == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            unmap(buffer);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Releases a mapping without waiting for the garbage collector, which some platforms need before
+     * the file can be overwritten. If the JDK doesn't allow it, the mapping is released by the garbage collector
+     * and a warning is logged the first time.
+     * It is only called under the write lock, after which no read reaches the buffer.
+     */
+    private static void unmap(ByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            if (!unmapFailureLogged) {
+                unmapFailureLogged = true;
+                LOGGER.log(Level.WARNING, "Mapped files can't be released right away, they are left to the garbage collector", e);
+            }
+        }
+    }
+}
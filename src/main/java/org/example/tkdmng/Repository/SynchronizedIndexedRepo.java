@@ -0,0 +1,51 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.HasID;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A SynchronizedRepo that keeps the secondary indexes of the repository it wraps,
+ * so finding objects by a property still uses them.
+ *
+ * @param <T> The type of objects stored in the repository, which must implement HasId.
+ */
+public class SynchronizedIndexedRepo<T extends HasID> extends SynchronizedRepo<T> implements IIndexedRepo<T> {
+    private final IIndexedRepo<T> indexedRepo;
+
+    /**
+     * Constructs a new SynchronizedIndexedRepo.
+     *
+     * @param repo The indexed repository that is used by one thread at a time.
+     */
+    public SynchronizedIndexedRepo(IIndexedRepo<T> repo) {
+        super(repo);
+        this.indexedRepo = repo;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized <K> void addIndex(String name, Function<T, K> keyExtractor) {
+        indexedRepo.addIndex(name, keyExtractor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasIndex(String name) {
+        return indexedRepo.hasIndex(name);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized <K> List<T> findBy(String name, K key) throws DatabaseException {
+        return indexedRepo.findBy(name, key);
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.HasID;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * A repository that lets only one thread at a time use another repository, which is not thread-safe.
+ * Streams are read into a list while the lock is held, so they can be used after it is released.
+ * Repositories that are already thread-safe, like the database and the concurrent in-memory ones,
+ * are not wrapped, so their operations keep running at the same time.
+ *
+ * @param <T> The type of objects stored in the repository, which must implement HasId.
+ */
+public class SynchronizedRepo<T extends HasID> implements IRepo<T> {
+    private final IRepo<T> repo;
+
+    /**
+     * Constructs a new SynchronizedRepo.
+     *
+     * @param repo The repository that is used by one thread at a time.
+     */
+    public SynchronizedRepo(IRepo<T> repo) {
+        this.repo = repo;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void add(T obj) throws DatabaseException {
+        repo.add(obj);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void remove(Integer RemoveId) throws DatabaseException {
+        repo.remove(RemoveId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void update(T obj) throws DatabaseException {
+        repo.update(obj);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void updateAll(Collection<T> objs) throws DatabaseException {
+        repo.updateAll(objs);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized T get(Integer getId) throws DatabaseException {
+        return repo.get(getId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<T> getAll() throws DatabaseException {
+        return repo.getAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<T> getAll(Collection<Integer> ids) throws DatabaseException {
+        return repo.getAll(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The objects are read before the lock is released, so the stream doesn't see later changes.
+     */
+    @Override
+    public Stream<T> stream() throws DatabaseException {
+        List<T> all;
+        synchronized (this) {
+            try (Stream<T> objects = repo.stream()) {
+                all = objects.toList();
+            }
+        }
+        return all.stream();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<T> getPage(int pageIndex, int pageSize) throws DatabaseException {
+        return repo.getPage(pageIndex, pageSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<T> getPageAfter(int afterId, int pageSize) throws DatabaseException {
+        return repo.getPageAfter(afterId, pageSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean exists(Integer id) throws DatabaseException {
+        return repo.exists(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Set<Integer> existing(Collection<Integer> ids) throws DatabaseException {
+        return repo.existing(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized int count() throws DatabaseException {
+        return repo.count();
+    }
+
+    /**
+     * Gets the repository that is used by one thread at a time.
+     * @return The wrapped repository.
+     */
+    public IRepo<T> getRepo() {
+        return repo;
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.HasID;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects the changes of one business operation across several repositories and writes them together.
+ * Nothing is written before commit(). The changes to database repositories are written in one transaction
+ * per connection pool, with one commit; if a change fails, that transaction is rolled back.
+ * Repositories that are not in a database (memory, file, journal) have no transaction, so their changes are undone
+ * by applying the opposite change in reverse order. An object that was changed in place before it was registered
+ * as dirty in a repository that stores the same instance (like InMemoryRepo) can't be restored that way.
+ */
+public class UnitOfWork {
+    private static final Logger LOGGER = Logger.getLogger(UnitOfWork.class.getName());
+
+    private final List<Change<?>> changes = new ArrayList<>();
+
+    private enum Kind { NEW, DIRTY, DELETED }
+
+    /**
+     * Undoes one change that was already written to a repository without a transaction.
+     */
+    @FunctionalInterface
+    private interface Compensation {
+        void undo() throws DatabaseException;
+    }
+
+    /**
+     * One registered change of one object in one repository.
+     */
+    private record Change<T extends HasID>(IRepo<T> repo, Kind kind, T obj, Integer id) {
+
+        /**
+         * Writes the change and, for a repository without a transaction, remembers how to undo it.
+         */
+        void apply(boolean transactional, List<Compensation> compensations) throws DatabaseException {
+            switch (kind) {
+                case NEW -> {
+                    boolean existed = !transactional && repo.exists(id);
+                    repo.add(obj);
+                    if (!transactional && !existed) {
+                        compensations.add(() -> repo.remove(id));
+                    }
+                }
+                case DIRTY -> {
+                    T before = transactional ? null : repo.get(id);
+                    repo.update(obj);
+                    if (before != null && before != obj) {
+                        compensations.add(() -> repo.update(before));
+                    }
+                }
+                case DELETED -> {
+                    T before = transactional ? null : repo.get(id);
+                    repo.remove(id);
+                    if (before != null) {
+                        compensations.add(() -> repo.add(before));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers an object to be added to a repository.
+     * @param repo  The repository the object is added to.
+     * @param obj   The new object.
+     * @return This unit of work.
+     */
+    public <T extends HasID> UnitOfWork registerNew(IRepo<T> repo, T obj) {
+        changes.add(new Change<>(repo, Kind.NEW, obj, obj.getId()));
+        return this;
+    }
+
+    /**
+     * Registers an object to be updated in a repository.
+     * @param repo  The repository the object is updated in.
+     * @param obj   The changed object.
+     * @return This unit of work.
+     */
+    public <T extends HasID> UnitOfWork registerDirty(IRepo<T> repo, T obj) {
+        changes.add(new Change<>(repo, Kind.DIRTY, obj, obj.getId()));
+        return this;
+    }
+
+    /**
+     * Registers an object to be removed from a repository.
+     * @param repo  The repository the object is removed from.
+     * @param id    The unique identifier of the object.
+     * @return This unit of work.
+     */
+    public <T extends HasID> UnitOfWork registerDeleted(IRepo<T> repo, Integer id) {
+        changes.add(new Change<>(repo, Kind.DELETED, null, id));
+        return this;
+    }
+
+    /**
+     * Writes every registered change, in the order they were registered.
+     * If one of them fails, the changes already written are rolled back and the unit of work is emptied.
+     * When the thread is already inside a transaction, the changes join it and are committed by its owner.
+     *
+     * @throws DatabaseException If a change can't be written.
+     */
+    public void commit() throws DatabaseException {
+        List<Connection> connections = new ArrayList<>();
+        List<Connection> transactions = new ArrayList<>();
+        List<Compensation> compensations = new ArrayList<>();
+        try {
+            for (ConnectionPool pool : connectionPools()) {
+                Connection connection = pool.getConnection();
+                connections.add(connection);
+                if (connection.getAutoCommit()) {
+                    connection.setAutoCommit(false);
+                    transactions.add(connection);
+                }
+            }
+            for (Change<?> change : changes) {
+                change.apply(databaseRepo(change.repo()) != null, compensations);
+            }
+            for (Connection connection : transactions) {
+                connection.commit();
+            }
+        } catch (SQLException | DatabaseException | RuntimeException e) {
+            for (Connection connection : transactions) {
+                try {
+                    connection.rollback();
+                } catch (SQLException ignored) {
+                }
+            }
+            for (int i = compensations.size() - 1; i >= 0; i--) {
+                try {
+                    compensations.get(i).undo();
+                } catch (DatabaseException | RuntimeException undoError) {
+                    LOGGER.log(Level.WARNING, "Error while undoing a change", undoError);
+                }
+            }
+            clearCaches();
+            if (e instanceof DatabaseException databaseException) {
+                throw databaseException;
+            }
+            throw new DatabaseException("DataBase Exception Error", e);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    if (transactions.contains(connection)) {
+                        connection.setAutoCommit(true);
+                    }
+                    connection.close();
+                } catch (SQLException ignored) {
+                }
+            }
+            changes.clear();
+        }
+    }
+
+    /**
+     * Drops the registered changes without writing them.
+     */
+    public void rollback() {
+        changes.clear();
+    }
+
+    /**
+     * Gets the connection pools of the database repositories that take part in this unit of work.
+     */
+    private Set<ConnectionPool> connectionPools() {
+        Set<ConnectionPool> pools = new LinkedHashSet<>();
+        for (Change<?> change : changes) {
+            DatabaseRepo<?> databaseRepo = databaseRepo(change.repo());
+            if (databaseRepo != null) {
+                pools.add(databaseRepo.connectionPool);
+            }
+        }
+        return pools;
+    }
+
+    /**
+     * The caches in front of the database hold the rolled back values, so they are emptied.
+     */
+    private void clearCaches() {
+        for (Change<?> change : changes) {
+            if (change.repo() instanceof CachingRepo<?> cachingRepo) {
+                cachingRepo.clear();
+            }
+        }
+    }
+
+    /**
+     * Finds the database repository behind a repository, looking through caches.
+     * @return The database repository, or null if the repository is not stored in a database.
+     */
+    private static DatabaseRepo<?> databaseRepo(IRepo<?> repo) {
+        while (repo instanceof CachingRepo<?> cachingRepo) {
+            repo = cachingRepo.getRepo();
+        }
+        return repo instanceof DatabaseRepo<?> databaseRepo ? databaseRepo : null;
+    }
+}
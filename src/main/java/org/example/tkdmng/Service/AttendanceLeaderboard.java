@@ -0,0 +1,110 @@
+package org.example.tkdmng.Service;
+
+import org.example.tkdmng.Model.Student;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Keeps the students ranked by their number of attendances, for the whole school and for every session.
+ * The rankings are sorted sets that are updated one student at a time when attendance is recorded,
+ * so the top K students are read in O(K) instead of sorting the whole roster.
+ * Only the id, name, session and attendance of a student are kept, never the student itself,
+ * so the rankings can be shown without reading the students again.
+ */
+public class AttendanceLeaderboard {
+
+    /**
+     * The place of one student in the rankings.
+     * @param studentId     The unique identifier of the student.
+     * @param name          The name of the student.
+     * @param lastName      The last name of the student.
+     * @param session       The session of the student.
+     * @param attendances   The number of sessions the student attended.
+     */
+    public record Rank(int studentId, String name, String lastName, int session, int attendances) {}
+
+    private static final Comparator<Rank> MOST_PRESENT_FIRST =
+            Comparator.comparingInt(Rank::attendances).reversed().thenComparingInt(Rank::studentId);
+
+    private final Map<Integer, Rank> ranks = new HashMap<>();
+    private final TreeSet<Rank> school = new TreeSet<>(MOST_PRESENT_FIRST);
+    private final Map<Integer, TreeSet<Rank>> sessions = new HashMap<>();
+
+    /**
+     * Adds a student to the rankings, or moves them after their attendance or session changed.
+     * @param student The student.
+     */
+    public synchronized void update(Student student) {
+        put(new Rank(student.getId(), student.getName(), student.getLastName(), student.getSession(), student.getAttendances()));
+    }
+
+    /**
+     * Counts one new session date of a student that is already ranked.
+     * @param studentId The unique identifier of the student.
+     * @param attended  true if the student was present.
+     */
+    public synchronized void recordAttendance(int studentId, boolean attended) {
+        Rank rank = ranks.get(studentId);
+        if (rank != null && attended) {
+            put(new Rank(studentId, rank.name(), rank.lastName(), rank.session(), rank.attendances() + 1));
+        }
+    }
+
+    /**
+     * Removes a student from the rankings.
+     * @param studentId The unique identifier of the student.
+     */
+    public synchronized void remove(int studentId) {
+        Rank rank = ranks.remove(studentId);
+        if (rank != null) {
+            school.remove(rank);
+            TreeSet<Rank> session = sessions.get(rank.session());
+            session.remove(rank);
+            if (session.isEmpty()) {
+                sessions.remove(rank.session());
+            }
+        }
+    }
+
+    /**
+     * Gets the students with the most attendances in the school.
+     * @param k The number of students, not negative.
+     * @return At most k ranks, the most present student first.
+     */
+    public synchronized List<Rank> top(int k) {
+        return first(school, k);
+    }
+
+    /**
+     * Gets the students with the most attendances in one session.
+     * @param sessionId The unique identifier of the session.
+     * @param k         The number of students, not negative.
+     * @return At most k ranks, the most present student first.
+     */
+    public synchronized List<Rank> top(int sessionId, int k) {
+        TreeSet<Rank> session = sessions.get(sessionId);
+        return session == null ? List.of() : first(session, k);
+    }
+
+    private void put(Rank rank) {
+        remove(rank.studentId());
+        ranks.put(rank.studentId(), rank);
+        school.add(rank);
+        sessions.computeIfAbsent(rank.session(), session -> new TreeSet<>(MOST_PRESENT_FIRST)).add(rank);
+    }
+
+    private static List<Rank> first(TreeSet<Rank> ranking, int k) {
+        List<Rank> top = new ArrayList<>(Math.min(k, ranking.size()));
+        Iterator<Rank> ranks = ranking.iterator();
+        while (top.size() < k && ranks.hasNext()) {
+            top.add(ranks.next());
+        }
+        return top;
+    }
+}
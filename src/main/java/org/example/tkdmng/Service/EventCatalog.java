@@ -0,0 +1,190 @@
+package org.example.tkdmng.Service;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.BeltExam;
+import org.example.tkdmng.Model.Contest;
+import org.example.tkdmng.Model.Event;
+import org.example.tkdmng.Model.EventSummary;
+import org.example.tkdmng.Model.TrainingCamp;
+import org.example.tkdmng.Repository.IEventSummaryRepo;
+import org.example.tkdmng.Repository.IRepo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of the contests, training camps and belt exams for one request.
+ * Every kind of event is read from its repository the first time it is needed and then kept,
+ * so the search, sort and budgeting features of one request share one read of every table.
+ * Features that only need ids, dates and prices read summaries, which repositories that implement
+ * IEventSummaryRepo load in one query without the participants of the events.
+ * A catalog is meant to be used by one thread and dropped at the end of the request.
+ */
+public class EventCatalog {
+    private final IRepo<Contest> contestRepo;
+    private final IRepo<TrainingCamp> trainingCampRepo;
+    private final IRepo<BeltExam> beltExamRepo;
+
+    private List<Contest> contests;
+    private List<TrainingCamp> trainingCamps;
+    private List<BeltExam> beltExams;
+    private List<Contest> contestsByStartDate;
+    private List<TrainingCamp> trainingCampsByStartDate;
+    private List<BeltExam> beltExamsByStartDate;
+    private final Map<EventSummary.Kind, List<EventSummary>> summaries = new EnumMap<>(EventSummary.Kind.class);
+
+    /**
+     * Constructs a new EventCatalog, nothing is read yet.
+     * @param contests          The repository for contests.
+     * @param trainingCamps     The repository for training camps.
+     * @param beltExams         The repository for belt exams.
+     */
+    public EventCatalog(IRepo<Contest> contests, IRepo<TrainingCamp> trainingCamps, IRepo<BeltExam> beltExams) {
+        this.contestRepo = contests;
+        this.trainingCampRepo = trainingCamps;
+        this.beltExamRepo = beltExams;
+    }
+
+    /**
+     * Gets all contests.
+     * @return The contests, read once.
+     * @throws DatabaseException    If error in database.
+     */
+    public List<Contest> getContests() throws DatabaseException {
+        if (contests == null) {
+            contests = List.copyOf(contestRepo.getAll());
+        }
+        return contests;
+    }
+
+    /**
+     * Gets all training camps.
+     * @return The training camps, read once.
+     * @throws DatabaseException    If error in database.
+     */
+    public List<TrainingCamp> getTrainingCamps() throws DatabaseException {
+        if (trainingCamps == null) {
+            trainingCamps = List.copyOf(trainingCampRepo.getAll());
+        }
+        return trainingCamps;
+    }
+
+    /**
+     * Gets all belt exams.
+     * @return The belt exams, read once.
+     * @throws DatabaseException    If error in database.
+     */
+    public List<BeltExam> getBeltExams() throws DatabaseException {
+        if (beltExams == null) {
+            beltExams = List.copyOf(beltExamRepo.getAll());
+        }
+        return beltExams;
+    }
+
+    /**
+     * Gets the contests ordered by start date.
+     * @return The sorted contests.
+     * @throws DatabaseException    If error in database.
+     */
+    public List<Contest> getContestsByStartDate() throws DatabaseException {
+        if (contestsByStartDate == null) {
+            contestsByStartDate = byStartDate(getContests());
+        }
+        return contestsByStartDate;
+    }
+
+    /**
+     * Gets the training camps ordered by start date.
+     * @return The sorted training camps.
+     * @throws DatabaseException    If error in database.
+     */
+    public List<TrainingCamp> getTrainingCampsByStartDate() throws DatabaseException {
+        if (trainingCampsByStartDate == null) {
+            trainingCampsByStartDate = byStartDate(getTrainingCamps());
+        }
+        return trainingCampsByStartDate;
+    }
+
+    /**
+     * Gets the belt exams ordered by start date.
+     * @return The sorted belt exams.
+     * @throws DatabaseException    If error in database.
+     */
+    public List<BeltExam> getBeltExamsByStartDate() throws DatabaseException {
+        if (beltExamsByStartDate == null) {
+            beltExamsByStartDate = byStartDate(getBeltExams());
+        }
+        return beltExamsByStartDate;
+    }
+
+    /**
+     * Gets the id, dates and price of every event of one kind. If the events were already loaded,
+     * the summaries are taken from them, otherwise they are read without the participants when the repository can.
+     * @param kind  The kind of events.
+     * @return The summaries of the events, read once.
+     * @throws DatabaseException    If error in database.
+     */
+    public List<EventSummary> getSummaries(EventSummary.Kind kind) throws DatabaseException {
+        List<EventSummary> loaded = summaries.get(kind);
+        if (loaded == null) {
+            loaded = List.copyOf(loadSummaries(kind));
+            summaries.put(kind, loaded);
+        }
+        return loaded;
+    }
+
+    private List<EventSummary> loadSummaries(EventSummary.Kind kind) throws DatabaseException {
+        IRepo<? extends Event> repo = switch (kind) {
+            case CONTEST -> contests == null ? contestRepo : null;
+            case TRAINING_CAMP -> trainingCamps == null ? trainingCampRepo : null;
+            case BELT_EXAM -> beltExams == null ? beltExamRepo : null;
+        };
+        if (repo instanceof IEventSummaryRepo summaryRepo) {
+            return summaryRepo.getSummaries();
+        }
+        List<? extends Event> events = switch (kind) {
+            case CONTEST -> getContests();
+            case TRAINING_CAMP -> getTrainingCamps();
+            case BELT_EXAM -> getBeltExams();
+        };
+        List<EventSummary> summaries = new ArrayList<>(events.size());
+        for (Event event : events) {
+            summaries.add(EventSummary.of(kind, event));
+        }
+        return summaries;
+    }
+
+    /**
+     * Gets the events a student can pay to attend, the contests and the training camps.
+     * @return The summaries of the contests and training camps.
+     * @throws DatabaseException    If error in database.
+     */
+    public List<EventSummary> getBudgetEvents() throws DatabaseException {
+        List<EventSummary> events = new ArrayList<>(getSummaries(EventSummary.Kind.CONTEST));
+        events.addAll(getSummaries(EventSummary.Kind.TRAINING_CAMP));
+        return events;
+    }
+
+    /**
+     * Sorts events by start date. The start day, read when the event was loaded, goes in the high half of a key
+     * and the position of the event in the low half, so the keys are sorted as primitives.
+     * @param events    The events.
+     * @return The events ordered by start date, events on the same day keep their order
+     *         and events without a valid start date come first.
+     */
+    static <T extends Event> List<T> byStartDate(List<T> events) {
+        long[] keys = new long[events.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) events.get(i).getStartDay() << 32) | i;
+        }
+        Arrays.sort(keys);
+        List<T> sorted = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            sorted.add(events.get((int) key));
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,421 @@
+package org.example.tkdmng.Service;
+
+import org.example.tkdmng.Model.EventSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Plans which events (contests and training camps) fit in a budget. Every event is chosen at most once
+ * and prices are compared in integer cents, so no plan is lost to rounding.
+ * Counting and ranking plans use dynamic programming over the budget, in steps of the greatest common divisor
+ * of the prices, so their cost grows with the number of events times the budget instead of exponentially.
+ */
+public class EventPlanner {
+    public static final int MAX_BUDGET_STEPS = 5_000_000;
+    public static final int SPLIT_DEPTH = 3;
+    public static final int BATCH_SIZE = 64;
+
+    private final List<EventSummary> events;
+    private final long[] prices;
+    private final double[] values;
+
+    /**
+     * A set of events that fits in the budget.
+     * @param events    The chosen events.
+     * @param costCents The total price, in cents.
+     * @param value     The total value of the events.
+     */
+    public record Plan(List<EventSummary> events, long costCents, double value) {
+
+        /**
+         * Gets the total price of the plan.
+         * @return The total price.
+         */
+        public double cost() {
+            return costCents / 100.0;
+        }
+    }
+
+    /**
+     * The events chosen so far, as a list shared by the plans that extend it.
+     */
+    private record Chosen(int event, Chosen previous) {}
+
+    /**
+     * A plan while it is built: its value and its events.
+     */
+    private record Partial(double value, Chosen chosen) {}
+
+    /**
+     * Constructs a new EventPlanner.
+     * @param events    The events that can be chosen.
+     * @param value     The value of one event, the value of a plan is the sum of the values of its events.
+     */
+    public EventPlanner(List<EventSummary> events, ToDoubleFunction<EventSummary> value) {
+        this.events = List.copyOf(events);
+        this.prices = new long[events.size()];
+        this.values = new double[events.size()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = toCents(this.events.get(i).price());
+            if (prices[i] < 0) {
+                throw new IllegalArgumentException("The price of event " + this.events.get(i).id() + " is negative");
+            }
+            values[i] = value.applyAsDouble(this.events.get(i));
+        }
+    }
+
+    /**
+     * Converts an amount of money to cents.
+     * @param amount The amount of money.
+     * @return The amount in cents, rounded to the nearest cent.
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Counts the non-empty sets of events whose total price is at most the budget.
+     * @param budgetCents The budget, in cents.
+     * @return The number of plans, or Long.MAX_VALUE if there are more.
+     */
+    public long countPlans(long budgetCents) {
+        long step = priceStep();
+        int capacity = capacity(budgetCents, step);
+        if (capacity < 0) {
+            return 0;
+        }
+        long[] plansByCost = new long[capacity + 1];
+        plansByCost[0] = 1;
+        for (long price : prices) {
+            int weight = (int) (price / step);
+            if (weight > capacity) {
+                continue;
+            }
+            for (int c = capacity; c >= weight; c--) {
+                plansByCost[c] = saturatedAdd(plansByCost[c], plansByCost[c - weight]);
+            }
+        }
+        long plans = -1;
+        for (long count : plansByCost) {
+            plans = saturatedAdd(plans, count);
+        }
+        return plans;
+    }
+
+    /**
+     * Lists the non-empty sets of events whose total price is at most the budget, up to a number of plans.
+     * The events are tried from the cheapest, so a branch stops at the first event that doesn't fit anymore.
+     * @param budgetCents   The budget, in cents.
+     * @param maxPlans      The largest number of plans returned.
+     * @return At most maxPlans plans.
+     */
+    public List<Plan> enumeratePlans(long budgetCents, int maxPlans) {
+        List<Plan> plans = new ArrayList<>();
+        enumerate(cheapestFirst(), 0, budgetCents, null, maxPlans, plans);
+        return plans;
+    }
+
+    private Integer[] cheapestFirst() {
+        Integer[] cheapestFirst = new Integer[prices.length];
+        for (int i = 0; i < cheapestFirst.length; i++) {
+            cheapestFirst[i] = i;
+        }
+        Arrays.sort(cheapestFirst, Comparator.comparingLong(i -> prices[i]));
+        return cheapestFirst;
+    }
+
+    private void enumerate(Integer[] order, int start, long remaining, Chosen chosen, int maxPlans, List<Plan> plans) {
+        for (int i = start; i < order.length && plans.size() < maxPlans; i++) {
+            int event = order[i];
+            if (prices[event] > remaining) {
+                return;
+            }
+            Chosen extended = new Chosen(event, chosen);
+            plans.add(toPlan(extended));
+            enumerate(order, i + 1, remaining - prices[event], extended, maxPlans, plans);
+        }
+    }
+
+    /**
+     * Lists the non-empty sets of events whose total price is at most the budget on the common fork/join pool.
+     * The search tree is split on the first SPLIT_DEPTH chosen events; every task keeps its own buffer and hands it
+     * to the sink every BATCH_SIZE plans, so results arrive while the search runs.
+     * The search stops when maxPlans plans were found or when it is cancelled.
+     * @param budgetCents   The budget, in cents.
+     * @param maxPlans      The largest number of plans found.
+     * @param sink          Receives the plans in batches, from several threads at once, so it must be thread-safe.
+     * @return The running search.
+     */
+    public PlanSearch searchInParallel(long budgetCents, int maxPlans, Consumer<List<Plan>> sink) {
+        PlanSearch search = new PlanSearch(maxPlans, sink);
+        Integer[] cheapestFirst = cheapestFirst();
+        search.task = ForkJoinPool.commonPool().submit(new SearchTask(search, cheapestFirst, 0, budgetCents, null, 0));
+        return search;
+    }
+
+    /**
+     * A budget search running on the fork/join pool.
+     */
+    public static final class PlanSearch {
+        private final int maxPlans;
+        private final Consumer<List<Plan>> sink;
+        private final AtomicInteger found = new AtomicInteger();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private ForkJoinTask<?> task;
+
+        private PlanSearch(int maxPlans, Consumer<List<Plan>> sink) {
+            this.maxPlans = maxPlans;
+            this.sink = sink;
+        }
+
+        /**
+         * Asks the search to stop. The tasks stop at their next step and hand over the plans they already found.
+         */
+        public void cancel() {
+            cancelled.set(true);
+        }
+
+        /**
+         * Checks if the search was cancelled.
+         * @return true if cancel() was called.
+         */
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        /**
+         * Waits until every task of the search finished and handed over its plans.
+         * @return The number of plans found.
+         */
+        public int await() {
+            task.join();
+            return found();
+        }
+
+        /**
+         * Gets the number of plans found so far.
+         * @return The number of plans.
+         */
+        public int found() {
+            return Math.min(found.get(), maxPlans);
+        }
+
+        private boolean stopped() {
+            return cancelled.get() || found.get() >= maxPlans;
+        }
+
+        /**
+         * Reserves a place for one more plan.
+         * @return false if the search already found maxPlans plans.
+         */
+        private boolean reserve() {
+            return found.getAndIncrement() < maxPlans;
+        }
+    }
+
+    /**
+     * Searches the plans that extend a set of chosen events with events from a position of the cheapest-first order.
+     * Near the root, every choice of the next event becomes its own task.
+     */
+    private final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PlanSearch search;
+        private final Integer[] order;
+        private final int start;
+        private final long remaining;
+        private final Chosen chosen;
+        private final int depth;
+        private List<Plan> buffer = new ArrayList<>();
+
+        SearchTask(PlanSearch search, Integer[] order, int start, long remaining, Chosen chosen, int depth) {
+            this.search = search;
+            this.order = order;
+            this.start = start;
+            this.remaining = remaining;
+            this.chosen = chosen;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth < SPLIT_DEPTH) {
+                List<SearchTask> subtasks = new ArrayList<>();
+                for (int i = start; i < order.length && !search.stopped(); i++) {
+                    int event = order[i];
+                    if (prices[event] > remaining) {
+                        break;
+                    }
+                    Chosen extended = new Chosen(event, chosen);
+                    if (!found(extended)) {
+                        break;
+                    }
+                    subtasks.add(new SearchTask(search, order, i + 1, remaining - prices[event], extended, depth + 1));
+                }
+                flush();
+                invokeAll(subtasks);
+            } else {
+                walk(start, remaining, chosen);
+                flush();
+            }
+        }
+
+        private void walk(int from, long left, Chosen prefix) {
+            for (int i = from; i < order.length && !search.stopped(); i++) {
+                int event = order[i];
+                if (prices[event] > left) {
+                    return;
+                }
+                Chosen extended = new Chosen(event, prefix);
+                if (!found(extended)) {
+                    return;
+                }
+                walk(i + 1, left - prices[event], extended);
+            }
+        }
+
+        private boolean found(Chosen plan) {
+            if (!search.reserve()) {
+                return false;
+            }
+            buffer.add(toPlan(plan));
+            if (buffer.size() == BATCH_SIZE) {
+                flush();
+            }
+            return true;
+        }
+
+        private void flush() {
+            if (!buffer.isEmpty()) {
+                search.sink.accept(buffer);
+                buffer = new ArrayList<>();
+            }
+        }
+    }
+
+    /**
+     * Finds the sets of events with the highest value whose total price is at most the budget.
+     * For every budget step, the best n partial plans are kept while the events are added one at a time.
+     * @param budgetCents   The budget, in cents.
+     * @param n             The number of plans.
+     * @return At most n non-empty plans, the most valuable first.
+     */
+    public List<Plan> topPlans(long budgetCents, int n) {
+        if (n < 1) {
+            return List.of();
+        }
+        int kept = n + 1;   // the empty plan is kept too, so it can't push out a real one
+        long step = priceStep();
+        int capacity = capacity(budgetCents, step);
+        if (capacity < 0) {
+            return List.of();
+        }
+        Partial[][] best = new Partial[capacity + 1][];
+        Arrays.fill(best, new Partial[]{new Partial(0, null)});
+        for (int event = 0; event < prices.length; event++) {
+            int weight = (int) (prices[event] / step);
+            if (weight > capacity) {
+                continue;
+            }
+            for (int c = capacity; c >= weight; c--) {
+                best[c] = merge(best[c], best[c - weight], event, kept);
+            }
+        }
+        List<Plan> plans = new ArrayList<>(n);
+        for (Partial partial : best[capacity]) {
+            if (partial.chosen() != null && plans.size() < n) {
+                plans.add(toPlan(partial.chosen()));
+            }
+        }
+        return plans;
+    }
+
+    /**
+     * Merges the best plans without an event and the best plans that leave room for it, with the event added,
+     * keeping the best ones. Both arrays are sorted best first, so the merge is linear.
+     */
+    private Partial[] merge(Partial[] withoutEvent, Partial[] withRoom, int event, int kept) {
+        Partial[] merged = new Partial[Math.min(kept, withoutEvent.length + withRoom.length)];
+        int a = 0;
+        int b = 0;
+        for (int m = 0; m < merged.length; m++) {
+            boolean takeWithout = b == withRoom.length
+                    || (a < withoutEvent.length && withoutEvent[a].value() >= withRoom[b].value() + values[event]);
+            if (takeWithout) {
+                merged[m] = withoutEvent[a++];
+            } else {
+                merged[m] = new Partial(withRoom[b].value() + values[event], new Chosen(event, withRoom[b].chosen()));
+                b++;
+            }
+        }
+        return merged;
+    }
+
+    private Plan toPlan(Chosen chosen) {
+        List<EventSummary> planned = new ArrayList<>();
+        long cost = 0;
+        double value = 0;
+        for (Chosen c = chosen; c != null; c = c.previous()) {
+            planned.add(events.get(c.event()));
+            cost += prices[c.event()];
+            value += values[c.event()];
+        }
+        Collections.reverse(planned);
+        return new Plan(planned, cost, value);
+    }
+
+    /**
+     * Gets the greatest common divisor of the prices, every total price is a multiple of it.
+     */
+    private long priceStep() {
+        long step = 0;
+        for (long price : prices) {
+            step = gcd(step, price);
+        }
+        return step == 0 ? 1 : step;
+    }
+
+    /**
+     * Gets the number of budget steps the dynamic programming needs, -1 for a negative budget.
+     * A budget above the price of all events is cut to that price, as no plan can cost more.
+     */
+    private int capacity(long budgetCents, long step) {
+        if (budgetCents < 0) {
+            return -1;
+        }
+        long total = 0;
+        for (long price : prices) {
+            total = saturatedAdd(total, price);
+        }
+        long steps = Math.min(budgetCents, total) / step;
+        if (steps > MAX_BUDGET_STEPS) {
+            throw new IllegalArgumentException("The budget is too large for the prices of the events");
+        }
+        return (int) steps;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+}
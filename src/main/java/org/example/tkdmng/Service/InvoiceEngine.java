@@ -0,0 +1,167 @@
+package org.example.tkdmng.Service;
+
+import org.example.tkdmng.Exceptions.BusinessLogicException;
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Exceptions.EntityNotFoundException;
+import org.example.tkdmng.Exceptions.UncheckedDatabaseException;
+import org.example.tkdmng.Model.Parent;
+import org.example.tkdmng.Model.Session;
+import org.example.tkdmng.Model.Student;
+import org.example.tkdmng.Repository.IRepo;
+
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Generates the monthly invoices of the parents. Attendance is read from the per-month counters of the students,
+ * so the same month of another year is never billed, and every session price is looked up once per invoice or billing run.
+ * Month-end billing reads the students and the sessions once, then writes the invoices of all parents in parallel
+ * from memory, without going back to the repositories.
+ */
+public class InvoiceEngine {
+    private final IRepo<Parent> parents;
+    private final IRepo<Student> students;
+    private final IRepo<Session> sessions;
+
+    /**
+     * The invoice of one parent for one month.
+     * @param parentId  The unique identifier of the parent.
+     * @param month     The billed month.
+     * @param total     The amount to pay.
+     * @param text      The printable invoice.
+     */
+    public record Invoice(int parentId, YearMonth month, double total, String text) {}
+
+    /**
+     * What the invoice of a parent needs to know about one child.
+     */
+    private record ChildLine(String name, String lastName, int presences, double pricePerSession) {
+        double total() {
+            return presences * pricePerSession;
+        }
+    }
+
+    /**
+     * Constructs a new InvoiceEngine.
+     * @param parents   The repository for parents.
+     * @param students  The repository for students.
+     * @param sessions  The repository for sessions.
+     */
+    public InvoiceEngine(IRepo<Parent> parents, IRepo<Student> students, IRepo<Session> sessions) {
+        this.parents = parents;
+        this.students = students;
+        this.sessions = sessions;
+    }
+
+    /**
+     * Reads a month given as yyyy-MM, or as a month number of the current year.
+     * @param month The month, like 2025-05, 05 or 5.
+     * @return The month.
+     * @throws BusinessLogicException If the month can't be read.
+     */
+    public static YearMonth parseMonth(String month) throws BusinessLogicException {
+        try {
+            if (month.contains("-")) {
+                return YearMonth.parse(month.trim());
+            }
+            return Year.now().atMonth(Integer.parseInt(month.trim()));
+        } catch (RuntimeException e) {
+            throw new BusinessLogicException("Invalid month: " + month);
+        }
+    }
+
+    /**
+     * Generates the invoice of one parent for one month. The children and their sessions are each read in one call.
+     * @param parentId  The unique identifier of the parent.
+     * @param month     The billed month.
+     * @return The invoice.
+     * @throws EntityNotFoundException or DatabaseException  If the parent or one of the children was not found.
+     * @throws BusinessLogicException   If none of the children was present in that month.
+     */
+    public Invoice generate(int parentId, YearMonth month) throws EntityNotFoundException, DatabaseException, BusinessLogicException {
+        Parent parent = parents.get(parentId);
+        if (parent == null) {
+            throw new EntityNotFoundException("No parent with this ID found");
+        }
+        List<Student> parentStudents = students.getAll(parent.getChildren());
+        if (parentStudents.size() < new HashSet<>(parent.getChildren()).size()) {
+            throw new EntityNotFoundException("No student with this ID found");
+        }
+        Set<Integer> sessionIds = new HashSet<>();
+        for (Student student : parentStudents) {
+            sessionIds.add(student.getSession());
+        }
+        Map<Integer, Double> prices = new HashMap<>();
+        for (Session session : sessions.getAll(sessionIds)) {
+            prices.put(session.getId(), session.getPricePerSession());
+        }
+        Map<Integer, ChildLine> children = new HashMap<>();
+        for (Student student : parentStudents) {
+            children.put(student.getId(), new ChildLine(student.getName(), student.getLastName(),
+                    student.getAttendances(month), prices.getOrDefault(student.getSession(), 0.0)));
+        }
+        Invoice invoice = write(parent, month, children);
+        if (invoice.total() == 0) {
+            throw new BusinessLogicException("None of the children/s of the parent has been present to class in the " + month);
+        }
+        return invoice;
+    }
+
+    /**
+     * Runs the month-end billing of every parent. The students and sessions are read once, only the students
+     * that were present in the month are kept, and the invoices are then written in parallel.
+     * Parents whose children were never present in the month get no invoice.
+     * The stream must be closed, for example with try-with-resources.
+     * @param month The billed month.
+     * @return The invoices, in no particular order.
+     * @throws DatabaseException    If error in database.
+     */
+    public Stream<Invoice> billMonth(YearMonth month) throws DatabaseException {
+        Map<Integer, Double> prices = new HashMap<>();
+        try (Stream<Session> all = sessions.stream()) {
+            all.forEach(session -> prices.put(session.getId(), session.getPricePerSession()));
+        } catch (UncheckedDatabaseException e) {
+            throw e.getCause();
+        }
+        Map<Integer, ChildLine> children = new HashMap<>();
+        try (Stream<Student> all = students.stream()) {
+            all.filter(student -> student.getAttendances(month) > 0)
+                    .forEach(student -> children.put(student.getId(), new ChildLine(student.getName(), student.getLastName(),
+                            student.getAttendances(month), prices.getOrDefault(student.getSession(), 0.0))));
+        } catch (UncheckedDatabaseException e) {
+            throw e.getCause();
+        }
+        List<Parent> allParents = parents.getAll();
+        return allParents.parallelStream()
+                .map(parent -> write(parent, month, children))
+                .filter(invoice -> invoice.total() > 0);
+    }
+
+    /**
+     * Writes the invoice of a parent from the lines of their children. Children that are not known are left out.
+     */
+    private static Invoice write(Parent parent, YearMonth month, Map<Integer, ChildLine> children) {
+        StringBuilder text = new StringBuilder()
+                .append("Invoice for the month ").append(month)
+                .append("\nParent name: ").append(parent.getLastName()).append(' ').append(parent.getName()).append('\n');
+        double total = 0;
+        for (int studentId : parent.getChildren()) {
+            ChildLine child = children.get(studentId);
+            if (child == null) {
+                continue;
+            }
+            double individualTotal = child.total();
+            total += individualTotal;
+            text.append("Student name: ").append(child.lastName()).append(' ').append(child.name())
+                    .append("\n Total for student: ").append(individualTotal).append('\n');
+        }
+        text.append("Total: ").append(total).append('\n');
+        return new Invoice(parent.getId(), month, total, text.toString());
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.tkdmng.Service;
+
+import org.example.tkdmng.Exceptions.ServiceNotReadyException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the service chosen at startup, so the web endpoints use the same repositories as the console.
+ * The repositories are only chosen after Spring has started, so the service is set later.
+ */
+@Component
+public class TKDServiceHolder {
+    private volatile TKD_Service tkdService;
+
+    /**
+     * Sets the service used by the web endpoints.
+     * @param tkdService The service.
+     */
+    public void setTkdService(TKD_Service tkdService) {
+        this.tkdService = tkdService;
+    }
+
+    /**
+     * Gets the service used by the web endpoints.
+     * @return The service.
+     * @throws ServiceNotReadyException If no repository was chosen yet.
+     */
+    public TKD_Service getTkdService() {
+        TKD_Service service = tkdService;
+        if (service == null) {
+            throw new ServiceNotReadyException("No repository was chosen yet");
+        }
+        return service;
+    }
+}
@@ -3,9 +3,16 @@ package org.example.tkdmng.Service;
 import org.example.tkdmng.Exceptions.BusinessLogicException;
 import org.example.tkdmng.Exceptions.DatabaseException;
 import org.example.tkdmng.Exceptions.EntityNotFoundException;
+import org.example.tkdmng.Exceptions.UncheckedDatabaseException;
 import org.example.tkdmng.Model.*;
 import org.example.tkdmng.Repository.DatabaseRepo;
+import org.example.tkdmng.Repository.IIndexedRepo;
+import org.example.tkdmng.Repository.IAttendanceRepo;
 import org.example.tkdmng.Repository.IRepo;
+import org.example.tkdmng.Repository.IdAllocator;
+import org.example.tkdmng.Repository.IdAllocatorFactory;
+import org.example.tkdmng.Repository.InMemoryIdAllocator;
+import org.example.tkdmng.Repository.UnitOfWork;
 import org.example.tkdmng.Repository.InMemoryRepo;
 import org.example.tkdmng.Repository.InMemoryRepo;
 
@@ -13,11 +20,17 @@ import javax.xml.crypto.Data;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A service class that provides the business logic for the TKD-Management system.
+ * The console and the web endpoints share one service, so the repositories it is given must be safe to use
+ * from several threads; the ones that are not thread-safe are wrapped in a {@link org.example.tkdmng.Repository.SynchronizedRepo}.
  */
 public class TKD_Service {
 
@@ -35,8 +48,36 @@ public class TKD_Service {
 
     private IRepo<BeltExam> beltExams;
 
+    public static final String STUDENTS_BY_BELT = "beltLevel";
+
+    public static final String STUDENTS_BY_SESSION = "session";
+
+    public static final String PARENTS_BY_EMAIL = "email";
+
+    public static final int PARALLEL_SORT_THRESHOLD = 10_000;
+
+    public static final int MAX_EVENT_PLANS = 1_000;
+
+    private IdAllocator studentIds;
+
+    private IdAllocator trainerIds;
+
+    private IdAllocator parentIds;
+
+    private IdAllocator sessionIds;
+
+    private IdAllocator contestIds;
+
+    private IdAllocator trainingCampIds;
+
+    private IdAllocator beltExamIds;
+
+    private volatile AttendanceLeaderboard leaderboard;
+
+    private final InvoiceEngine invoiceEngine;
+
     /**
-     * Constructs a new TKD_Service with the given repositories.
+     * Constructs a new TKD_Service with the given repositories, whose ids are allocated in memory.
      * @param students          The repository for students.
      * @param trainers          The repository for trainers.
      * @param parent            The repository for parents.
@@ -46,6 +87,21 @@ public class TKD_Service {
      * @param beltExams         The repository for belt exams.
      */
     public TKD_Service(IRepo<Student> students, IRepo<Trainer> trainers, IRepo<Parent> parent, IRepo<Session> sessions, IRepo<Contest> contests, IRepo<TrainingCamp> trainingCamps, IRepo<BeltExam> beltExams) {
+        this(students, trainers, parent, sessions, contests, trainingCamps, beltExams, (entityName, repo) -> new InMemoryIdAllocator(repo));
+    }
+
+    /**
+     * Constructs a new TKD_Service with the given repositories.
+     * @param students          The repository for students.
+     * @param trainers          The repository for trainers.
+     * @param parent            The repository for parents.
+     * @param sessions          The repository for sessions.
+     * @param contests          The repository for contests.
+     * @param trainingCamps     The repository for training camps.
+     * @param beltExams         The repository for belt exams.
+     * @param idAllocators      Creates the id allocator of every repository.
+     */
+    public TKD_Service(IRepo<Student> students, IRepo<Trainer> trainers, IRepo<Parent> parent, IRepo<Session> sessions, IRepo<Contest> contests, IRepo<TrainingCamp> trainingCamps, IRepo<BeltExam> beltExams, IdAllocatorFactory idAllocators) {
         this.students = students;
         this.trainers = trainers;
         this.parents = parent;
@@ -53,6 +109,89 @@ public class TKD_Service {
         this.contests = contests;
         this.trainingCamps = trainingCamps;
         this.beltExams = beltExams;
+        this.studentIds = idAllocators.create("students", students);
+        this.trainerIds = idAllocators.create("trainers", trainers);
+        this.parentIds = idAllocators.create("parents", parent);
+        this.sessionIds = idAllocators.create("sessions", sessions);
+        this.contestIds = idAllocators.create("contests", contests);
+        this.trainingCampIds = idAllocators.create("trainingCamps", trainingCamps);
+        this.beltExamIds = idAllocators.create("beltExams", beltExams);
+        this.invoiceEngine = new InvoiceEngine(parent, students, sessions);
+        if (students instanceof IIndexedRepo<Student> indexedStudents) {
+            indexedStudents.addIndex(STUDENTS_BY_BELT, Student::getBeltLevel);
+            indexedStudents.addIndex(STUDENTS_BY_SESSION, Student::getSession);
+        }
+        if (parent instanceof IIndexedRepo<Parent> indexedParents) {
+            indexedParents.addIndex(PARENTS_BY_EMAIL, Parent::getEmail);
+        }
+    }
+
+    /**
+     * Finds the objects of a repository whose property has a given value, with the repository's index if it has one
+     * and with a scan of all the objects otherwise.
+     * @param repo          The repository that is searched.
+     * @param indexName     The name of the index on the property.
+     * @param key           The value of the property.
+     * @param keyExtractor  Gets the property of an object, used for the scan.
+     * @return The matching objects.
+     * @throws DatabaseException    If error in database.
+     */
+    private static <T extends HasID, K> List<T> findBy(IRepo<T> repo, String indexName, K key, Function<T, K> keyExtractor) throws DatabaseException {
+        if (repo instanceof IIndexedRepo<T> indexedRepo && indexedRepo.hasIndex(indexName)) {
+            return indexedRepo.findBy(indexName, key);
+        }
+        try (Stream<T> all = repo.stream()) {
+            return all.filter(obj -> Objects.equals(keyExtractor.apply(obj), key)).toList();
+        } catch (UncheckedDatabaseException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Gets the attendance leaderboard, which is built from all the students the first time it is needed
+     * and then kept up to date by the operations of this service.
+     * @return The attendance leaderboard.
+     * @throws DatabaseException    If error in database.
+     */
+    private AttendanceLeaderboard leaderboard() throws DatabaseException {
+        AttendanceLeaderboard current = leaderboard;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (leaderboard == null) {
+                AttendanceLeaderboard built = new AttendanceLeaderboard();
+                try (Stream<Student> all = students.stream()) {
+                    all.forEach(built::update);
+                } catch (UncheckedDatabaseException e) {
+                    throw e.getCause();
+                }
+                leaderboard = built;
+            }
+            return leaderboard;
+        }
+    }
+
+    /**
+     * Moves a student in the attendance leaderboard, if it was built already.
+     * @param student The changed student.
+     */
+    private void updateLeaderboard(Student student) {
+        AttendanceLeaderboard current = leaderboard;
+        if (current != null) {
+            current.update(student);
+        }
+    }
+
+    /**
+     * Removes a student from the attendance leaderboard, if it was built already.
+     * @param studentId The unique identifier of the removed student.
+     */
+    private void removeFromLeaderboard(int studentId) {
+        AttendanceLeaderboard current = leaderboard;
+        if (current != null) {
+            current.remove(studentId);
+        }
     }
 
 
@@ -87,7 +226,6 @@ public class TKD_Service {
         } catch (DatabaseException e) {
             throw e;
         }
-
     }
 
     /**
@@ -136,6 +274,7 @@ public class TKD_Service {
         } catch (DatabaseException e) {
             throw e;
         }
+        updateLeaderboard(st);
         try {
             sessions.update(new_ss);
         } catch (DatabaseException e) {
@@ -186,92 +325,123 @@ public class TKD_Service {
         }
 
         Map<String,Integer> attendencesAbsences= new HashMap<>();
-        attendencesAbsences.put("Attendences",0);
-        attendencesAbsences.put("Absences",0);
+        attendencesAbsences.put("Attendences",st.getAttendances());
+        attendencesAbsences.put("Absences",st.getAbsences());
+        return attendencesAbsences;
+    }
 
-        for(SessionDate sd: st.getSessionDateList()){
-            if(sd.isAttended()){
-                int count = attendencesAbsences.get("Attendences");
+    /**
+     * Loads a snapshot of the contests, training camps and belt exams. Every kind of event is read once,
+     * the first time the snapshot needs it, so one request can share it between searching, sorting and budgeting.
+     * @return the event catalog
+     */
+    public EventCatalog loadEventCatalog() {
+        return new EventCatalog(contests, trainingCamps, beltExams);
+    }
 
-                attendencesAbsences.put("Attendences",count+1);
-            }
-            else{
-                int count = attendencesAbsences.get("Absences");
-                attendencesAbsences.put("Absences",count+1);
-            }
-        }
-        return attendencesAbsences;
+    /**
+     * Builds a planner over the contests and training camps of a catalog, where a plan is worth the money it uses.
+     * @param catalog   the event catalog
+     * @return the event planner
+     * @throws DatabaseException    If error in database.
+     */
+    private EventPlanner eventPlanner(EventCatalog catalog) throws DatabaseException {
+        return new EventPlanner(catalog.getBudgetEvents(), EventSummary::price);
     }
 
     /**
-     * this is a backtrcking function that find evry possible combination between Contests and TrainingCamps
-     * @param eventPairs            a list with information that holds all Contest/TrainingCamp and their prices
-     * @param remainingAmount       the amount of money after one Contest/TrainingCamp has been chosen
-     * @param start                 starting point where the function start to search
-     * @param currentCombination    the combination on every search
-     * @param results               this is a parameter where all combinations will be found
+     * it takes the amount of money given by controller and returns the combinations of events that fit in it,
+     * every event at most once, up to MAX_EVENT_PLANS combinations
+     * @param amountOfMoney     the range that it's forbidden to be exceeded
+     * @return                  a list of lists with the ids of the events of every combination
+     * @throws BusinessLogicException       If no event with max the amount of money was found
+     * @throws EntityNotFoundException or DatabaseException     If no contest or training camp was found.
      */
-    private void findCombinations(List<Map.Entry<Integer, Double>> eventPairs, double remainingAmount,int start, List<Integer> currentCombination, List<List<Integer>> results) {
-        if (remainingAmount == 0) {
-            results.add(new ArrayList<>(currentCombination));
-            return;
+    public List<List<Integer>> eventsThatdontExceedAmountOfMoney(double amountOfMoney) throws DatabaseException, EntityNotFoundException, BusinessLogicException {
+        List<List<Integer>> results = new ArrayList<>();
+        for (EventPlanner.Plan plan : eventPlanner(loadEventCatalog()).enumeratePlans(EventPlanner.toCents(amountOfMoney), MAX_EVENT_PLANS)) {
+            results.add(plan.events().stream().map(EventSummary::id).toList());
+        }
+        if (results.isEmpty()) {
+            throw new BusinessLogicException("No event that has at least " + amountOfMoney + " money was found");
         }
+        return results;
+    }
 
-        for (int i = start; i < eventPairs.size(); i++) {
-            Map.Entry<Integer, Double> event = eventPairs.get(i);
-            if (event.getValue() > remainingAmount) continue;
+    /**
+     * Searches the combinations of events that don't exceed an amount of money on the common fork/join pool,
+     * handing them to a sink in batches while the search runs.
+     * @param amountOfMoney     the range that it's forbidden to be exceeded
+     * @param maxPlans          the largest number of combinations found
+     * @param sink              receives the combinations from several threads, so it must be thread-safe
+     * @return                  the running search, which can be cancelled or awaited
+     * @throws DatabaseException    If error in database.
+     */
+    public EventPlanner.PlanSearch searchEventPlans(double amountOfMoney, int maxPlans, Consumer<List<EventPlanner.Plan>> sink) throws DatabaseException {
+        return searchEventPlans(loadEventCatalog(), amountOfMoney, maxPlans, sink);
+    }
 
-            currentCombination.add(event.getKey());
-            findCombinations(eventPairs, remainingAmount - event.getValue(), i, currentCombination, results);
-            currentCombination.remove(currentCombination.size() - 1);
-        }
+    /**
+     * Searches the combinations of the events of a catalog that don't exceed an amount of money.
+     * @param catalog           the event catalog
+     * @param amountOfMoney     the range that it's forbidden to be exceeded
+     * @param maxPlans          the largest number of combinations found
+     * @param sink              receives the combinations from several threads, so it must be thread-safe
+     * @return                  the running search, which can be cancelled or awaited
+     * @throws DatabaseException    If error in database.
+     */
+    public EventPlanner.PlanSearch searchEventPlans(EventCatalog catalog, double amountOfMoney, int maxPlans, Consumer<List<EventPlanner.Plan>> sink) throws DatabaseException {
+        return eventPlanner(catalog).searchInParallel(EventPlanner.toCents(amountOfMoney), maxPlans, sink);
     }
 
+    /**
+     * Counts the combinations of events, every event at most once, that don't exceed an amount of money.
+     * @param amountOfMoney     the range that it's forbidden to be exceeded
+     * @return                  the number of combinations, Long.MAX_VALUE if there are more
+     * @throws DatabaseException    If error in database.
+     */
+    public long countEventPlans(double amountOfMoney) throws DatabaseException {
+        return countEventPlans(loadEventCatalog(), amountOfMoney);
+    }
 
     /**
-     * it takes the amount of money given by controller and returns a list with every combination
+     * Counts the combinations of the events of a catalog that don't exceed an amount of money.
+     * @param catalog           the event catalog
      * @param amountOfMoney     the range that it's forbidden to be exceeded
-     * @return                  a list of lists with all possible combinations
-     * @throws BusinessLogicException       If no event with max the amount of money was found
-     * @throws EntityNotFoundException or DatabaseException     If no contest or training camp was found.
+     * @return                  the number of combinations, Long.MAX_VALUE if there are more
+     * @throws DatabaseException    If error in database.
      */
-    public List<List<Integer>> eventsThatdontExceedAmountOfMoney(double amountOfMoney) throws DatabaseException, EntityNotFoundException, BusinessLogicException {
-        try{
-            List<Map.Entry<Integer, Double>> eventPairs = new ArrayList<>();
-            boolean flag1 = false;
-            for (int i = 0; i < contests.getAll().size(); i++) {
-                Contest ct = contests.getAll().get(i);
-                if(ct.price <= amountOfMoney){
-                    flag1 = true;
-                }
-                if(ct == null){
-                    throw new EntityNotFoundException("No contest with this ID found");
-                }
-                eventPairs.add(new AbstractMap.SimpleEntry<>(ct.getId(), ct.price));
-            }
+    public long countEventPlans(EventCatalog catalog, double amountOfMoney) throws DatabaseException {
+        return eventPlanner(catalog).countPlans(EventPlanner.toCents(amountOfMoney));
+    }
 
-            for (int i = 0; i < trainingCamps.getAll().size(); i++) {
-                TrainingCamp ct = trainingCamps.getAll().get(i);
-                if(ct.price <= amountOfMoney){
-                    flag1 = true;
-                }
-                if(ct == null){
-                    throw new EntityNotFoundException("No training camp with this ID found");
-                }
-                eventPairs.add(new AbstractMap.SimpleEntry<>(ct.getId(), ct.price));
-            }
-            if(flag1 == true) {
-                List<List<Integer>> results = new ArrayList<>();
-                findCombinations(eventPairs, amountOfMoney, 0, new ArrayList<>(), results);
-                return results;
-            }else{
-                throw new BusinessLogicException("No event that has at least " + amountOfMoney + " money was found");
-            }
+    /**
+     * Finds the combinations of events that use the most of an amount of money without exceeding it.
+     * @param amountOfMoney     the range that it's forbidden to be exceeded
+     * @param n                 the number of combinations
+     * @return                  at most n combinations, the most expensive first
+     * @throws BusinessLogicException   If no event fits in the amount of money.
+     * @throws DatabaseException    If error in database.
+     */
+    public List<EventPlanner.Plan> bestEventPlans(double amountOfMoney, int n) throws DatabaseException, BusinessLogicException {
+        return bestEventPlans(loadEventCatalog(), amountOfMoney, n);
+    }
 
-        }catch (DatabaseException e){
-            throw e;
+    /**
+     * Finds the combinations of the events of a catalog that use the most of an amount of money without exceeding it.
+     * @param catalog           the event catalog
+     * @param amountOfMoney     the range that it's forbidden to be exceeded
+     * @param n                 the number of combinations
+     * @return                  at most n combinations, the most expensive first
+     * @throws BusinessLogicException   If no event fits in the amount of money.
+     * @throws DatabaseException    If error in database.
+     */
+    public List<EventPlanner.Plan> bestEventPlans(EventCatalog catalog, double amountOfMoney, int n) throws DatabaseException, BusinessLogicException {
+        List<EventPlanner.Plan> plans = eventPlanner(catalog).topPlans(EventPlanner.toCents(amountOfMoney), n);
+        if (plans.isEmpty()) {
+            throw new BusinessLogicException("No event that has at least " + amountOfMoney + " money was found");
         }
-
+        return plans;
     }
 
     /**
@@ -367,12 +537,80 @@ public class TKD_Service {
             throw e;
         }
         SessionDate sessionDate = new SessionDate(weekday,date,sessionId,attendance);
-            s.getSessionDateList().add(sessionDate);
+            s.addSessionDate(sessionDate);
             try {
-                students.update(s);
+                if (students instanceof IAttendanceRepo attendanceRepo) {
+                    attendanceRepo.addSessionDates(s, List.of(sessionDate));
+                } else {
+                    students.update(s);
+                }
         } catch (DatabaseException e) {
             throw e;
         }
+        updateLeaderboard(s);
+    }
+
+    /**
+     * Records the attendance of a whole session on one date, for the present and the absent students together.
+     * The students are checked and all the session dates are written in one pass: one query for the ids and one
+     * batched insert on the database, one read and one rewrite of the file for the file repository.
+     * @param sessionId     The unique identifier of the session.
+     * @param weekday       The day of the week of the session.
+     * @param date          The date of the session, as yyyy-MM-dd.
+     * @param presentIds    The students that were present.
+     * @param absentIds     The students that were absent.
+     * @throws EntityNotFoundException or DatabaseException      If the session or a student was not found.
+     * @throws BusinessLogicException   If the date is not valid, or a student is both present and absent or not in the session.
+     */
+    public void recordSessionAttendance(int sessionId, String weekday, String date, Collection<Integer> presentIds, Collection<Integer> absentIds) throws EntityNotFoundException, DatabaseException, BusinessLogicException {
+        if(EpochDay.parse(date) == EpochDay.UNKNOWN){
+            throw new BusinessLogicException("Invalid date " + date + ", expected yyyy-MM-dd");
+        }
+        Session session = sessions.get(sessionId);
+        if(session == null){
+            throw new EntityNotFoundException("No session with this ID found");
+        }
+        Map<Integer, SessionDate> sessionDates = new LinkedHashMap<>();
+        for(int studentId: presentIds){
+            sessionDates.put(studentId, new SessionDate(weekday, date, sessionId, true));
+        }
+        for(int studentId: absentIds){
+            if(sessionDates.putIfAbsent(studentId, new SessionDate(weekday, date, sessionId, false)) != null){
+                throw new BusinessLogicException("Student " + studentId + " can't be both present and absent");
+            }
+        }
+        Set<Integer> members = new HashSet<>(session.getSessionStudents());
+        for(int studentId: sessionDates.keySet()){
+            if(!members.contains(studentId)){
+                throw new BusinessLogicException("Student " + studentId + " is not in session " + sessionId);
+            }
+        }
+        List<Student> changed = null;
+        Set<Integer> found;
+        if (students instanceof IAttendanceRepo) {
+            found = students.existing(sessionDates.keySet());
+        } else {
+            changed = students.getAll(sessionDates.keySet());
+            found = changed.stream().map(Student::getId).collect(Collectors.toSet());
+        }
+        for(int studentId: sessionDates.keySet()){
+            if(!found.contains(studentId)){
+                throw new EntityNotFoundException("No student with ID " + studentId + " found");
+            }
+        }
+        // a leaderboard built after this point already counts the new dates, so only one built before is moved
+        AttendanceLeaderboard current = leaderboard;
+        if (students instanceof IAttendanceRepo attendanceRepo) {
+            attendanceRepo.addSessionDates(sessionDates);
+        } else {
+            for(Student student: changed){
+                student.addSessionDate(sessionDates.get(student.getId()));
+            }
+            students.updateAll(changed);
+        }
+        if (current != null) {
+            sessionDates.forEach((studentId, sessionDate) -> current.recordAttendance(studentId, sessionDate.isAttended()));
+        }
     }
 
     /**
@@ -402,16 +640,10 @@ public class TKD_Service {
         }
         ct.getStudents().add(st.getId());
         st.getContestList().add(ct.getId());
-        try {
-            contests.update(ct);
-        } catch (DatabaseException e) {
-            throw e;
-        }
-        try {
-            students.update(st);
-        } catch (DatabaseException e) {
-            throw e;
-        }
+        new UnitOfWork()
+                .registerDirty(contests, ct)
+                .registerDirty(students, st)
+                .commit();
     }
 
     /**
@@ -444,17 +676,10 @@ public class TKD_Service {
         }
         tc.getStudents().add(st.getId());
         st.getTrainingCampList().add(tc.getId());
-
-        try {
-            trainingCamps.update(tc);
-        } catch (DatabaseException e) {
-            throw e;
-        }
-        try {
-            students.update(st);
-        } catch (DatabaseException e) {
-            throw e;
-        }
+        new UnitOfWork()
+                .registerDirty(trainingCamps, tc)
+                .registerDirty(students, st)
+                .commit();
     }
 
     /**
@@ -467,7 +692,7 @@ public class TKD_Service {
         if(findParent(parent.getEmail())){
             Parent updateParent = null;
             try {
-                updateParent = parents.getAll().stream().filter(pt -> Objects.equals(pt.getEmail(),parent.getEmail())).findFirst().orElse(null);
+                updateParent = findBy(parents, PARENTS_BY_EMAIL, parent.getEmail(), Parent::getEmail).stream().findFirst().orElse(null);
             } catch (DatabaseException e) {
                 throw e;
             }
@@ -504,7 +729,7 @@ public class TKD_Service {
      */
     public boolean findParent(String email) throws DatabaseException {
         try {
-            return parents.getAll().stream().anyMatch(pt -> Objects.equals(pt.getEmail(), email));
+            return !findBy(parents, PARENTS_BY_EMAIL, email, Parent::getEmail).isEmpty();
         } catch (DatabaseException e) {
             throw e;
         }
@@ -522,6 +747,7 @@ public class TKD_Service {
             } catch (DatabaseException e) {
                 throw e;
             }
+            updateLeaderboard((Student) o);
 
         }
         else if(o instanceof Trainer){
@@ -572,53 +798,36 @@ public class TKD_Service {
     /**
      * make an Invoice for every parent based on the month
      * @param parentID          the ID of the parent
-     * @param month             the month they want an invoice
+     * @param month             the month they want an invoice, as MM for the current year or as yyyy-MM
      * @return                  a string that holds information an invoice need to have (for every child they have)
      * @throws EntityNotFoundException or DatabaseException      If no parent was found.
      */
 
     public String generateInvoice(Integer parentID,String month) throws DatabaseException, EntityNotFoundException, BusinessLogicException {
-        Parent parent = null;
-        try {
-            parent = parents.get(parentID);
-            if(parent == null){
-                throw new EntityNotFoundException("No parent with this ID found");
-            }
-        } catch (DatabaseException e) {
-            throw e;
-        }
-        String invoice="Invoice for the month " + month + "\nParent name: " + parent.getLastName() + " " + parent.getName() + "\n";
-        double total = 0;
-        for(int studentId: parent.getChildren()){
-            Student student = null;
-            try {
-                student = students.get(studentId);
-                if(student == null){
-                    throw new EntityNotFoundException("No student with this ID found");
-                }
-            } catch (DatabaseException e) {
-                throw e;
-            }
-            int presences = 0;
-            double individualTotal = 0;
-            for(SessionDate sd: student.getSessionDateList()){
-                if(sd.isAttended() && sd.getDate().substring(5, 7).equals(month)){
-                    presences++;
-                }
-            }
-            try {
-                individualTotal += presences*(sessions.get(student.getSession())).getPricePerSession();
-            } catch (DatabaseException e) {
-                throw e;
-            }
-            total+= individualTotal;
-            invoice += "Student name: " + student.getLastName() + " " + student.getName() + "\n Total for student: " + individualTotal + "\n";
-        }
-        if(total == 0){
-            throw new BusinessLogicException("None of the children/s of the parent has been present to class in the " + month);
-        }
-        invoice += "Total: " + total +"\n";
-        return invoice;
+        return generateInvoice(parentID, InvoiceEngine.parseMonth(month));
+    }
+
+    /**
+     * Generates the invoice of a parent for one month of one year.
+     * @param parentID  The unique identifier of the parent.
+     * @param month     The year and month of the invoice.
+     * @return The invoice text.
+     * @throws EntityNotFoundException or DatabaseException  If the parent or a child was not found.
+     * @throws BusinessLogicException   If none of the children was present in that month.
+     */
+    public String generateInvoice(Integer parentID, YearMonth month) throws DatabaseException, EntityNotFoundException, BusinessLogicException {
+        return invoiceEngine.generate(parentID, month).text();
+    }
+
+    /**
+     * Runs the month-end billing of every parent, in parallel.
+     * The stream must be closed, for example with try-with-resources.
+     * @param month     The year and month that is billed.
+     * @return The invoices of the parents whose children were present in that month.
+     * @throws DatabaseException    If error in database.
+     */
+    public Stream<InvoiceEngine.Invoice> runMonthEndBilling(YearMonth month) throws DatabaseException {
+        return invoiceEngine.billMonth(month);
     }
 
     /**
@@ -628,7 +837,7 @@ public class TKD_Service {
      */
     public void removeStudent(Integer studentID) throws EntityNotFoundException, DatabaseException {
         try {
-            if(students.getAll().stream().noneMatch(st -> st.getId() == studentID)){
+            if(!students.exists(studentID)){
                 throw new EntityNotFoundException("Invalid student ID");
         }
 
@@ -644,20 +853,13 @@ public class TKD_Service {
         } catch (DatabaseException e) {
             throw e;
         }
+        UnitOfWork unitOfWork = new UnitOfWork();
         if(parent.getChildren().size()>1){
             parent.getChildren().remove(studentID);
-            try {
-    parents.update(parent);
-    } catch (DatabaseException e) {
-        throw e;
-    }
+            unitOfWork.registerDirty(parents, parent);
         }
         else{
-            try {
-                parents.remove(parent.getId());
-            } catch (DatabaseException e) {
-                throw e;
-            }
+            unitOfWork.registerDeleted(parents, parent.getId());
         }
         Session session = null;
         try {
@@ -669,17 +871,10 @@ public class TKD_Service {
             throw e;
         }
         session.getSessionStudents().remove( studentID);
-        try {
-        sessions.update(session);
-
-        } catch (DatabaseException e) {
-            throw e;
-        }
-        try {
-            students.remove(studentID);
-        } catch (DatabaseException e) {
-            throw e;
-        }
+        unitOfWork.registerDirty(sessions, session)
+                .registerDeleted(students, studentID)
+                .commit();
+        removeFromLeaderboard(studentID);
     }
 
     /**
@@ -689,7 +884,7 @@ public class TKD_Service {
      */
     public void removeTrainer(Integer trainerID) throws EntityNotFoundException, DatabaseException {
         try {
-            if(trainers.getAll().stream().noneMatch(t -> t.getId() == trainerID)){
+            if(!trainers.exists(trainerID)){
                 throw new EntityNotFoundException("Invalid trainer ID");
         }
 
@@ -704,47 +899,47 @@ public class TKD_Service {
     }
 
     /**
-     * it deletes a parent based on their ID
+     * it deletes a parent based on their ID, with their children; the children are taken out of their sessions
+     * and everything is written together in one unit of work, so a failure leaves no orphan behind
      * @param parentID          the id of the Parent
      * @throws EntityNotFoundException or DatabaseException     If no parent was found.
      */
     public void removeParent(Integer parentID) throws EntityNotFoundException, DatabaseException {
         try {
-            if(parents.getAll().stream().noneMatch(pt -> pt.getId() == parentID)){
+            if(!parents.exists(parentID)){
                     throw new EntityNotFoundException("Invalid parent ID");
             }
 
         } catch (DatabaseException e) {
             throw e;
         }
-        try {
-            List<Integer> children = parents.get(parentID).getChildren();
-            for(int i=0; i<children.size(); i++){
-                Session session = null;
-                try {
-                    session = sessions.get(students.get(children.get(i)).getSession());
-                    if(session == null){
-                        throw new EntityNotFoundException("No session assign to these ID student found");
-                    }
-                } catch (DatabaseException e) {
-                    throw e;
-                }
-                session.getSessionStudents().remove(children.get(i));
-                try {
-                    sessions.update(session);
-
-                } catch (DatabaseException e) {
-                    throw e;
-                }
-                try {
-                    students.remove(children.get(i));
-                } catch (DatabaseException e) {
-                    throw e;
+        List<Integer> children = parents.get(parentID).getChildren();
+        UnitOfWork unitOfWork = new UnitOfWork();
+        Map<Integer, Session> changedSessions = new LinkedHashMap<>();
+        for(Integer childId: children){
+            Session session = null;
+            try {
+                int sessionId = students.get(childId).getSession();
+                session = changedSessions.containsKey(sessionId) ? changedSessions.get(sessionId) : sessions.get(sessionId);
+                if(session == null){
+                    throw new EntityNotFoundException("No session assign to these ID student found");
                 }
+            } catch (DatabaseException e) {
+                throw e;
             }
-            parents.remove(parentID);
-        } catch (DatabaseException e) {
-            throw e;
+            session.getSessionStudents().remove(childId);
+            changedSessions.put(session.getId(), session);
+        }
+        for(Session session: changedSessions.values()){
+            unitOfWork.registerDirty(sessions, session);
+        }
+        for(Integer childId: children){
+            unitOfWork.registerDeleted(students, childId);
+        }
+        unitOfWork.registerDeleted(parents, parentID)
+                .commit();
+        for(Integer childId: children){
+            removeFromLeaderboard(childId);
         }
     }
 
@@ -755,7 +950,7 @@ public class TKD_Service {
      */
     public void removeSession(Integer sessionID) throws EntityNotFoundException, DatabaseException {
         try {
-        if(sessions.getAll().stream().noneMatch(ss -> ss.getId() == sessionID)){
+        if(!sessions.exists(sessionID)){
                 throw new EntityNotFoundException("Invalid session ID");
             }
         } catch (DatabaseException e) {
@@ -766,6 +961,7 @@ public class TKD_Service {
                 Student student = students.get(sessions.get(sessionID).getSessionStudents().get(i));
                 student.setSession(0);
                 students.update(student);
+                updateLeaderboard(student);
             }
         }
         catch (DatabaseException e) {
@@ -785,7 +981,7 @@ public class TKD_Service {
      */
     public void removeBeltExam(Integer beltExamID) throws EntityNotFoundException, DatabaseException {
         try {
-    if(beltExams.getAll().stream().noneMatch(bt -> bt.getId() == beltExamID)){
+    if(!beltExams.exists(beltExamID)){
             throw new EntityNotFoundException("Invalid belt exam ID");
         }
 
@@ -806,7 +1002,7 @@ public class TKD_Service {
      */
     public void removeContest(Integer contestID) throws EntityNotFoundException, DatabaseException {
         try {
-            if(contests.getAll().stream().noneMatch(ct -> ct.getId() == contestID)){
+            if(!contests.exists(contestID)){
                 throw new EntityNotFoundException("Invalid contest ID");
         }
 
@@ -827,7 +1023,7 @@ public class TKD_Service {
      */
     public void removeTrainingCamp(Integer trainingCampID) throws EntityNotFoundException, DatabaseException {
         try {
-            if(trainingCamps.getAll().stream().noneMatch(tc -> tc.getId() == trainingCampID)){
+            if(!trainingCamps.exists(trainingCampID)){
                     throw new EntityNotFoundException("Invalid training camp ID");
                 }
 
@@ -877,7 +1073,6 @@ public class TKD_Service {
         } catch (DatabaseException e) {
             throw e;
         }
-
     }
 
     /**
@@ -888,7 +1083,7 @@ public class TKD_Service {
      */
     public Trainer getTrainerById(int trainerId) throws EntityNotFoundException, DatabaseException {
         try {
-            if(trainers.getAll().stream().noneMatch(st -> st.getId() == trainerId)){
+            if(!trainers.exists(trainerId)){
                 throw new EntityNotFoundException("Invalid trainer ID");
         }
 
@@ -950,7 +1145,7 @@ public class TKD_Service {
      */
     public Session getSessionById(int sessionId) throws EntityNotFoundException, DatabaseException {
         try {
-            if(sessions.getAll().stream().noneMatch(st -> st.getId() == sessionId)){
+            if(!sessions.exists(sessionId)){
                 throw new EntityNotFoundException("Invalid session ID");
         }
 
@@ -968,6 +1163,71 @@ public class TKD_Service {
         }
     }
 
+    /**
+     * get a student based on their id
+     * @param studentId         the student id
+     * @return                  an object of type Student
+     * @throws EntityNotFoundException or DatabaseException      If no student was found.
+     */
+    public Student getStudentById(int studentId) throws EntityNotFoundException, DatabaseException {
+        Student student = students.get(studentId);
+        if(student == null){
+            throw new EntityNotFoundException("No student with this ID found");
+        }
+        return student;
+    }
+
+    /**
+     * Gets all students.
+     * @return  List of all students
+     * @throws DatabaseException    If error in database.
+     */
+    public List<Student> getAllStudents() throws DatabaseException {
+        return students.getAll();
+    }
+
+    /**
+     * Gets all sessions.
+     * @return  List of all sessions
+     * @throws DatabaseException    If error in database.
+     */
+    public List<Session> getAllSessions() throws DatabaseException {
+        return sessions.getAll();
+    }
+
+    /**
+     * Gets one page of students, ordered by id.
+     * @param afterId   the id of the last student of the previous page, 0 for the first page
+     * @param pageSize  the number of students on a page
+     * @return  the students after afterId, at most pageSize of them
+     * @throws DatabaseException    If error in database.
+     */
+    public List<Student> getStudentsPage(int afterId, int pageSize) throws DatabaseException {
+        return students.getPageAfter(afterId, pageSize);
+    }
+
+    /**
+     * Gets one page of sessions, ordered by id.
+     * @param afterId   the id of the last session of the previous page, 0 for the first page
+     * @param pageSize  the number of sessions on a page
+     * @return  the sessions after afterId, at most pageSize of them
+     * @throws DatabaseException    If error in database.
+     */
+    public List<Session> getSessionsPage(int afterId, int pageSize) throws DatabaseException {
+        return sessions.getPageAfter(afterId, pageSize);
+    }
+
+    /**
+     * Gets one page of trainers, ordered by id.
+     * @param afterId   the id of the last trainer of the previous page, 0 for the first page
+     * @param pageSize  the number of trainers on a page
+     * @return  the trainers after afterId, at most pageSize of them
+     * @throws DatabaseException    If error in database.
+     */
+    public List<Trainer> getTrainersPage(int afterId, int pageSize) throws DatabaseException {
+        return trainers.getPageAfter(afterId, pageSize);
+    }
+
     /** display all Students
      *
      * @return a String that holds all students
@@ -995,49 +1255,97 @@ public class TKD_Service {
      */
     public String viewAllTrainers() throws DatabaseException {
         StringBuilder allTrainers= new StringBuilder();
-        try {
-            for(Trainer t: trainers.getAll()){
-                allTrainers.append(t.toString2()).append('\n');
-            }
-        } catch (DatabaseException e) {
-            throw e;
+        try (Stream<Trainer> all = trainers.stream()) {
+            all.forEach(t -> allTrainers.append(t.toString2()).append('\n'));
+        } catch (UncheckedDatabaseException e) {
+            throw e.getCause();
         }
         return allTrainers.toString();
     }
 
+    /**
+     * Gets one page of parents, ordered by id.
+     * @param afterId   the id of the last parent of the previous page, 0 for the first page
+     * @param pageSize  the number of parents on a page
+     * @return  the parents after afterId, at most pageSize of them
+     * @throws DatabaseException    If error in database.
+     */
+    public List<Parent> getParentsPage(int afterId, int pageSize) throws DatabaseException {
+        return parents.getPageAfter(afterId, pageSize);
+    }
+
+    /**
+     * Gets one page of contests, ordered by id.
+     * @param afterId   the id of the last contest of the previous page, 0 for the first page
+     * @param pageSize  the number of contests on a page
+     * @return  the contests after afterId, at most pageSize of them
+     * @throws DatabaseException    If error in database.
+     */
+    public List<Contest> getContestsPage(int afterId, int pageSize) throws DatabaseException {
+        return contests.getPageAfter(afterId, pageSize);
+    }
+
+    /**
+     * Gets one page of training camps, ordered by id.
+     * @param afterId   the id of the last training camp of the previous page, 0 for the first page
+     * @param pageSize  the number of training camps on a page
+     * @return  the training camps after afterId, at most pageSize of them
+     * @throws DatabaseException    If error in database.
+     */
+    public List<TrainingCamp> getTrainingCampsPage(int afterId, int pageSize) throws DatabaseException {
+        return trainingCamps.getPageAfter(afterId, pageSize);
+    }
+
+    /**
+     * Gets one page of belt exams, ordered by id.
+     * @param afterId   the id of the last belt exam of the previous page, 0 for the first page
+     * @param pageSize  the number of belt exams on a page
+     * @return  the belt exams after afterId, at most pageSize of them
+     * @throws DatabaseException    If error in database.
+     */
+    public List<BeltExam> getBeltExamsPage(int afterId, int pageSize) throws DatabaseException {
+        return beltExams.getPageAfter(afterId, pageSize);
+    }
+
     /**
      * dispaly all Parents
      * @return a String that holds all Parents
      * @throws DatabaseException    If error in database.
      */
     public String viewAllParents() throws DatabaseException {
+        return viewParents(parents.getAll());
+    }
+
+    /**
+     * display some Parents, like a page of them, their children are read all together
+     * @param someParents   the parents to display
+     * @return a String that holds the parents and their children
+     * @throws DatabaseException    If error in database.
+     */
+    public String viewParents(List<Parent> someParents) throws DatabaseException {
         StringBuilder allParents = new StringBuilder();
         // Coduri ANSI pentru culori
         final String ANSI_RED = "\u001B[31m";
         final String ANSI_GREEN = "\u001B[32m";
         final String ANSI_RESET = "\u001B[0m";
 
-        try {
-            for (Parent p : parents.getAll()) {
-                allParents.append(ANSI_RED).append("Parent").append(ANSI_RESET)
-                        .append(" with id: ").append(p.getId())
-                        .append(", name ").append(p.getName()).append(" ").append(p.getLastName())
-                        .append(" has childrens: ");
-                for (int sId : p.getChildren()) {
-                    Student s = null;
-    try {
-        s = students.get(sId);
-    } catch (DatabaseException e) {
-        throw e;
-    }                allParents.append("\n")
-                            .append(ANSI_GREEN).append("Student").append(ANSI_RESET)
-                            .append(" with id: ").append(s.getId())
-                            .append(" ").append(s.getLastName()).append(" ").append(s.getName());
+        Map<Integer, Student> children = studentsById(someParents.stream().flatMap(p -> p.getChildren().stream()));
+        for (Parent p : someParents) {
+            allParents.append(ANSI_RED).append("Parent").append(ANSI_RESET)
+                    .append(" with id: ").append(p.getId())
+                    .append(", name ").append(p.getName()).append(" ").append(p.getLastName())
+                    .append(" has childrens: ");
+            for (int sId : p.getChildren()) {
+                Student s = children.get(sId);
+                if (s == null) {
+                    continue;
                 }
-                allParents.append("\n");
+                allParents.append("\n")
+                        .append(ANSI_GREEN).append("Student").append(ANSI_RESET)
+                        .append(" with id: ").append(s.getId())
+                        .append(" ").append(s.getLastName()).append(" ").append(s.getName());
             }
-        } catch (DatabaseException e) {
-            throw e;
+            allParents.append("\n");
         }
         return allParents.toString();
     }
@@ -1049,28 +1357,28 @@ public class TKD_Service {
      * @throws DatabaseException    If error in database.
      */
     public String viewAllContests()  throws DatabaseException {
-        StringBuilder allContests = new StringBuilder();
-
-        // Coduri ANSI pentru culori
-        final String ANSI_BLUE = "\u001B[34m";
-        final String ANSI_ORANGE = "\u001B[38;5;214m"; // Portocaliu
-        final String ANSI_YELLOW = "\u001B[33m";
-        final String ANSI_RESET = "\u001B[0m";
-
-        try {
-            for (Contest c : contests.getAll()) {
-                allContests.append(c.toString2()).append('\n');
+        return viewContests(contests.getAll());
+    }
 
-                for (int sId : c.getStudents()) {
-                    allContests.append(students.get(sId).toString3()).append('\n');
+    /**
+     * display some contests, like a page of them, their students are read all together
+     * @param someContests  the contests to display
+     * @return a string that holds the contests and their students
+     * @throws DatabaseException    If error in database.
+     */
+    public String viewContests(List<Contest> someContests) throws DatabaseException {
+        StringBuilder allContests = new StringBuilder();
+        Map<Integer, Student> participants = studentsById(someContests.stream().flatMap(c -> c.getStudents().stream()));
+        for (Contest c : someContests) {
+            allContests.append(c.toString2()).append('\n');
+            for (int sId : c.getStudents()) {
+                Student s = participants.get(sId);
+                if (s != null) {
+                    allContests.append(s.toString3()).append('\n');
                 }
-
-                allContests.append('\n');
             }
-        } catch (DatabaseException e) {
-            throw e;
+            allContests.append('\n');
         }
-
         return allContests.toString();
     }
 
@@ -1080,17 +1388,27 @@ public class TKD_Service {
      * @throws DatabaseException    If error in database.
      */
     public String viewTrainingCamps() throws DatabaseException {
+        return viewTrainingCamps(trainingCamps.getAll());
+    }
+
+    /**
+     * display some Training Camps, like a page of them, their students are read all together
+     * @param someTrainingCamps the training camps to display
+     * @return a String that holds the training camps and their students
+     * @throws DatabaseException    If error in database.
+     */
+    public String viewTrainingCamps(List<TrainingCamp> someTrainingCamps) throws DatabaseException {
         StringBuilder allTrainingCamps = new StringBuilder();
-        try {
-            for(TrainingCamp t: trainingCamps.getAll()){
-                allTrainingCamps.append(t.toString2()).append('\n');
-                for(int sId: t.getStudents()){
-                    allTrainingCamps.append(students.get(sId).toString2()).append('\n');
+        Map<Integer, Student> participants = studentsById(someTrainingCamps.stream().flatMap(t -> t.getStudents().stream()));
+        for(TrainingCamp t: someTrainingCamps){
+            allTrainingCamps.append(t.toString2()).append('\n');
+            for(int sId: t.getStudents()){
+                Student s = participants.get(sId);
+                if (s != null) {
+                    allTrainingCamps.append(s.toString2()).append('\n');
                 }
-                allTrainingCamps.append('\n');
             }
-        } catch (DatabaseException e) {
-            throw e;
+            allTrainingCamps.append('\n');
         }
         return allTrainingCamps.toString();
     }
@@ -1101,21 +1419,45 @@ public class TKD_Service {
      * @throws DatabaseException    If error in database.
      */
     public String viewBeltExams()  throws DatabaseException {
+        return viewBeltExams(beltExams.getAll());
+    }
+
+    /**
+     * display some BeltExams, like a page of them, their students are read all together
+     * @param someBeltExams the belt exams to display
+     * @return a string that holds the belt exams and their students
+     * @throws DatabaseException    If error in database.
+     */
+    public String viewBeltExams(List<BeltExam> someBeltExams) throws DatabaseException {
         StringBuilder allBeltExams = new StringBuilder();
-        try {
-            for (BeltExam b : beltExams.getAll()) {
-                allBeltExams.append(b.toString2()).append('\n');
-                for (int sId : b.getListOfResults().keySet()) {
-                    allBeltExams.append(students.get(sId).toString2()).append('\n');
+        Map<Integer, Student> participants = studentsById(someBeltExams.stream().flatMap(b -> b.getListOfResults().keySet().stream()));
+        for (BeltExam b : someBeltExams) {
+            allBeltExams.append(b.toString2()).append('\n');
+            for (int sId : b.getListOfResults().keySet()) {
+                Student s = participants.get(sId);
+                if (s != null) {
+                    allBeltExams.append(s.toString2()).append('\n');
                 }
-                allBeltExams.append('\n');
             }
-        } catch (DatabaseException e) {
-            throw e;
+            allBeltExams.append('\n');
         }
         return allBeltExams.toString();
     }
 
+    /**
+     * Reads the students with the given ids in one call to the repository.
+     * @param ids   the ids of the students, an id can come more than once
+     * @return  the students that were found, by id
+     * @throws DatabaseException    If error in database.
+     */
+    private Map<Integer, Student> studentsById(Stream<Integer> ids) throws DatabaseException {
+        Map<Integer, Student> byId = new HashMap<>();
+        for (Student s : students.getAll(ids.collect(Collectors.toCollection(LinkedHashSet::new)))) {
+            byId.put(s.getId(), s);
+        }
+        return byId;
+    }
+
 
     /**
      * Sorts the contests based on their starting date.
@@ -1123,19 +1465,7 @@ public class TKD_Service {
      * @throws DatabaseException    If error in database.
      */
     public List<Contest> sortContestsByDates() throws DatabaseException{
-        List<Contest> sorted = null;
-        try {
-            sorted = new ArrayList<>(contests.getAll());
-        } catch (DatabaseException e) {
-            throw e;
-        }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        sorted.sort((c1, c2) -> {
-            LocalDate date1 = LocalDate.parse(c1.startDate, formatter);
-            LocalDate date2 = LocalDate.parse(c2.startDate, formatter);
-            return date1.compareTo(date2);
-        });
-        return sorted;
+        return loadEventCatalog().getContestsByStartDate();
     }
 
     /**
@@ -1145,19 +1475,7 @@ public class TKD_Service {
      */
 
     public List<BeltExam> sortBeltExamnsByDates() throws DatabaseException{
-        List<BeltExam> sorted = null;
-        try {
-            sorted = new ArrayList<>(beltExams.getAll());
-        } catch (DatabaseException e) {
-            throw e;
-        }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        sorted.sort((c1, c2) -> {
-            LocalDate date1 = LocalDate.parse(c1.startDate, formatter);
-            LocalDate date2 = LocalDate.parse(c2.startDate, formatter);
-            return date1.compareTo(date2);
-        });
-        return sorted;
+        return loadEventCatalog().getBeltExamsByStartDate();
     }
 
     /**
@@ -1166,19 +1484,7 @@ public class TKD_Service {
      * @throws DatabaseException    If error in database.
      */
     public List<TrainingCamp> sortTrainingCampsByDates() throws DatabaseException{
-        List<TrainingCamp> sorted = null;
-        try {
-            sorted = new ArrayList<>(trainingCamps.getAll());
-        } catch (DatabaseException e) {
-            throw e;
-        }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        sorted.sort((c1, c2) -> {
-            LocalDate date1 = LocalDate.parse(c1.startDate, formatter);
-            LocalDate date2 = LocalDate.parse(c2.startDate, formatter);
-            return date1.compareTo(date2);
-        });
-        return sorted;
+        return loadEventCatalog().getTrainingCampsByStartDate();
     }
 
     /**
@@ -1219,33 +1525,81 @@ public class TKD_Service {
      * @throws EntityNotFoundException or DatabaseException    If no student found.
      */
     public List<Student> sortStudentsByNumberOfAttendences() throws DatabaseException, EntityNotFoundException {
-        List<Student> sorted = null;
-        try {
-            sorted = new ArrayList<>(students.getAll());
-        } catch (DatabaseException e) {
-            throw e;
+        List<Student> roster = students.getAll();
+        return sortByAttendance(roster, false, roster.size() >= PARALLEL_SORT_THRESHOLD);
+    }
+
+    /**
+     * Ranks the students by their number of attendances, the student with the most attendances first.
+     * Large rosters, from PARALLEL_SORT_THRESHOLD students, are sorted in parallel.
+     * @return a list of Students, the most present first
+     * @throws DatabaseException    If error in database.
+     */
+    public List<Student> rankStudentsByAttendance() throws DatabaseException {
+        List<Student> roster = students.getAll();
+        return sortByAttendance(roster, true, roster.size() >= PARALLEL_SORT_THRESHOLD);
+    }
+
+    /**
+     * Ranks the students by their number of attendances, the student with the most attendances first.
+     * @param parallel  true to sort on several threads
+     * @return a list of Students, the most present first
+     * @throws DatabaseException    If error in database.
+     */
+    public List<Student> rankStudentsByAttendance(boolean parallel) throws DatabaseException {
+        return sortByAttendance(students.getAll(), true, parallel);
+    }
+
+    /**
+     * Gets the students with the most attendances in the school, from the leaderboard that is kept up to date
+     * when attendance is recorded instead of sorting every student. The students are not read again,
+     * the ranks hold what is shown of them.
+     * @param k     the number of students, not negative
+     * @return at most k ranks, the most present student first
+     * @throws DatabaseException    If error in database.
+     */
+    public List<AttendanceLeaderboard.Rank> getAttendanceLeaderboard(int k) throws DatabaseException {
+        return leaderboard().top(k);
+    }
+
+    /**
+     * Gets the students with the most attendances in one session.
+     * @param sessionId the unique identifier of the session
+     * @param k         the number of students, not negative
+     * @return at most k ranks of students of the session, the most present first
+     * @throws EntityNotFoundException or DatabaseException    If no session was found.
+     */
+    public List<AttendanceLeaderboard.Rank> getSessionAttendanceLeaderboard(int sessionId, int k) throws EntityNotFoundException, DatabaseException {
+        if(!sessions.exists(sessionId)){
+            throw new EntityNotFoundException("No session with this ID found");
         }
-        try{
-        sorted.sort((s1, s2) -> {
-            try {
-                return Integer.compare(
-                        numberOfAttendencesAndAbsences(s1.getId()).get("Attendences"),
-                        numberOfAttendencesAndAbsences(s2.getId()).get("Attendences")
-                );
-            } catch (DatabaseException | EntityNotFoundException e) {
-                throw new RuntimeException(e); // Directly rethrow the exception
-            }
-        });
-    } catch (RuntimeException e) {
-        // Unwrap and rethrow the original checked exceptions
-        if (e.getCause() instanceof DatabaseException) {
-            throw (DatabaseException) e.getCause();
-        } else if (e.getCause() instanceof EntityNotFoundException) {
-            throw (EntityNotFoundException) e.getCause();
+        return leaderboard().top(sessionId, k);
+    }
+
+    /**
+     * Sorts students by attendance with the roster read once. The attendance of every student is read once into
+     * a long key, with the attendance in the high half and the position of the student in the low half,
+     * so the keys are sorted as primitives and students with the same attendance keep their order.
+     * @param roster        the students to sort
+     * @param descending    true for the most attendances first
+     * @param parallel      true to sort the keys with Arrays.parallelSort
+     * @return the sorted students
+     */
+    private static List<Student> sortByAttendance(List<Student> roster, boolean descending, boolean parallel) {
+        long[] keys = new long[roster.size()];
+        for (int i = 0; i < keys.length; i++) {
+            int attendances = roster.get(i).getAttendances();
+            keys[i] = ((long) (descending ? -attendances : attendances) << 32) | i;
+        }
+        if (parallel) {
+            Arrays.parallelSort(keys);
         } else {
-            throw e; // Rethrow as RuntimeException if cause is unknown
+            Arrays.sort(keys);
+        }
+        List<Student> sorted = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            sorted.add(roster.get((int) key));
         }
-    }
         return sorted;
     }
 
@@ -1256,14 +1610,11 @@ public class TKD_Service {
      * @throws DatabaseException    If error in database.
      */
     public List<Student> filterStudentsByBelt(BeltLevel beltLevel) throws DatabaseException {
-        List<Student> filtered = null;
         try {
-            filtered = new ArrayList<>(students.getAll());
+            return findBy(students, STUDENTS_BY_BELT, beltLevel, Student::getBeltLevel);
         } catch (DatabaseException e) {
             throw e;
         }
-        filtered = filtered.stream().filter((s1)->s1.getBeltLevel().equals(beltLevel)).toList();
-        return filtered;
     }
 
     /**
@@ -1273,12 +1624,12 @@ public class TKD_Service {
      * @throws DatabaseException    If error in database.
      */
     public List<Parent> filterParentsNumberOfChildren(int noOfChildren) throws DatabaseException{
-        try {
-            return parents.getAll().stream()  // Obținem stream-ul de la lista de părinți
+        try (Stream<Parent> all = parents.stream()) {  // Obținem stream-ul de părinți, citit pe bucăți
+            return all
                     .filter(p -> p.getChildren().size() == noOfChildren)  // Filtrăm părinții care au exact numărul de copii dorit
                     .collect(Collectors.toList());  // Colectăm rezultatele într-o listă
-        } catch (DatabaseException e) {
-            throw e;
+        } catch (UncheckedDatabaseException e) {
+            throw e.getCause();
         }
     }
 
@@ -1292,7 +1643,7 @@ public class TKD_Service {
      */
     public AbstractMap.SimpleEntry<String, Double> getMostProfitableDateForSession(int sessionId) throws DatabaseException, EntityNotFoundException, BusinessLogicException {
         try {
-            if(sessions.getAll().stream().noneMatch(ss -> ss.getId() == sessionId)){
+            if(!sessions.exists(sessionId)){
                 throw new EntityNotFoundException("Invalid session ID");
         }
 
@@ -1302,16 +1653,14 @@ public class TKD_Service {
 
         Map<String,Double> freqWeekdays = new HashMap<>();
         try {
-            for(Student st: students.getAll()){
-                if(st.session == sessionId){
-                    for(SessionDate sd: st.getSessionDateList()) {
-                        if(sd.isAttended()) {
-                            if (freqWeekdays.containsKey(sd.getDate())){
-                                freqWeekdays.replace(sd.getDate(),freqWeekdays.get(sd.getDate())+sessions.get(sessionId).getPricePerSession());
-                            }
-                            else{
-                                freqWeekdays.put(sd.getDate(),sessions.get(sessionId).getPricePerSession());
-                            }
+            for(Student st: findBy(students, STUDENTS_BY_SESSION, sessionId, Student::getSession)){
+                for(SessionDate sd: st.getSessionDateList()) {
+                    if(sd.isAttended()) {
+                        if (freqWeekdays.containsKey(sd.getDate())){
+                            freqWeekdays.replace(sd.getDate(),freqWeekdays.get(sd.getDate())+sessions.get(sessionId).getPricePerSession());
+                        }
+                        else{
+                            freqWeekdays.put(sd.getDate(),sessions.get(sessionId).getPricePerSession());
                         }
                     }
                 }
@@ -1336,66 +1685,66 @@ public class TKD_Service {
     }
 
     /**
-     * Gets the first free student id
-     * @return  First free student id
+     * Reserves the next free student id, an id is never handed out twice
+     * @return  Next free student id
      * @throws DatabaseException    If error in database.
      */
     public int getStudentId() throws DatabaseException {
-        return students.getAll().size()+1;
+        return studentIds.nextId();
     }
 
     /**
-     * Gets the first free session id
-     * @return  First free session id
+     * Reserves the next free session id, an id is never handed out twice
+     * @return  Next free session id
      * @throws DatabaseException    If error in database.
      */
     public int getSessionId() throws DatabaseException {
-        return sessions.getAll().size()+1;
+        return sessionIds.nextId();
     }
 
     /**
-     * Gets the first free trainer id
-     * @return  First free trainer id
+     * Reserves the next free trainer id, an id is never handed out twice
+     * @return  Next free trainer id
      * @throws DatabaseException    If error in database.
      */
     public int getTrainerId() throws DatabaseException {
-        return trainers.getAll().size()+1;
+        return trainerIds.nextId();
     }
 
     /**
-     * Gets the first free parent id
-     * @return  First free parent id
+     * Reserves the next free parent id, an id is never handed out twice
+     * @return  Next free parent id
      * @throws DatabaseException    If error in database.
      */
     public int getParentId() throws DatabaseException {
-        return parents.getAll().size()+1;
+        return parentIds.nextId();
     }
 
     /**
-     * Gets the first free contest id
-     * @return  First free contest id
+     * Reserves the next free contest id, an id is never handed out twice
+     * @return  Next free contest id
      * @throws DatabaseException    If error in database.
      */
     public int getContestId() throws DatabaseException {
-        return contests.getAll().size()+1;
+        return contestIds.nextId();
     }
 
     /**
-     * Gets the first free training camp id
-     * @return  First free training camp id
+     * Reserves the next free training camp id, an id is never handed out twice
+     * @return  Next free training camp id
      * @throws DatabaseException    If error in database.
      */
     public int getTrainingCampId() throws DatabaseException {
-        return trainingCamps.getAll().size()+1;
+        return trainingCampIds.nextId();
     }
 
     /**
-     * Gets the first free belt exam id
-     * @return  First free belt exam id
+     * Reserves the next free belt exam id, an id is never handed out twice
+     * @return  Next free belt exam id
      * @throws DatabaseException    If error in database.
      */
     public int getBeltExamId() throws DatabaseException {
-        return beltExams.getAll().size()+1;
+        return beltExamIds.nextId();
     }
 }
 
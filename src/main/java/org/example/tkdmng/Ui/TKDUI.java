@@ -6,13 +6,13 @@ import org.example.tkdmng.Exceptions.EntityNotFoundException;
 import org.example.tkdmng.Exceptions.ValidationException;
 import org.example.tkdmng.Model.*;
 import org.example.tkdmng.Repository.*;
+import org.example.tkdmng.Service.EventCatalog;
 import org.example.tkdmng.Service.TKD_Service;
 
 import java.io.IOException;
 import java.security.Provider;
-import java.sql.DriverManager;
-import java.sql.SQLException;
 import java.util.Scanner;
+import java.util.function.IntUnaryOperator;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -32,6 +32,10 @@ public class TKDUI {
     IRepo<Contest> contestRepo;
     IRepo<TrainingCamp> trainingCampRepo;
     IRepo<BeltExam> beltExamRepo;
+
+    private static final int CACHE_SIZE = 10_000;
+    private static final long DATABASE_CACHE_TTL_MILLIS = 60_000;
+    private static final int PAGE_SIZE = 20;
     /**
      * Constructor for UI, creates just a new Scanner
      */
@@ -61,6 +65,10 @@ public class TKDUI {
                     continueLoop = false;
                     return inMemoryRepo();
                 }
+                case "concurrent" -> {
+                    continueLoop = false;
+                    return concurrentInMemoryRepo();
+                }
                 case "file" -> {
                     continueLoop = false;
                     return inFileRepo();
@@ -69,6 +77,10 @@ public class TKDUI {
                     continueLoop = false;
                     return databaseRepo();
                 }
+                case "journal" -> {
+                    continueLoop = false;
+                    return inJournalRepo();
+                }
                 default -> System.out.println("Invalid option. Please try again.");
             }
         }
@@ -86,58 +98,90 @@ public class TKDUI {
      * @throws DatabaseException when it can't connect to Database
      */
     private TKD_Service databaseRepo() throws DatabaseException {
-        DatabaseRepo<Student> studentRepo = new DatabaseStudent("jdbc:sqlserver://localhost:1433;database=TKD-Management;integratedSecurity=true;trustServerCertificate=true;");
-        DatabaseRepo<Parent> parentRepo = new DatabaseParent("jdbc:sqlserver://localhost:1433;database=TKD-Management;integratedSecurity=true;trustServerCertificate=true;");
-        DatabaseRepo<Session> sessionRepo = new DatabaseSession("jdbc:sqlserver://localhost:1433;database=TKD-Management;integratedSecurity=true;trustServerCertificate=true;");
-        DatabaseRepo<Contest> contestRepo = new DatabaseContest("jdbc:sqlserver://localhost:1433;database=TKD-Management;integratedSecurity=true;trustServerCertificate=true;");
-        DatabaseRepo<Trainer> trainerRepo = new DatabaseTrainer("jdbc:sqlserver://localhost:1433;database=TKD-Management;integratedSecurity=true;trustServerCertificate=true;");
-        DatabaseRepo<BeltExam> beltExamRepo = new DatabaseBeltExam("jdbc:sqlserver://localhost:1433;database=TKD-Management;integratedSecurity=true;trustServerCertificate=true;");
-        DatabaseRepo<TrainingCamp> trainingCampRepo = new DatabaseTrainingCamp("jdbc:sqlserver://localhost:1433;database=TKD-Management;integratedSecurity=true;trustServerCertificate=true;");
+        ConnectionPool connectionPool = new ConnectionPool("jdbc:sqlserver://localhost:1433;database=TKD-Management;integratedSecurity=true;trustServerCertificate=true;");
+        IRepo<Student> studentRepo = new CachingStudentRepo(new DatabaseStudent(connectionPool), CACHE_SIZE, DATABASE_CACHE_TTL_MILLIS);
+        IRepo<Parent> parentRepo = new CachingRepo<>(new DatabaseParent(connectionPool), CACHE_SIZE, DATABASE_CACHE_TTL_MILLIS);
+        IRepo<Session> sessionRepo = new CachingRepo<>(new DatabaseSession(connectionPool), CACHE_SIZE, DATABASE_CACHE_TTL_MILLIS);
+        IRepo<Contest> contestRepo = new CachingEventRepo<>(new DatabaseContest(connectionPool), EventSummary.Kind.CONTEST, CACHE_SIZE, DATABASE_CACHE_TTL_MILLIS);
+        IRepo<Trainer> trainerRepo = new CachingRepo<>(new DatabaseTrainer(connectionPool), CACHE_SIZE, DATABASE_CACHE_TTL_MILLIS);
+        IRepo<BeltExam> beltExamRepo = new CachingEventRepo<>(new DatabaseBeltExam(connectionPool), EventSummary.Kind.BELT_EXAM, CACHE_SIZE, DATABASE_CACHE_TTL_MILLIS);
+        IRepo<TrainingCamp> trainingCampRepo = new CachingEventRepo<>(new DatabaseTrainingCamp(connectionPool), EventSummary.Kind.TRAINING_CAMP, CACHE_SIZE, DATABASE_CACHE_TTL_MILLIS);
 
+        IdAllocatorFactory idAllocators = (entityName, repo) -> new DatabaseSequenceIdAllocator(connectionPool, entityName + "IdSequence", repo);
 
-        try {
-            DriverManager.getConnection("jdbc:sqlserver://localhost:1433;database=TKD-Management;integratedSecurity=true;trustServerCertificate=true;");
-        } catch (SQLException e) {
-            System.out.println("Error: "+e.getMessage());
-        }
-
-        return new TKD_Service(studentRepo,trainerRepo,parentRepo,sessionRepo,contestRepo,trainingCampRepo,beltExamRepo);
+        return new TKD_Service(studentRepo,trainerRepo,parentRepo,sessionRepo,contestRepo,trainingCampRepo,beltExamRepo,idAllocators);
 
     }
 
     //////// IN MEMORY REPOSITORY /////////
 
     /**
-     * makes a repo for Memory
+     * makes a repo for Memory, used by one thread at a time because the console and the web endpoints share it
      * @return a Service that contains Memory Repos
      */
     private TKD_Service inMemoryRepo(){
-        InMemoryRepo<Student> studentRepo = new InMemoryRepo<>();
-        InMemoryRepo<Parent> parentRepo = new InMemoryRepo<>();
-        InMemoryRepo<Session> sessionRepo = new InMemoryRepo<>();
-        InMemoryRepo<Trainer> trainerRepo = new InMemoryRepo<>();
-        InMemoryRepo<Contest> contestRepo = new InMemoryRepo<>();
-        InMemoryRepo<TrainingCamp> trainingCampRepo = new InMemoryRepo<>();
-        InMemoryRepo<BeltExam> beltExamRepo = new InMemoryRepo<>();
+        IRepo<Student> studentRepo = new SynchronizedIndexedRepo<>(new InMemoryRepo<>());
+        IRepo<Parent> parentRepo = new SynchronizedIndexedRepo<>(new InMemoryRepo<>());
+        IRepo<Session> sessionRepo = new SynchronizedIndexedRepo<>(new InMemoryRepo<>());
+        IRepo<Trainer> trainerRepo = new SynchronizedIndexedRepo<>(new InMemoryRepo<>());
+        IRepo<Contest> contestRepo = new SynchronizedIndexedRepo<>(new InMemoryRepo<>());
+        IRepo<TrainingCamp> trainingCampRepo = new SynchronizedIndexedRepo<>(new InMemoryRepo<>());
+        IRepo<BeltExam> beltExamRepo = new SynchronizedIndexedRepo<>(new InMemoryRepo<>());
+
+        return new TKD_Service(studentRepo,trainerRepo,parentRepo,sessionRepo,contestRepo,trainingCampRepo,beltExamRepo);
+    }
+
+    /**
+     * makes a repo for Memory that can be used by several threads
+     * @return a Service that contains thread-safe Memory Repos
+     */
+    private TKD_Service concurrentInMemoryRepo(){
+        ConcurrentInMemoryRepo<Student> studentRepo = new ConcurrentInMemoryRepo<>();
+        ConcurrentInMemoryRepo<Parent> parentRepo = new ConcurrentInMemoryRepo<>();
+        ConcurrentInMemoryRepo<Session> sessionRepo = new ConcurrentInMemoryRepo<>();
+        ConcurrentInMemoryRepo<Trainer> trainerRepo = new ConcurrentInMemoryRepo<>();
+        ConcurrentInMemoryRepo<Contest> contestRepo = new ConcurrentInMemoryRepo<>();
+        ConcurrentInMemoryRepo<TrainingCamp> trainingCampRepo = new ConcurrentInMemoryRepo<>();
+        ConcurrentInMemoryRepo<BeltExam> beltExamRepo = new ConcurrentInMemoryRepo<>();
 
         return new TKD_Service(studentRepo,trainerRepo,parentRepo,sessionRepo,contestRepo,trainingCampRepo,beltExamRepo);
     }
 
     //////// IN FILE REPOSITORY /////////
     /**
-     * makes a repo for Files
+     * makes a repo for Files, every file is used by one thread at a time because the console and the web endpoints share it
      * @return a Service that contains File Repos
      */
     private TKD_Service inFileRepo(){
-        InFileRepo<Student> studentRepo = new InFileRepo<>("src/main/java/org/example/Data/students.csv",Student::fromCSV);
-        InFileRepo<Parent> parentRepo = new InFileRepo<>("src/main/java/org/example/Data/parents.csv",Parent::fromCSV);
-        InFileRepo<Session> sessionRepo = new InFileRepo<>("src/main/java/org/example/Data/sessions.csv",Session::fromCSV);
-        InFileRepo<Trainer> trainerRepo = new InFileRepo<>("src/main/java/org/example/Data/trainers.csv",Trainer::fromCSV);
-        InFileRepo<Contest> contestRepo = new InFileRepo<>("src/main/java/org/example/Data/contests.csv",Contest::fromCSV);
-        InFileRepo<TrainingCamp> trainingCampRepo = new InFileRepo<>("src/main/java/org/example/Data/trainingCamps.csv",TrainingCamp::fromCSV);
-        InFileRepo<BeltExam> beltExamRepo = new InFileRepo<>("src/main/java/org/example/Data/beltExams.csv",BeltExam::fromCSV);
+        IRepo<Student> studentRepo = new CachingRepo<>(new SynchronizedRepo<>(new InFileRepo<>("src/main/java/org/example/Data/students.csv",Student::fromCSV)), CACHE_SIZE);
+        IRepo<Parent> parentRepo = new CachingRepo<>(new SynchronizedRepo<>(new InFileRepo<>("src/main/java/org/example/Data/parents.csv",Parent::fromCSV)), CACHE_SIZE);
+        IRepo<Session> sessionRepo = new CachingRepo<>(new SynchronizedRepo<>(new InFileRepo<>("src/main/java/org/example/Data/sessions.csv",Session::fromCSV)), CACHE_SIZE);
+        IRepo<Trainer> trainerRepo = new CachingRepo<>(new SynchronizedRepo<>(new InFileRepo<>("src/main/java/org/example/Data/trainers.csv",Trainer::fromCSV)), CACHE_SIZE);
+        IRepo<Contest> contestRepo = new CachingRepo<>(new SynchronizedRepo<>(new InFileRepo<>("src/main/java/org/example/Data/contests.csv",Contest::fromCSV)), CACHE_SIZE);
+        IRepo<TrainingCamp> trainingCampRepo = new CachingRepo<>(new SynchronizedRepo<>(new InFileRepo<>("src/main/java/org/example/Data/trainingCamps.csv",TrainingCamp::fromCSV)), CACHE_SIZE);
+        IRepo<BeltExam> beltExamRepo = new CachingRepo<>(new SynchronizedRepo<>(new InFileRepo<>("src/main/java/org/example/Data/beltExams.csv",BeltExam::fromCSV)), CACHE_SIZE);
+        IdAllocatorFactory idAllocators = (entityName, repo) -> new FileIdAllocator("src/main/java/org/example/Data/" + entityName + ".ids", repo);
 
-        return new TKD_Service(studentRepo,trainerRepo,parentRepo,sessionRepo,contestRepo,trainingCampRepo,beltExamRepo);
+        return new TKD_Service(studentRepo,trainerRepo,parentRepo,sessionRepo,contestRepo,trainingCampRepo,beltExamRepo,idAllocators);
+    }
+
+    //////// IN JOURNAL REPOSITORY /////////
+    /**
+     * makes a repo for append-only journal files, a journal that doesn't exist yet starts from the csv file of the same data
+     * @return a Service that contains Journal Repos
+     * @throws DatabaseException when a journal or csv file can't be read
+     */
+    private TKD_Service inJournalRepo() throws DatabaseException {
+        InJournalRepo<Student> studentRepo = new InJournalRepo<>("src/main/java/org/example/Data/students.journal","src/main/java/org/example/Data/students.csv",Student::fromCSV);
+        InJournalRepo<Parent> parentRepo = new InJournalRepo<>("src/main/java/org/example/Data/parents.journal","src/main/java/org/example/Data/parents.csv",Parent::fromCSV);
+        InJournalRepo<Session> sessionRepo = new InJournalRepo<>("src/main/java/org/example/Data/sessions.journal","src/main/java/org/example/Data/sessions.csv",Session::fromCSV);
+        InJournalRepo<Trainer> trainerRepo = new InJournalRepo<>("src/main/java/org/example/Data/trainers.journal","src/main/java/org/example/Data/trainers.csv",Trainer::fromCSV);
+        InJournalRepo<Contest> contestRepo = new InJournalRepo<>("src/main/java/org/example/Data/contests.journal","src/main/java/org/example/Data/contests.csv",Contest::fromCSV);
+        InJournalRepo<TrainingCamp> trainingCampRepo = new InJournalRepo<>("src/main/java/org/example/Data/trainingCamps.journal","src/main/java/org/example/Data/trainingCamps.csv",TrainingCamp::fromCSV);
+        InJournalRepo<BeltExam> beltExamRepo = new InJournalRepo<>("src/main/java/org/example/Data/beltExams.journal","src/main/java/org/example/Data/beltExams.csv",BeltExam::fromCSV);
+        IdAllocatorFactory idAllocators = (entityName, repo) -> new FileIdAllocator("src/main/java/org/example/Data/" + entityName + ".journal.ids", repo);
+
+        return new TKD_Service(studentRepo,trainerRepo,parentRepo,sessionRepo,contestRepo,trainingCampRepo,beltExamRepo,idAllocators);
     }
 
     /**
@@ -215,6 +259,8 @@ public class TKDUI {
         System.out.println("\n 1. InMemoryRepo (type 'memory')");
         System.out.println("\n 2. InFileRepo (type 'file')");
         System.out.println("\n 3. DatabaseRepo (type 'database')");
+        System.out.println("\n 4. InJournalRepo (type 'journal')");
+        System.out.println("\n 5. ConcurrentInMemoryRepo (type 'concurrent')");
         System.out.println("\n Select an option: ");
     }
 
@@ -269,7 +315,13 @@ public class TKDUI {
         }
 
         System.out.println("Here is a list of events (contests and/or training camps) within the budget range you specified:");
-        tkdController.eventsThatdontExceedAmountOfMoney(amountOfMoney);
+        EventCatalog catalog = tkdController.loadEventCatalog();
+        tkdController.eventsThatdontExceedAmountOfMoney(catalog, amountOfMoney);
+
+        System.out.print("Show the ids of every combination as they are found? (y/n): ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("y")) {
+            tkdController.streamEventCombinations(catalog, amountOfMoney);
+        }
 
     }
 
@@ -1268,7 +1320,7 @@ public class TKDUI {
      */
     private void viewTrainers() {
         System.out.println("=== List of Trainers ===");
-        tkdController.viewTrainers();
+        showPages(afterId -> tkdController.viewTrainersPage(afterId, PAGE_SIZE));
     }
 
     /**
@@ -1276,7 +1328,7 @@ public class TKDUI {
      */
     private void viewParents(){
         System.out.println("=== List of Parents ===");
-        tkdController.viewParents();
+        showPages(afterId -> tkdController.viewParentsPage(afterId, PAGE_SIZE));
     }
 
     /**
@@ -1284,7 +1336,7 @@ public class TKDUI {
      */
     private void viewContests(){
         System.out.println("=== List of Contests ===");
-        tkdController.viewContests();
+        showPages(afterId -> tkdController.viewContestsPage(afterId, PAGE_SIZE));
     }
 
     /**
@@ -1292,7 +1344,7 @@ public class TKDUI {
      */
     private void viewTrainingCamp(){
         System.out.println("=== List of Training camps ===");
-        tkdController.viewTrainingCamps();
+        showPages(afterId -> tkdController.viewTrainingCampsPage(afterId, PAGE_SIZE));
     }
 
     /**
@@ -1300,7 +1352,22 @@ public class TKDUI {
      */
     private void viewStudents() {
         System.out.println("=== List of Students ===");
-        tkdController.viewStudents();
+        showPages(afterId -> tkdController.viewStudentsPage(afterId, PAGE_SIZE));
+    }
+
+    /**
+     * shows a list one page at a time, the next page is only loaded when the user asks for it
+     * @param showPage shows the page after an id and returns the id of its last object, or -1 after the last page
+     */
+    private void showPages(IntUnaryOperator showPage) {
+        int lastId = showPage.applyAsInt(0);
+        while (lastId != -1) {
+            System.out.print("Press Enter for the next page or type q to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
+            }
+            lastId = showPage.applyAsInt(lastId);
+        }
     }
 
     /**
@@ -1308,7 +1375,7 @@ public class TKDUI {
      */
     private void viewBeltExams(){
         System.out.println("=== List of Belt Exams ===");
-        tkdController.viewBeltExams();
+        showPages(afterId -> tkdController.viewBeltExamsPage(afterId, PAGE_SIZE));
     }
 
     /**
@@ -1393,12 +1460,13 @@ public class TKDUI {
     private void generateBill() throws ValidationException {
         int parentId = readParentId();
 
-        System.out.print("Enter   the month for the invoice: ");
+        System.out.print("Enter   the month for the invoice (MM for this year, or yyyy-MM): ");
         String month = scanner.nextLine();
         if(month.isEmpty()){
             throw new ValidationException(" the month for the invoice cannot be empty");
         }
-        if(Integer.parseInt(month) < 1 || Integer.parseInt(month) > 12){
+        if(!month.matches("(\\d{4}-)?\\d{1,2}") || Integer.parseInt(month.substring(month.indexOf('-') + 1)) < 1
+                || Integer.parseInt(month.substring(month.indexOf('-') + 1)) > 12){
             throw new ValidationException("The month for the invoice must be between 1 and 12");
         }
 
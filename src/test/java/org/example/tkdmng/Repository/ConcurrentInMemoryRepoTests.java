@@ -0,0 +1,107 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Model.HasID;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentInMemoryRepoTests {
+
+	private record Item(Integer id, int value) implements HasID {
+		@Override
+		public Integer getId() {
+			return id;
+		}
+
+		@Override
+		public String[] getHeader() {
+			return new String[]{"id", "value"};
+		}
+
+		@Override
+		public String toCSV() {
+			return id + "," + value;
+		}
+	}
+
+	@Test
+	void concurrentWritersAndReaders() throws Exception {
+		ConcurrentInMemoryRepo<Item> repo = new ConcurrentInMemoryRepo<>();
+		int threads = 16;
+		int perThread = 500;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int first = t * perThread;
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = first; i < first + perThread; i++) {
+					repo.add(new Item(i, 0));
+					repo.update(new Item(i, 1));
+					assertNotNull(repo.get(i));
+					if (i % 2 == 0) {
+						repo.remove(i);
+					}
+					for (Item item : repo.getAll()) {
+						assertNotNull(item);
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		List<Item> all = repo.getAll();
+		assertEquals(threads * perThread / 2, all.size());
+		assertEquals(all.size(), repo.count());
+		Set<Integer> ids = new HashSet<>();
+		for (Item item : all) {
+			assertEquals(1, item.value());
+			assertTrue(item.id() % 2 == 1);
+			assertTrue(ids.add(item.id()));
+		}
+	}
+
+	@Test
+	void snapshotIsSharedUntilTheNextWrite() {
+		ConcurrentInMemoryRepo<Item> repo = new ConcurrentInMemoryRepo<>();
+		repo.add(new Item(1, 0));
+		List<Item> first = repo.getAll();
+		assertSame(first, repo.getAll());
+		repo.add(new Item(2, 0));
+		List<Item> second = repo.getAll();
+		assertEquals(1, first.size());
+		assertEquals(2, second.size());
+	}
+
+	@Test
+	void pagesFollowTheIdOrder() {
+		ConcurrentInMemoryRepo<Item> repo = new ConcurrentInMemoryRepo<>();
+		for (int id : new int[]{7, 3, 9, 1, 5}) {
+			repo.add(new Item(id, 0));
+		}
+		assertEquals(List.of(1, 3, 5, 7, 9), repo.getAll().stream().map(Item::id).toList());
+		assertEquals(List.of(5, 7), repo.getPageAfter(3, 2).stream().map(Item::id).toList());
+		assertEquals(List.of(9), repo.getPageAfter(8, 2).stream().map(Item::id).toList());
+		assertEquals(List.of(), repo.getPageAfter(9, 2));
+		assertEquals(List.of(5, 7), repo.getPage(1, 2).stream().map(Item::id).toList());
+	}
+}
@@ -0,0 +1,157 @@
+package org.example.tkdmng.Repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConnectionPoolTests {
+
+	private static final String URL = "jdbc:tkdpooltest:";
+	private static final AtomicInteger opened = new AtomicInteger();
+	private static final AtomicInteger validated = new AtomicInteger();
+	private static final Driver DRIVER = new FakeDriver();
+
+	/**
+	 * A driver whose connections only count how often they were opened and checked.
+	 */
+	private static class FakeDriver implements Driver {
+		@Override
+		public Connection connect(String url, Properties info) {
+			if (!acceptsURL(url)) {
+				return null;
+			}
+			opened.incrementAndGet();
+			boolean[] closed = {false};
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+					(proxy, method, args) -> switch (method.getName()) {
+						case "isValid" -> {
+							validated.incrementAndGet();
+							yield true;
+						}
+						case "isClosed" -> closed[0];
+						case "close" -> {
+							closed[0] = true;
+							yield null;
+						}
+						case "getAutoCommit" -> true;
+						case "hashCode" -> System.identityHashCode(proxy);
+						case "equals" -> proxy == args[0];
+						default -> null;
+					});
+		}
+
+		@Override
+		public boolean acceptsURL(String url) {
+			return url.startsWith(URL);
+		}
+
+		@Override
+		public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+			return new DriverPropertyInfo[0];
+		}
+
+		@Override
+		public int getMajorVersion() {
+			return 1;
+		}
+
+		@Override
+		public int getMinorVersion() {
+			return 0;
+		}
+
+		@Override
+		public boolean jdbcCompliant() {
+			return false;
+		}
+
+		@Override
+		public Logger getParentLogger() {
+			return Logger.getGlobal();
+		}
+	}
+
+	@BeforeAll
+	static void registerDriver() throws SQLException {
+		DriverManager.registerDriver(DRIVER);
+	}
+
+	@AfterAll
+	static void deregisterDriver() throws SQLException {
+		DriverManager.deregisterDriver(DRIVER);
+	}
+
+	@Test
+	void minimumIsOpenedUpFront() {
+		int before = opened.get();
+		try (ConnectionPool pool = new ConnectionPool(URL, 2, 5, 60_000, 0)) {
+			assertEquals(2, pool.getIdleCount());
+			assertEquals(before + 2, opened.get());
+		}
+	}
+
+	@Test
+	void onlyLongIdleConnectionsAreValidated() throws Exception {
+		try (ConnectionPool pool = new ConnectionPool(URL, 1, 5, 60_000, 0)) {
+			int before = validated.get();
+			pool.getConnection().close();
+			pool.getConnection().close();
+			assertEquals(before, validated.get());
+
+			pool.setValidationIdleMillis(0);
+			Thread.sleep(5);
+			pool.getConnection().close();
+			assertEquals(before + 1, validated.get());
+		}
+	}
+
+	@Test
+	void nestedBorrowsShareOneConnection() throws Exception {
+		try (ConnectionPool pool = new ConnectionPool(URL, 0, 5, 60_000, 0)) {
+			Connection outer = pool.getConnection();
+			Connection inner = pool.getConnection();
+			assertEquals(1, pool.getActiveCount());
+			inner.close();
+			assertEquals(1, pool.getActiveCount());
+			outer.close();
+			assertEquals(0, pool.getActiveCount());
+			assertEquals(1, pool.getIdleCount());
+		}
+	}
+
+	@Test
+	void handleClosedByAnotherThreadEndsTheLeaseOfItsOwner() throws Exception {
+		try (ConnectionPool pool = new ConnectionPool(URL, 0, 5, 60_000, 0)) {
+			Connection connection = pool.getConnection();
+			ExecutorService other = Executors.newSingleThreadExecutor();
+			other.submit(() -> {
+				connection.close();
+				return null;
+			}).get(10, TimeUnit.SECONDS);
+			other.shutdown();
+			assertEquals(0, pool.getActiveCount());
+			assertEquals(1, pool.getIdleCount());
+
+			Connection again = pool.getConnection();
+			assertEquals(1, pool.getActiveCount());
+			assertEquals(0, pool.getIdleCount());
+			again.close();
+			assertEquals(0, pool.getActiveCount());
+		}
+	}
+}
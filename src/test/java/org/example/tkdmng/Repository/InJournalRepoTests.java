@@ -0,0 +1,135 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Exceptions.DatabaseException;
+import org.example.tkdmng.Model.HasID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InJournalRepoTests {
+
+	@TempDir
+	Path dir;
+
+	private record Item(Integer id, int value) implements HasID {
+		static Item fromCSV(String line) {
+			String[] parts = line.split(",");
+			return new Item(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+		}
+
+		@Override
+		public Integer getId() {
+			return id;
+		}
+
+		@Override
+		public String[] getHeader() {
+			return new String[]{"id", "value"};
+		}
+
+		@Override
+		public String toCSV() {
+			return id + "," + value;
+		}
+	}
+
+	private String journal() {
+		return dir.resolve("items.journal").toString();
+	}
+
+	@Test
+	void replayKeepsTheLatestVersionOfEveryObject() throws Exception {
+		try (InJournalRepo<Item> repo = new InJournalRepo<>(journal(), Item::fromCSV)) {
+			repo.add(new Item(1, 0));
+			repo.add(new Item(2, 0));
+			repo.update(new Item(1, 5));
+			repo.remove(2);
+			repo.add(new Item(3, 0));
+			repo.add(new Item(3, 7));
+			repo.update(new Item(9, 0));
+			repo.remove(9);
+		}
+		try (InJournalRepo<Item> repo = new InJournalRepo<>(journal(), Item::fromCSV)) {
+			assertEquals(List.of(new Item(1, 5), new Item(3, 7)), repo.getAll());
+		}
+	}
+
+	@Test
+	void truncatedLastRecordIsSkipped() throws Exception {
+		Files.writeString(Path.of(journal()), "+,1,1\n+,2,2\n+,3", StandardCharsets.UTF_8);
+		try (InJournalRepo<Item> repo = new InJournalRepo<>(journal(), Item::fromCSV)) {
+			assertEquals(2, repo.count());
+			assertNull(repo.get(3));
+			repo.add(new Item(4, 4));
+		}
+		try (InJournalRepo<Item> repo = new InJournalRepo<>(journal(), Item::fromCSV)) {
+			assertEquals(3, repo.count());
+			assertEquals(new Item(4, 4), repo.get(4));
+			repo.add(new Item(5, 5));
+		}
+		try (InJournalRepo<Item> repo = new InJournalRepo<>(journal(), Item::fromCSV)) {
+			assertEquals(4, repo.count());
+			assertEquals(new Item(4, 4), repo.get(4));
+			assertEquals(new Item(5, 5), repo.get(5));
+		}
+	}
+
+	@Test
+	void damagedRecordFailsTheReplay() throws Exception {
+		Files.writeString(Path.of(journal()), "+,1,1\n+,x\n+,2,2\n", StandardCharsets.UTF_8);
+		assertThrows(DatabaseException.class, () -> new InJournalRepo<>(journal(), Item::fromCSV));
+	}
+
+	@Test
+	void newJournalIsSeededFromTheCsvFile() throws Exception {
+		String csv = dir.resolve("items.csv").toString();
+		InFileRepo<Item> file = new InFileRepo<>(csv, Item::fromCSV);
+		file.add(new Item(1, 10));
+		file.add(new Item(2, 20));
+		try (InJournalRepo<Item> repo = new InJournalRepo<>(journal(), csv, Item::fromCSV)) {
+			assertEquals(List.of(new Item(1, 10), new Item(2, 20)), repo.getAll());
+			repo.remove(1);
+		}
+		try (InJournalRepo<Item> repo = new InJournalRepo<>(journal(), csv, Item::fromCSV)) {
+			assertEquals(List.of(new Item(2, 20)), repo.getAll());
+		}
+	}
+
+	@Test
+	void compactionDropsOutdatedRecords() throws Exception {
+		Path path = Path.of(journal());
+		try (InJournalRepo<Item> repo = new InJournalRepo<>(journal(), null, Item::fromCSV, 0.5)) {
+			for (int id = 0; id < 10; id++) {
+				repo.add(new Item(id, 0));
+			}
+			for (int round = 1; round <= 20; round++) {
+				for (int id = 0; id < 10; id++) {
+					repo.update(new Item(id, round));
+				}
+			}
+			long deadline = System.currentTimeMillis() + 10_000;
+			// 210 records were written, a finished compaction leaves fewer lines than that
+			while (Files.readAllLines(path).size() >= 210 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+			}
+			assertTrue(Files.readAllLines(path).size() < 210);
+			repo.update(new Item(0, 99));
+		}
+		try (InJournalRepo<Item> repo = new InJournalRepo<>(journal(), Item::fromCSV)) {
+			assertEquals(10, repo.count());
+			assertEquals(new Item(0, 99), repo.get(0));
+			for (int id = 1; id < 10; id++) {
+				assertEquals(new Item(id, 20), repo.get(id));
+			}
+		}
+	}
+}
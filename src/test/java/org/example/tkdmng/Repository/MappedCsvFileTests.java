@@ -0,0 +1,72 @@
+package org.example.tkdmng.Repository;
+
+import org.example.tkdmng.Model.HasID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedCsvFileTests {
+
+	@TempDir
+	Path dir;
+
+	private record Item(Integer id, int value) implements HasID {
+		static Item fromCSV(String line) {
+			String[] parts = line.split(",");
+			return new Item(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+		}
+
+		@Override
+		public Integer getId() {
+			return id;
+		}
+
+		@Override
+		public String[] getHeader() {
+			return new String[]{"id", "value"};
+		}
+
+		@Override
+		public String toCSV() {
+			return id + "," + value;
+		}
+	}
+
+	@Test
+	void readsTheRowsOfTheFile() throws Exception {
+		Path file = dir.resolve("items.csv");
+		Files.writeString(file, "id,value\r\n1,10\r\n-2,20\r\n\r\n3,30", StandardCharsets.UTF_8);
+		try (MappedCsvFile<Item> mapped = MappedCsvFile.open(file, Item::fromCSV)) {
+			assertEquals("id,value", mapped.getHeader());
+			assertEquals(3, mapped.size());
+			assertEquals(-2, mapped.getId(1));
+			assertEquals(new Item(3, 30), mapped.get(2));
+			assertEquals(List.of(new Item(1, 10), new Item(-2, 20), new Item(3, 30)), mapped.getAll());
+		}
+	}
+
+	@Test
+	void fileCanBeRewrittenAfterClose() throws Exception {
+		Path file = dir.resolve("items.csv");
+		Files.writeString(file, "id,value\n1,10\n2,20\n", StandardCharsets.UTF_8);
+		MappedCsvFile<Item> mapped = MappedCsvFile.open(file, Item::fromCSV);
+		assertEquals(new Item(2, 20), mapped.get(1));
+		mapped.close();
+
+		Files.writeString(file, "id,value\n5,50\n", StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		assertThrows(IllegalStateException.class, () -> mapped.get(0));
+		assertThrows(IllegalStateException.class, () -> mapped.getId(0));
+		try (MappedCsvFile<Item> reopened = MappedCsvFile.open(file, Item::fromCSV)) {
+			assertEquals(List.of(new Item(5, 50)), reopened.getAll());
+		}
+		mapped.close();
+	}
+}
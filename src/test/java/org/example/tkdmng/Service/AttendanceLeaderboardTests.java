@@ -0,0 +1,93 @@
+package org.example.tkdmng.Service;
+
+import org.example.tkdmng.Model.BeltLevel;
+import org.example.tkdmng.Model.SessionDate;
+import org.example.tkdmng.Model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AttendanceLeaderboardTests {
+
+	private static Student student(int id, int session, int attendances) {
+		Student student = new Student(id, "Name" + id, "Last" + id, "s" + id + "@tkd.ro", "Street", 2010, "0700", BeltLevel.white, session);
+		for (int i = 0; i < attendances; i++) {
+			student.addSessionDate(new SessionDate("Monday", "2024-01-0" + (i % 9 + 1), session, true));
+		}
+		return student;
+	}
+
+	private static List<Integer> ids(List<AttendanceLeaderboard.Rank> ranks) {
+		return ranks.stream().map(AttendanceLeaderboard.Rank::studentId).toList();
+	}
+
+	@Test
+	void ranksByAttendanceThenById() {
+		AttendanceLeaderboard leaderboard = new AttendanceLeaderboard();
+		leaderboard.update(student(3, 1, 2));
+		leaderboard.update(student(1, 1, 2));
+		leaderboard.update(student(2, 2, 5));
+		leaderboard.update(student(4, 2, 0));
+
+		assertEquals(List.of(2, 1, 3, 4), ids(leaderboard.top(10)));
+		assertEquals(List.of(2, 1), ids(leaderboard.top(2)));
+		assertEquals(List.of(), leaderboard.top(0));
+		assertEquals(List.of(1, 3), ids(leaderboard.top(1, 10)));
+		assertEquals(List.of(2, 4), ids(leaderboard.top(2, 10)));
+		assertEquals(List.of(), leaderboard.top(3, 10));
+		assertEquals("Name2", leaderboard.top(1).get(0).name());
+	}
+
+	@Test
+	void recordedAttendanceMovesTheStudent() {
+		AttendanceLeaderboard leaderboard = new AttendanceLeaderboard();
+		leaderboard.update(student(1, 1, 1));
+		leaderboard.update(student(2, 1, 2));
+		leaderboard.update(student(3, 1, 3));
+
+		leaderboard.recordAttendance(1, true);
+		leaderboard.recordAttendance(1, true);
+		assertEquals(List.of(1, 3, 2), ids(leaderboard.top(10)));
+		assertEquals(List.of(1, 3, 2), ids(leaderboard.top(1, 10)));
+		assertEquals(3, leaderboard.top(1).get(0).attendances());
+
+		leaderboard.recordAttendance(2, false);
+		leaderboard.recordAttendance(9, true);
+		assertEquals(List.of(1, 3, 2), ids(leaderboard.top(10)));
+		assertEquals(3, leaderboard.top(10).size());
+	}
+
+	@Test
+	void updateMovesTheStudentBetweenSessions() {
+		AttendanceLeaderboard leaderboard = new AttendanceLeaderboard();
+		leaderboard.update(student(1, 1, 4));
+		leaderboard.update(student(2, 1, 1));
+
+		leaderboard.update(student(1, 2, 4));
+		assertEquals(List.of(2), ids(leaderboard.top(1, 10)));
+		assertEquals(List.of(1), ids(leaderboard.top(2, 10)));
+		assertEquals(List.of(1, 2), ids(leaderboard.top(10)));
+
+		leaderboard.update(student(2, 2, 7));
+		assertTrue(leaderboard.top(1, 10).isEmpty());
+		assertEquals(List.of(2, 1), ids(leaderboard.top(2, 10)));
+	}
+
+	@Test
+	void removedStudentsLeaveEveryRanking() {
+		AttendanceLeaderboard leaderboard = new AttendanceLeaderboard();
+		leaderboard.update(student(1, 1, 4));
+		leaderboard.update(student(2, 2, 1));
+
+		leaderboard.remove(1);
+		leaderboard.remove(5);
+		assertEquals(List.of(2), ids(leaderboard.top(10)));
+		assertTrue(leaderboard.top(1, 10).isEmpty());
+
+		leaderboard.recordAttendance(1, true);
+		assertEquals(List.of(2), ids(leaderboard.top(10)));
+	}
+}
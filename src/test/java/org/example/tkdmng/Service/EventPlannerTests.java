@@ -0,0 +1,196 @@
+package org.example.tkdmng.Service;
+
+import org.example.tkdmng.Model.EventSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventPlannerTests {
+
+	private static final double[] PRICES = {12.35, 7.10, 7.10, 0.99, 20.00, 3.45, 15.50, 9.99, 0.00, 7.10};
+	private static final double[] BUDGETS = {0, 0.98, 7.10, 25.37, 50, 1000};
+
+	private static List<EventSummary> events() {
+		List<EventSummary> events = new ArrayList<>();
+		for (int i = 0; i < PRICES.length; i++) {
+			EventSummary.Kind kind = i % 2 == 0 ? EventSummary.Kind.CONTEST : EventSummary.Kind.TRAINING_CAMP;
+			events.add(new EventSummary(kind, i + 1, "2025-01-01", "2025-01-02", PRICES[i]));
+		}
+		return events;
+	}
+
+	/**
+	 * Every non-empty set of events that fits in the budget, as the sorted ids of the events.
+	 */
+	private static Set<List<Integer>> bruteForce(List<EventSummary> events, long budgetCents) {
+		Set<List<Integer>> plans = new HashSet<>();
+		for (int mask = 1; mask < 1 << events.size(); mask++) {
+			long cost = 0;
+			List<Integer> ids = new ArrayList<>();
+			for (int i = 0; i < events.size(); i++) {
+				if ((mask & 1 << i) != 0) {
+					cost += EventPlanner.toCents(events.get(i).price());
+					ids.add(events.get(i).id());
+				}
+			}
+			if (cost <= budgetCents) {
+				plans.add(ids);
+			}
+		}
+		return plans;
+	}
+
+	private static long cost(List<EventSummary> events, List<Integer> ids) {
+		long cost = 0;
+		for (EventSummary event : events) {
+			if (ids.contains(event.id())) {
+				cost += EventPlanner.toCents(event.price());
+			}
+		}
+		return cost;
+	}
+
+	private static List<Integer> ids(EventPlanner.Plan plan) {
+		List<Integer> ids = new ArrayList<>(plan.events().stream().map(EventSummary::id).toList());
+		Collections.sort(ids);
+		return ids;
+	}
+
+	@Test
+	void countsEveryPlanThatFits() {
+		List<EventSummary> events = events();
+		EventPlanner planner = new EventPlanner(events, EventSummary::price);
+		for (double budget : BUDGETS) {
+			long budgetCents = EventPlanner.toCents(budget);
+			assertEquals(bruteForce(events, budgetCents).size(), planner.countPlans(budgetCents), "budget " + budget);
+		}
+		assertEquals(0, planner.countPlans(-1));
+	}
+
+	@Test
+	void enumeratesEveryPlanOnce() {
+		List<EventSummary> events = events();
+		EventPlanner planner = new EventPlanner(events, EventSummary::price);
+		for (double budget : BUDGETS) {
+			long budgetCents = EventPlanner.toCents(budget);
+			Set<List<Integer>> expected = bruteForce(events, budgetCents);
+			List<EventPlanner.Plan> plans = planner.enumeratePlans(budgetCents, Integer.MAX_VALUE);
+			Set<List<Integer>> found = new HashSet<>();
+			for (EventPlanner.Plan plan : plans) {
+				assertTrue(found.add(ids(plan)), "plan found twice for budget " + budget);
+				assertEquals(cost(events, ids(plan)), plan.costCents());
+			}
+			assertEquals(expected, found, "budget " + budget);
+
+			List<EventPlanner.Plan> limited = planner.enumeratePlans(budgetCents, 5);
+			assertEquals(Math.min(5, expected.size()), limited.size());
+			for (EventPlanner.Plan plan : limited) {
+				assertTrue(expected.contains(ids(plan)));
+			}
+		}
+	}
+
+	@Test
+	void searchesEveryPlanInParallel() {
+		List<EventSummary> events = events();
+		EventPlanner planner = new EventPlanner(events, EventSummary::price);
+		for (double budget : BUDGETS) {
+			long budgetCents = EventPlanner.toCents(budget);
+			ConcurrentLinkedQueue<EventPlanner.Plan> sink = new ConcurrentLinkedQueue<>();
+			int found = planner.searchInParallel(budgetCents, Integer.MAX_VALUE, sink::addAll).await();
+			Set<List<Integer>> plans = new HashSet<>();
+			for (EventPlanner.Plan plan : sink) {
+				plans.add(ids(plan));
+			}
+			assertEquals(sink.size(), found);
+			assertEquals(bruteForce(events, budgetCents), plans, "budget " + budget);
+		}
+	}
+
+	@Test
+	void parallelSearchStopsAtTheLimit() {
+		List<EventSummary> events = events();
+		EventPlanner planner = new EventPlanner(events, EventSummary::price);
+		for (double budget : BUDGETS) {
+			long budgetCents = EventPlanner.toCents(budget);
+			Set<List<Integer>> expected = bruteForce(events, budgetCents);
+			for (int limit : new int[]{1, 5, EventPlanner.BATCH_SIZE, EventPlanner.BATCH_SIZE + 1}) {
+				ConcurrentLinkedQueue<EventPlanner.Plan> sink = new ConcurrentLinkedQueue<>();
+				EventPlanner.PlanSearch search = planner.searchInParallel(budgetCents, limit, sink::addAll);
+				int found = search.await();
+				Set<List<Integer>> plans = new HashSet<>();
+				for (EventPlanner.Plan plan : sink) {
+					assertTrue(plans.add(ids(plan)), "plan found twice for budget " + budget);
+				}
+				assertEquals(Math.min(limit, expected.size()), found, "budget " + budget + ", limit " + limit);
+				assertEquals(found, search.found());
+				assertEquals(found, sink.size());
+				assertTrue(expected.containsAll(plans));
+			}
+		}
+	}
+
+	@Test
+	void parallelSearchStopsWhenCancelled() throws Exception {
+		List<EventSummary> events = events();
+		EventPlanner planner = new EventPlanner(events, EventSummary::price);
+		long budgetCents = EventPlanner.toCents(1000);
+		int every = bruteForce(events, budgetCents).size();
+		AtomicReference<EventPlanner.PlanSearch> running = new AtomicReference<>();
+		CountDownLatch started = new CountDownLatch(1);
+		ConcurrentLinkedQueue<EventPlanner.Plan> sink = new ConcurrentLinkedQueue<>();
+		EventPlanner.PlanSearch search = planner.searchInParallel(budgetCents, Integer.MAX_VALUE, batch -> {
+			sink.addAll(batch);
+			try {
+				started.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			running.get().cancel();
+		});
+		running.set(search);
+		started.countDown();
+
+		int found = search.await();
+		assertTrue(search.isCancelled());
+		assertTrue(found < every, found + " plans found out of " + every);
+		assertEquals(found, sink.size());
+	}
+
+	@Test
+	void ranksTheMostExpensivePlansFirst() {
+		List<EventSummary> events = events();
+		EventPlanner planner = new EventPlanner(events, EventSummary::price);
+		for (double budget : BUDGETS) {
+			long budgetCents = EventPlanner.toCents(budget);
+			List<Long> expected = new ArrayList<>();
+			for (List<Integer> plan : bruteForce(events, budgetCents)) {
+				expected.add(cost(events, plan));
+			}
+			expected.sort(Comparator.reverseOrder());
+			for (int n : new int[]{1, 3, 10}) {
+				List<EventPlanner.Plan> plans = planner.topPlans(budgetCents, n);
+				Set<List<Integer>> distinct = new HashSet<>();
+				List<Long> costs = new ArrayList<>();
+				for (EventPlanner.Plan plan : plans) {
+					assertTrue(distinct.add(ids(plan)), "plan found twice for budget " + budget);
+					assertTrue(plan.costCents() <= budgetCents);
+					costs.add(plan.costCents());
+				}
+				assertEquals(expected.subList(0, Math.min(n, expected.size())), costs, "budget " + budget + ", n " + n);
+			}
+		}
+		assertTrue(planner.topPlans(EventPlanner.toCents(50), 0).isEmpty());
+	}
+}
@@ -0,0 +1,83 @@
+package org.example.tkdmng.Service;
+
+import org.example.tkdmng.Model.BeltExam;
+import org.example.tkdmng.Model.BeltLevel;
+import org.example.tkdmng.Model.Contest;
+import org.example.tkdmng.Model.HasID;
+import org.example.tkdmng.Model.Parent;
+import org.example.tkdmng.Model.Session;
+import org.example.tkdmng.Model.SessionDate;
+import org.example.tkdmng.Model.Student;
+import org.example.tkdmng.Model.Trainer;
+import org.example.tkdmng.Model.TrainingCamp;
+import org.example.tkdmng.Repository.InMemoryRepo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TKDServiceRankingTests {
+
+	/**
+	 * An in-memory repository that counts how often it is read.
+	 */
+	private static class CountingRepo<T extends HasID> extends InMemoryRepo<T> {
+		int getCalls = 0;
+		int getAllCalls = 0;
+
+		@Override
+		public T get(Integer getId) {
+			getCalls++;
+			return super.get(getId);
+		}
+
+		@Override
+		public List<T> getAll() {
+			getAllCalls++;
+			return super.getAll();
+		}
+
+		void reset() {
+			getCalls = 0;
+			getAllCalls = 0;
+		}
+	}
+
+	private static Student student(int id, int attendances) {
+		Student student = new Student(id, "Name" + id, "Last" + id, "s" + id + "@tkd.ro", "Street", 2010, "0700", BeltLevel.white, 1);
+		for (int i = 0; i < attendances; i++) {
+			student.addSessionDate(new SessionDate("Monday", "2024-01-0" + (i % 9 + 1), 1, true));
+		}
+		return student;
+	}
+
+	@Test
+	void rankingReadsTheStudentsOnce() throws Exception {
+		CountingRepo<Student> students = new CountingRepo<>();
+		for (int id = 1; id <= 50; id++) {
+			students.add(student(id, id % 7));
+		}
+		TKD_Service service = new TKD_Service(students, new InMemoryRepo<Trainer>(), new InMemoryRepo<Parent>(), new InMemoryRepo<Session>(),
+				new InMemoryRepo<Contest>(), new InMemoryRepo<TrainingCamp>(), new InMemoryRepo<BeltExam>());
+
+		for (boolean parallel : new boolean[]{false, true}) {
+			students.reset();
+			List<Student> ranking = service.rankStudentsByAttendance(parallel);
+
+			assertEquals(1, students.getAllCalls);
+			assertEquals(0, students.getCalls);
+			assertEquals(50, ranking.size());
+			for (int i = 1; i < ranking.size(); i++) {
+				Student before = ranking.get(i - 1);
+				Student after = ranking.get(i);
+				assertTrue(before.getAttendances() >= after.getAttendances());
+			}
+		}
+		students.reset();
+		service.rankStudentsByAttendance();
+		assertEquals(1, students.getAllCalls);
+		assertEquals(0, students.getCalls);
+	}
+}